@@ -0,0 +1,84 @@
+package io.odpf.depot.benchmark;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Allocation and time per call of a hot path against the code it replaced.
+ * Both paths are warmed up together and then measured one after the other on the current thread. The numbers depend on
+ * the host and the jit, they are printed for comparison and nothing is asserted.
+ */
+public final class Comparison {
+    private static final int WARMUP_ROUNDS = 3;
+
+    private final String name;
+    private final int calls;
+    private long checksum;
+
+    public Comparison(String name, int calls) {
+        this.name = name;
+        this.calls = calls;
+    }
+
+    /**
+     * A call of the measured path, the result is summed so that the jit can't drop the call.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        int run() throws Exception;
+    }
+
+    public void print(PrintStream out, String candidateName, Operation candidate, String baselineName, Operation baseline) throws Exception {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            loop(candidate);
+            loop(baseline);
+        }
+        Measurement candidateMeasurement = measure(candidate);
+        Measurement baselineMeasurement = measure(baseline);
+        out.printf("%s per call: %s %s, %s %s (checksum %d)%n", name, candidateName, candidateMeasurement,
+                baselineName, baselineMeasurement, checksum);
+    }
+
+    private Measurement measure(Operation operation) throws Exception {
+        long startBytes = allocatedBytes();
+        long startNanos = System.nanoTime();
+        loop(operation);
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = allocatedBytes() - startBytes;
+        return new Measurement(startBytes < 0 ? -1 : bytes / calls, nanos / calls);
+    }
+
+    private void loop(Operation operation) throws Exception {
+        for (int i = 0; i < calls; i++) {
+            checksum += operation.run();
+        }
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported() || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static final class Measurement {
+        private final long bytes;
+        private final long nanos;
+
+        private Measurement(long bytes, long nanos) {
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public String toString() {
+            return (bytes < 0 ? "n/a" : String.valueOf(bytes)) + " bytes " + nanos + " ns";
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.odpf.depot.benchmark;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.timgroup.statsd.NoOpStatsDClient;
+import io.odpf.depot.StatusBQ;
+import io.odpf.depot.TestMessageBQ;
+import io.odpf.depot.bigquery.client.HashingInsertIdGenerator;
+import io.odpf.depot.config.BigQuerySinkConfig;
+import io.odpf.depot.config.ConfigSnapshot;
+import io.odpf.depot.config.OdpfSinkConfig;
+import io.odpf.depot.message.OdpfMessage;
+import io.odpf.depot.message.json.JsonOdpfMessageParser;
+import io.odpf.depot.message.proto.converter.fields.ProtoFieldFactory;
+import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.JsonParserMetrics;
+import io.odpf.depot.metrics.StatsDMetric;
+import io.odpf.depot.metrics.StatsDReporter;
+import org.aeonbits.owner.ConfigFactory;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.odpf.depot.message.SinkConnectorSchemaMessageMode.LOG_MESSAGE;
+
+/**
+ * Prints the allocation and time per call of the hot paths against the code they replaced, run with
+ * {@code ./gradlew benchmark}. It is not part of the test run.
+ */
+public final class DepotBenchmarks {
+    private static final int CALLS = 100_000;
+    private static final int PARSE_CALLS = 20_000;
+
+    private DepotBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        PrintStream out = System.out;
+        protoFieldConverters(out);
+        configSnapshot(out);
+        jsonParser(out);
+        statsDMetric(out);
+        insertIdGenerator(out);
+    }
+
+    private static void protoFieldConverters(PrintStream out) throws Exception {
+        TestMessageBQ message = TestMessageBQ.newBuilder()
+                .setOrderNumber("order-1")
+                .setOrderUrl("https://order/1")
+                .setStatus(StatusBQ.COMPLETED)
+                .setDiscount(10)
+                .setPrice(12.5f)
+                .addAliases("alias")
+                .build();
+        DynamicMessage dynamicMessage = DynamicMessage.parseFrom(TestMessageBQ.getDescriptor(), message.toByteArray());
+        List<Descriptors.FieldDescriptor> fields = TestMessageBQ.getDescriptor().getFields();
+        Object[] values = fields.stream().map(dynamicMessage::getField).toArray();
+
+        new Comparison("proto field conversion", PARSE_CALLS).print(out,
+                "cached converters", () -> {
+                    int converted = 0;
+                    for (int i = 0; i < values.length; i++) {
+                        converted += ProtoFieldFactory.getConverter(fields.get(i)).convert(values[i]) == null ? 0 : 1;
+                    }
+                    return converted;
+                },
+                "field matching per value", () -> {
+                    int converted = 0;
+                    for (int i = 0; i < values.length; i++) {
+                        converted += ProtoFieldFactory.getField(fields.get(i), values[i]).getValue() == null ? 0 : 1;
+                    }
+                    return converted;
+                });
+    }
+
+    private static void configSnapshot(PrintStream out) throws Exception {
+        BigQuerySinkConfig config = ConfigFactory.create(BigQuerySinkConfig.class,
+                Collections.singletonMap("SINK_BIGQUERY_TABLE_NAME", "table"));
+        BigQuerySinkConfig snapshot = ConfigSnapshot.of(BigQuerySinkConfig.class, config);
+
+        new Comparison("config getters of a message", CALLS).print(out,
+                "snapshot", () -> readHotPath(snapshot),
+                "owner proxy", () -> readHotPath(config));
+    }
+
+    /**
+     * Getters the sink reads for every message.
+     */
+    private static int readHotPath(BigQuerySinkConfig config) {
+        int read = config.getSinkConnectorSchemaMessageMode().ordinal();
+        read += config.getSinkConnectorSchemaProtoAllowUnknownFieldsEnable() ? 1 : 0;
+        read += config.shouldAddMetadata() ? 1 : 0;
+        read += config.getTableName().length();
+        read += config.getSinkConnectorSchemaProtoMessageClass().length();
+        return read;
+    }
+
+    private static void jsonParser(PrintStream out) throws Exception {
+        OdpfSinkConfig jsonObjectConfig = ConfigFactory.create(OdpfSinkConfig.class, Collections.emptyMap());
+        OdpfSinkConfig streamingConfig = ConfigFactory.create(OdpfSinkConfig.class,
+                Collections.singletonMap("SINK_CONNECTOR_SCHEMA_JSON_PARSER_STREAMING_ENABLE", "true"));
+        Instrumentation instrumentation = new Instrumentation(new StatsDReporter(new NoOpStatsDClient()), JsonOdpfMessageParser.class);
+        JsonParserMetrics metrics = new JsonParserMetrics(jsonObjectConfig);
+        JsonOdpfMessageParser jsonObjectParser = new JsonOdpfMessageParser(jsonObjectConfig, instrumentation, metrics);
+        JsonOdpfMessageParser streamingParser = new JsonOdpfMessageParser(streamingConfig, instrumentation, metrics);
+        OdpfMessage message = new OdpfMessage(null, ("{\"idfv\": \"FE533F4A-F776-4BEF-98B7-6BD1DFC2972C\", \"is_lat\": true, "
+                + "\"sdk_version\": 6.310932397154218, \"whole_number\": 2, \"country\": \"ID\", \"tags\": [\"a\", 1, true]}").getBytes());
+
+        new Comparison("json message parsing", PARSE_CALLS).print(out,
+                "streaming", () -> streamingParser.parse(message, LOG_MESSAGE, null).getMapping(null).size(),
+                "json object", () -> jsonObjectParser.parse(message, LOG_MESSAGE, null).getMapping(null).size());
+    }
+
+    private static void statsDMetric(PrintStream out) throws Exception {
+        StatsDReporter reporter = new StatsDReporter(new NoOpStatsDClient(), "env:test");
+        StatsDMetric metric = reporter.metric("operation_total", "table=t", "dataset=d", "api=TABLE_INSERT_ALL");
+
+        new Comparison("metric increment", CALLS).print(out,
+                "resolved handle", () -> {
+                    metric.increment();
+                    return 1;
+                },
+                "reporter with tags", () -> {
+                    reporter.increment("operation_total", "table=t", "dataset=d", "api=TABLE_INSERT_ALL");
+                    return 1;
+                });
+    }
+
+    private static void insertIdGenerator(PrintStream out) throws Exception {
+        HashingInsertIdGenerator generator = new HashingInsertIdGenerator(Arrays.asList("message_topic", "message_partition", "message_offset"));
+        Function<Map<String, Object>, String> concatenation = metadata -> metadata.get("message_topic") + "_"
+                + metadata.get("message_partition") + "_" + metadata.get("message_offset");
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("message_topic", "booking-log-events");
+        metadata.put("message_partition", 12);
+        metadata.put("message_offset", 4_823_991_052L);
+
+        new Comparison("insert id of a row", CALLS).print(out,
+                "hash", () -> generator.apply(metadata).length(),
+                "concatenation", () -> concatenation.apply(metadata).length());
+    }
+}
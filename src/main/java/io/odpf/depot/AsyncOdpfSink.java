@@ -0,0 +1,20 @@
+package io.odpf.depot;
+
+import io.odpf.depot.message.OdpfMessage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sink that can take the next batch while earlier batches are still being written.
+ */
+public interface AsyncOdpfSink extends OdpfSink {
+
+    /**
+     * Prepares the messages on the calling thread and writes them in the background.
+     * Blocks while the maximum number of batches are already in flight, so a slow sink applies backpressure to the caller.
+     *
+     * @return future completed with the response of the batch, or exceptionally when the batch could not be written.
+     */
+    CompletableFuture<OdpfSinkResponse> pushToSinkAsync(List<OdpfMessage> messages);
+}
@@ -0,0 +1,244 @@
+package io.odpf.depot;
+
+import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.exception.OdpfSinkException;
+import io.odpf.depot.message.OdpfMessage;
+import io.odpf.depot.utils.ThreadUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the batches of many small calls into one large batch of the wrapped sink.
+ * Messages are buffered until the buffer holds max rows or max bytes, or the oldest buffered batch waited linger
+ * millis, then they are pushed to the wrapped sink in the order they were buffered. Each caller gets the errors
+ * of its own messages, indexed as in its batch, through the future returned by {@link #pushToSinkAsync}.
+ * A synchronous {@link #pushToSink} caller does not linger when no asynchronous caller is buffered: it writes the buffer
+ * right away, and the callers arriving while that write runs are coalesced into the next one. Behind buffered
+ * asynchronous callers it waits with them, up to linger millis.
+ * Closing the sink writes out everything still buffered before closing the wrapped sink.
+ */
+public class BufferedOdpfSink implements AsyncOdpfSink {
+    private final OdpfSink sink;
+    private final int maxRows;
+    private final long maxBytes;
+    private final long lingerMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Object bufferLock = new Object();
+    private final Object flushLock = new Object();
+    private List<PendingBatch> buffer = new ArrayList<>();
+    private int bufferedRows;
+    private long bufferedBytes;
+    private int bufferedAsyncBatches;
+    private long generation;
+    private boolean closed;
+
+    public BufferedOdpfSink(OdpfSink sink, int maxRows, long maxBytes, long lingerMillis) {
+        this(sink, maxRows, maxBytes, lingerMillis, Executors.newSingleThreadScheduledExecutor(ThreadUtils.daemonThreadFactory("buffered-odpf-sink")));
+    }
+
+    /**
+     * @param scheduler runs the flush of batches that waited linger millis, shut down when the sink is closed
+     */
+    public BufferedOdpfSink(OdpfSink sink, int maxRows, long maxBytes, long lingerMillis, ScheduledExecutorService scheduler) {
+        this.sink = sink;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+        this.lingerMillis = lingerMillis;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public OdpfSinkResponse pushToSink(List<OdpfMessage> messages) throws OdpfSinkException {
+        try {
+            return push(messages, true).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof OdpfSinkException) {
+                throw (OdpfSinkException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Buffers the messages, and writes the buffer on the calling thread when this batch fills it.
+     *
+     * @return future completed once the messages are written, or exceptionally when the wrapped sink failed.
+     */
+    @Override
+    public CompletableFuture<OdpfSinkResponse> pushToSinkAsync(List<OdpfMessage> messages) {
+        return push(messages, false);
+    }
+
+    private CompletableFuture<OdpfSinkResponse> push(List<OdpfMessage> messages, boolean synchronous) {
+        PendingBatch pending = new PendingBatch(messages);
+        boolean full;
+        long lingerGeneration = -1;
+        synchronized (bufferLock) {
+            if (closed) {
+                pending.future.completeExceptionally(new IllegalStateException("Buffered sink is closed"));
+                return pending.future;
+            }
+            if (messages.isEmpty()) {
+                pending.future.complete(new OdpfSinkResponse());
+                return pending.future;
+            }
+            buffer.add(pending);
+            bufferedRows += pending.messages.size();
+            bufferedBytes += estimateBytes(pending.messages);
+            if (!synchronous) {
+                bufferedAsyncBatches++;
+            }
+            full = bufferedRows >= maxRows || bufferedBytes >= maxBytes || lingerMillis <= 0
+                    || (synchronous && bufferedAsyncBatches == 0);
+            if (!full && buffer.size() == 1) {
+                lingerGeneration = generation;
+            }
+        }
+        if (full) {
+            flush(-1);
+        } else if (lingerGeneration >= 0) {
+            scheduleFlush(lingerGeneration);
+        }
+        return pending.future;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (bufferLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            flush(-1);
+        } finally {
+            scheduler.shutdownNow();
+            sink.close();
+        }
+    }
+
+    private void scheduleFlush(long lingerGeneration) {
+        try {
+            scheduler.schedule(() -> flush(lingerGeneration), lingerMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the sink is being closed, only writes the buffer if close did not already
+            flush(lingerGeneration);
+        }
+    }
+
+    /**
+     * Takes the whole buffer and writes it. Flushes run one at a time, so buffers reach the wrapped sink in order.
+     *
+     * @param expectedGeneration generation of the buffer a linger flush was scheduled for, -1 to flush any buffer
+     */
+    private void flush(long expectedGeneration) {
+        synchronized (flushLock) {
+            List<PendingBatch> batches;
+            synchronized (bufferLock) {
+                if (buffer.isEmpty() || (expectedGeneration >= 0 && expectedGeneration != generation)) {
+                    return;
+                }
+                batches = buffer;
+                buffer = new ArrayList<>();
+                bufferedRows = 0;
+                bufferedBytes = 0;
+                bufferedAsyncBatches = 0;
+                generation++;
+            }
+            write(batches);
+        }
+    }
+
+    private void write(List<PendingBatch> batches) {
+        List<OdpfMessage> messages = new ArrayList<>();
+        long[] offsets = new long[batches.size()];
+        for (int i = 0; i < batches.size(); i++) {
+            offsets[i] = messages.size();
+            messages.addAll(batches.get(i).messages);
+        }
+        CompletableFuture<OdpfSinkResponse> response;
+        try {
+            response = sink instanceof AsyncOdpfSink
+                    ? ((AsyncOdpfSink) sink).pushToSinkAsync(messages)
+                    : CompletableFuture.completedFuture(sink.pushToSink(messages));
+        } catch (OdpfSinkException | RuntimeException e) {
+            batches.forEach(batch -> batch.future.completeExceptionally(e));
+            return;
+        }
+        response.whenComplete((batchResponse, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                batches.forEach(batch -> batch.future.completeExceptionally(cause));
+                return;
+            }
+            try {
+                OdpfSinkResponse[] responses = splitResponse(batchResponse, offsets);
+                for (int i = 0; i < responses.length; i++) {
+                    batches.get(i).future.complete(responses[i]);
+                }
+            } catch (RuntimeException e) {
+                // a caller left waiting forever is worse than a failed one, futures already completed are not changed
+                batches.forEach(batch -> batch.future.completeExceptionally(e));
+            }
+        });
+    }
+
+    /**
+     * Splits the response of the coalesced batch in one response per caller, with the error indexes of its own batch.
+     */
+    private static OdpfSinkResponse[] splitResponse(OdpfSinkResponse batchResponse, long[] offsets) {
+        OdpfSinkResponse[] responses = new OdpfSinkResponse[offsets.length];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = new OdpfSinkResponse();
+        }
+        for (Map.Entry<Long, ErrorInfo> error : batchResponse.getErrors().entrySet()) {
+            int batch = Arrays.binarySearch(offsets, error.getKey());
+            if (batch < 0) {
+                batch = -batch - 2;
+            }
+            responses[batch].addErrors(error.getKey() - offsets[batch], error.getValue());
+        }
+        return responses;
+    }
+
+    private static long estimateBytes(List<OdpfMessage> messages) {
+        long bytes = 0;
+        for (OdpfMessage message : messages) {
+            bytes += estimateBytes(message.getLogKey()) + estimateBytes(message.getLogMessage());
+        }
+        return bytes;
+    }
+
+    private static long estimateBytes(Object payload) {
+        if (payload instanceof byte[]) {
+            return ((byte[]) payload).length;
+        }
+        if (payload instanceof String) {
+            return ((String) payload).length();
+        }
+        return 0;
+    }
+
+    private static final class PendingBatch {
+        private final List<OdpfMessage> messages;
+        private final CompletableFuture<OdpfSinkResponse> future = new CompletableFuture<>();
+
+        private PendingBatch(List<OdpfMessage> messages) {
+            this.messages = new ArrayList<>(messages);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package io.odpf.depot;
+
+import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.exception.OdpfSinkException;
+import io.odpf.depot.message.OdpfMessage;
+import io.odpf.depot.utils.ThreadUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Splits each batch by a shard key and pushes the shards concurrently, each to its own sink.
+ * Messages with the same key always go to the same sink in the order of the batch, and a call returns only once every
+ * shard is written, so the order within a key is kept across calls. The errors of the shards are merged back with the
+ * indexes of the messages in the batch.
+ */
+public class ShardedOdpfSink implements OdpfSink {
+    private static final int HASH_SPREAD_SHIFT = 16;
+
+    private final List<OdpfSink> sinks;
+    private final Function<OdpfMessage, Object> shardKey;
+    private final ExecutorService executor;
+
+    /**
+     * The shards are pushed on daemon threads owned by the sharded sink, the last shard of a batch on the calling thread.
+     * Closing the sharded sink closes the sink of every shard, what they share stays with the factory that created them.
+     *
+     * @param sinkSupplier creates the sink of every shard, e.g. {@code factory::create}
+     * @param shardKey     key of a message, see {@link #metadataKey} and {@link #logKey}
+     */
+    public ShardedOdpfSink(Supplier<OdpfSink> sinkSupplier, int shards, Function<OdpfMessage, Object> shardKey) {
+        this(createSinks(sinkSupplier, shards), shardKey,
+                Executors.newFixedThreadPool(Math.max(1, shards - 1), ThreadUtils.daemonThreadFactory("sharded-odpf-sink")));
+    }
+
+    /**
+     * @param executor pushes the shards concurrently, shut down when the sharded sink is closed
+     */
+    public ShardedOdpfSink(List<OdpfSink> sinks, Function<OdpfMessage, Object> shardKey, ExecutorService executor) {
+        if (sinks.isEmpty()) {
+            throw new IllegalArgumentException("Sharded sink needs at least one sink");
+        }
+        this.sinks = sinks;
+        this.shardKey = shardKey;
+        this.executor = executor;
+    }
+
+    /**
+     * Shards by the value of a metadata key, e.g. {@code message_partition}.
+     */
+    public static Function<OdpfMessage, Object> metadataKey(String key) {
+        return message -> message.getMetadata().get(key);
+    }
+
+    /**
+     * Shards by the content of the message key, the same way kafka partitions by key.
+     */
+    public static Function<OdpfMessage, Object> logKey() {
+        return message -> message.getLogKey() instanceof byte[]
+                ? Arrays.hashCode((byte[]) message.getLogKey()) : message.getLogKey();
+    }
+
+    @Override
+    public OdpfSinkResponse pushToSink(List<OdpfMessage> messages) throws OdpfSinkException {
+        List<Shard> shards = split(messages);
+        List<CompletableFuture<OdpfSinkResponse>> responses = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size() - 1; i++) {
+            Shard shard = shards.get(i);
+            responses.add(CompletableFuture.supplyAsync(shard::push, executor));
+        }
+        if (!shards.isEmpty()) {
+            responses.add(push(shards.get(shards.size() - 1)));
+        }
+        OdpfSinkResponse response = new OdpfSinkResponse();
+        Throwable failure = null;
+        for (int i = 0; i < shards.size(); i++) {
+            try {
+                for (Map.Entry<Long, ErrorInfo> error : responses.get(i).join().getErrors().entrySet()) {
+                    response.addErrors(shards.get(i).indexes[error.getKey().intValue()], error.getValue());
+                }
+            } catch (CompletionException e) {
+                failure = failure == null ? e.getCause() : failure;
+            }
+        }
+        if (failure instanceof OdpfSinkException) {
+            throw (OdpfSinkException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure != null) {
+            throw new OdpfSinkException("Failed to push shard", failure);
+        }
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        IOException failure = null;
+        for (OdpfSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private List<Shard> split(List<OdpfMessage> messages) {
+        int[] shardOf = new int[messages.size()];
+        int[] sizes = new int[sinks.size()];
+        for (int i = 0; i < messages.size(); i++) {
+            Object key = shardKey.apply(messages.get(i));
+            int hash = key == null ? 0 : key.hashCode();
+            shardOf[i] = Math.floorMod(hash ^ (hash >>> HASH_SPREAD_SHIFT), sinks.size());
+            sizes[shardOf[i]]++;
+        }
+        Shard[] byIndex = new Shard[sinks.size()];
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] > 0) {
+                byIndex[i] = new Shard(sinks.get(i), sizes[i]);
+                shards.add(byIndex[i]);
+            }
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            byIndex[shardOf[i]].add(i, messages.get(i));
+        }
+        return shards;
+    }
+
+    private static CompletableFuture<OdpfSinkResponse> push(Shard shard) {
+        try {
+            return CompletableFuture.completedFuture(shard.push());
+        } catch (CompletionException e) {
+            CompletableFuture<OdpfSinkResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(e.getCause());
+            return future;
+        } catch (RuntimeException e) {
+            CompletableFuture<OdpfSinkResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    private static List<OdpfSink> createSinks(Supplier<OdpfSink> sinkSupplier, int shards) {
+        List<OdpfSink> sinks = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            sinks.add(sinkSupplier.get());
+        }
+        return sinks;
+    }
+
+    /**
+     * Messages of one sink in the order of the batch, with their indexes in the batch.
+     */
+    private static final class Shard {
+        private final OdpfSink sink;
+        private final List<OdpfMessage> messages;
+        private final int[] indexes;
+
+        private Shard(OdpfSink sink, int size) {
+            this.sink = sink;
+            this.messages = new ArrayList<>(size);
+            this.indexes = new int[size];
+        }
+
+        private void add(int index, OdpfMessage message) {
+            indexes[messages.size()] = index;
+            messages.add(message);
+        }
+
+        private OdpfSinkResponse push() {
+            try {
+                return sink.pushToSink(messages);
+            } catch (OdpfSinkException e) {
+                throw new CompletionException(e);
+            }
+        }
+    }
+}
@@ -3,24 +3,51 @@ package io.odpf.depot.bigquery;
 import com.google.cloud.bigquery.InsertAllRequest;
 import com.google.cloud.bigquery.InsertAllResponse;
 import io.odpf.depot.bigquery.client.BigQueryClient;
+import io.odpf.depot.bigquery.client.BigQueryRequestSplitter;
 import io.odpf.depot.bigquery.client.BigQueryResponseParser;
+import io.odpf.depot.bigquery.client.BigQueryRetryPolicy;
 import io.odpf.depot.bigquery.client.BigQueryRow;
 import io.odpf.depot.bigquery.handler.ErrorHandler;
 import io.odpf.depot.bigquery.models.Record;
+import io.odpf.depot.bigquery.models.StageTimings;
+import io.odpf.depot.bigquery.spill.SpillLog;
+import io.odpf.depot.bigquery.storage.BigQueryStorageWriter;
 import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.error.ErrorType;
 import io.odpf.depot.metrics.BigQueryMetrics;
+import io.odpf.depot.metrics.BigQueryMetrics.BigQuerySinkStage;
 import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.StatsDMetric;
 import io.odpf.depot.bigquery.converter.MessageRecordConverterCache;
+import io.odpf.depot.bigquery.exception.BQCircuitOpenException;
 import io.odpf.depot.message.OdpfMessage;
-import io.odpf.depot.OdpfSink;
+import io.odpf.depot.AsyncOdpfSink;
 import io.odpf.depot.OdpfSinkResponse;
 import io.odpf.depot.bigquery.models.Records;
+import io.odpf.depot.bigquery.models.RequestBatches;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-public class BigQuerySink implements OdpfSink {
+public class BigQuerySink implements AsyncOdpfSink {
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+    private static final String[] STAGE_TAGS = Arrays.stream(BigQuerySinkStage.values())
+            .map(stage -> String.format(BigQueryMetrics.BIGQUERY_STAGE_TAG, stage))
+            .toArray(String[]::new);
 
     private final BigQueryClient bigQueryClient;
     private final BigQueryRow rowCreator;
@@ -28,6 +55,17 @@ public class BigQuerySink implements OdpfSink {
     private final Instrumentation instrumentation;
     private final BigQueryMetrics bigQueryMetrics;
     private final ErrorHandler errorHandler;
+    private final BigQueryStorageWriter storageWriter;
+    private final BigQueryRequestSplitter requestSplitter;
+    private final ExecutorService writeExecutor;
+    private final BigQueryRetryPolicy retryPolicy;
+    private final ExecutorService pipelineExecutor;
+    private final Semaphore inFlightBatches;
+    private final SpillLog spillLog;
+    private final BigQueryResponseParser responseParser;
+    private final StatsDMetric[] stageLatencyMetrics;
+    private final StatsDMetric batchSizeMetric;
+    private final StatsDMetric batchBytesMetric;
 
     public BigQuerySink(BigQueryClient client,
                         MessageRecordConverterCache converterCache,
@@ -35,38 +73,329 @@ public class BigQuerySink implements OdpfSink {
                         BigQueryMetrics bigQueryMetrics,
                         Instrumentation instrumentation,
                         ErrorHandler errorHandler) {
+        this(client, converterCache, rowCreator, bigQueryMetrics, instrumentation, errorHandler, null);
+    }
+
+    /**
+     * @param storageWriter when not null, valid records are written through the storage write api instead of insertAll.
+     */
+    public BigQuerySink(BigQueryClient client,
+                        MessageRecordConverterCache converterCache,
+                        BigQueryRow rowCreator,
+                        BigQueryMetrics bigQueryMetrics,
+                        Instrumentation instrumentation,
+                        ErrorHandler errorHandler,
+                        BigQueryStorageWriter storageWriter) {
+        this(client, converterCache, rowCreator, bigQueryMetrics, instrumentation, errorHandler, storageWriter, new BigQueryRequestSplitter(), null, BigQueryRetryPolicy.disabled(), null, 0, null);
+    }
+
+    /**
+     * @param requestSplitter    splits valid records of a batch into requests within the bigquery request limits.
+     * @param writeExecutor      when not null, requests of a split batch are sent concurrently on it, otherwise one after another.
+     * @param retryPolicy        decides how records failing with transient errors are resent before they are returned as errors.
+     * @param pipelineExecutor   when not null, batches are written on it so the next batch can be converted meanwhile.
+     * @param maxInFlightBatches number of batches that can be written on the pipeline executor at the same time.
+     * @param spillLog           when not null, records still failing with transient errors are spilled to it instead of returned as errors,
+     *                           it is shared by the sinks of a factory and closed with the factory.
+     */
+    public BigQuerySink(BigQueryClient client,
+                        MessageRecordConverterCache converterCache,
+                        BigQueryRow rowCreator,
+                        BigQueryMetrics bigQueryMetrics,
+                        Instrumentation instrumentation,
+                        ErrorHandler errorHandler,
+                        BigQueryStorageWriter storageWriter,
+                        BigQueryRequestSplitter requestSplitter,
+                        ExecutorService writeExecutor,
+                        BigQueryRetryPolicy retryPolicy,
+                        ExecutorService pipelineExecutor,
+                        int maxInFlightBatches,
+                        SpillLog spillLog) {
         this.bigQueryClient = client;
         this.messageRecordConverterCache = converterCache;
         this.rowCreator = rowCreator;
         this.instrumentation = instrumentation;
         this.bigQueryMetrics = bigQueryMetrics;
         this.errorHandler = errorHandler;
+        this.storageWriter = storageWriter;
+        this.requestSplitter = requestSplitter;
+        this.writeExecutor = writeExecutor;
+        this.retryPolicy = retryPolicy;
+        this.pipelineExecutor = pipelineExecutor;
+        this.inFlightBatches = new Semaphore(Math.max(1, maxInFlightBatches));
+        this.spillLog = spillLog;
+        this.responseParser = new BigQueryResponseParser(bigQueryMetrics, instrumentation, client.getTableID());
+        String tableTag = String.format(BigQueryMetrics.BIGQUERY_TABLE_TAG, client.getTableID().getTable());
+        String datasetTag = String.format(BigQueryMetrics.BIGQUERY_DATASET_TAG, client.getTableID().getDataset());
+        this.stageLatencyMetrics = Arrays.stream(STAGE_TAGS)
+                .map(stageTag -> instrumentation.metric(bigQueryMetrics.getBigqueryStageLatencyMetric(), tableTag, datasetTag, stageTag))
+                .toArray(StatsDMetric[]::new);
+        this.batchSizeMetric = instrumentation.metric(bigQueryMetrics.getBigqueryBatchSizeMetric(), tableTag, datasetTag);
+        this.batchBytesMetric = instrumentation.metric(bigQueryMetrics.getBigqueryBatchBytesMetric(), tableTag, datasetTag);
     }
 
     @Override
     public void close() throws IOException {
+        if (pipelineExecutor != null) {
+            pipelineExecutor.shutdown();
+            try {
+                if (!pipelineExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    instrumentation.logWarn("Batches still in flight after {} seconds on close", CLOSE_TIMEOUT_SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (writeExecutor != null) {
+            writeExecutor.shutdown();
+        }
+        responseParser.close();
+        if (storageWriter != null) {
+            storageWriter.close();
+        }
+    }
+
+    /**
+     * @return empty when the insert was rejected by the circuit breaker
+     */
+    private Optional<InsertAllResponse> tryInsertIntoBQ(List<Record> records, StageTimings timings) {
+        try {
+            return Optional.of(insertIntoBQ(records, timings));
+        } catch (BQCircuitOpenException e) {
+            return Optional.empty();
+        }
     }
 
-    private InsertAllResponse insertIntoBQ(List<Record> records) {
+    private InsertAllResponse insertIntoBQ(List<Record> records, StageTimings timings) {
+        long start = System.nanoTime();
         InsertAllRequest.Builder builder = InsertAllRequest.newBuilder(bigQueryClient.getTableID());
         records.forEach((Record m) -> builder.addRow(rowCreator.of(m)));
-        return bigQueryClient.insertAll(builder.build());
+        start = timings.addSince(BigQuerySinkStage.ROW_BUILDING, start);
+        InsertAllRequest request = builder.build();
+        start = timings.addSince(BigQuerySinkStage.REQUEST_SERIALIZATION, start);
+        try {
+            return bigQueryClient.insertAll(request);
+        } finally {
+            timings.addSince(BigQuerySinkStage.NETWORK, start);
+        }
     }
 
     @Override
     public OdpfSinkResponse pushToSink(List<OdpfMessage> messageList) {
-        Records records = messageRecordConverterCache.getMessageRecordConverter().convert(messageList);
+        return join(pushToSinkAsync(messageList));
+    }
+
+    @Override
+    public CompletableFuture<OdpfSinkResponse> pushToSinkAsync(List<OdpfMessage> messageList) {
+        CompletableFuture<OdpfSinkResponse> future;
+        try {
+            Records records = messageRecordConverterCache.convert(messageList);
+            if (pipelineExecutor == null) {
+                return CompletableFuture.completedFuture(writeRecords(records));
+            }
+            inFlightBatches.acquire();
+            try {
+                future = CompletableFuture.supplyAsync(() -> writeRecords(records), pipelineExecutor);
+            } catch (RuntimeException e) {
+                inFlightBatches.release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(e);
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+        return future.whenComplete((response, throwable) -> inFlightBatches.release());
+    }
+
+    private OdpfSinkResponse writeRecords(Records records) {
+        StageTimings timings = records.getStageTimings();
         OdpfSinkResponse odpfSinkResponse = new OdpfSinkResponse();
         records.getInvalidRecords().forEach(invalidRecord -> odpfSinkResponse.addErrors(invalidRecord.getIndex(), invalidRecord.getErrorInfo()));
+        long estimatedBytes = 0;
         if (records.getValidRecords().size() > 0) {
-            InsertAllResponse response = insertIntoBQ(records.getValidRecords());
-            instrumentation.logInfo("Pushed a batch of {} records to BQ. Insert success?: {}", records.getValidRecords().size(), !response.hasErrors());
-            if (response.hasErrors()) {
-                Map<Long, ErrorInfo> errorInfoMap = BigQueryResponseParser.parseAndFillOdpfSinkResponse(records.getValidRecords(), response, bigQueryMetrics, instrumentation);
-                errorInfoMap.forEach(odpfSinkResponse::addErrors);
-                errorHandler.handle(response.getInsertErrors(), records.getValidRecords());
+            long start = System.nanoTime();
+            errorHandler.beforeInsert(records.getValidRecords());
+            timings.addSince(BigQuerySinkStage.ERROR_HANDLING, start);
+            RequestBatches requests = split(records.getValidRecords(), timings);
+            estimatedBytes = requests.getEstimatedBytes();
+            Map<Long, ErrorInfo> errorInfoMap = writeBatches(requests.getBatches(), timings);
+            if (retryPolicy.isEnabled()) {
+                retryTransientErrors(records.getValidRecords(), errorInfoMap, timings);
+            }
+            if (spillLog != null) {
+                start = System.nanoTime();
+                spillTransientErrors(records.getValidRecords(), errorInfoMap);
+                timings.addSince(BigQuerySinkStage.ERROR_HANDLING, start);
             }
+            errorInfoMap.forEach(odpfSinkResponse::addErrors);
         }
+        captureBatchMetrics(records, estimatedBytes, timings);
         return odpfSinkResponse;
     }
+
+    /**
+     * Reports the time spent in every stage of the batch, from deserializing the messages to handling the errors
+     * of the response, together with the size of the batch and the estimated size of its valid rows.
+     */
+    private void captureBatchMetrics(Records records, long estimatedBytes, StageTimings timings) {
+        for (BigQuerySinkStage stage : BigQuerySinkStage.values()) {
+            stageLatencyMetrics[stage.ordinal()].duration(timings.getMillis(stage));
+        }
+        batchSizeMetric.histogram(records.getValidRecords().size() + records.getInvalidRecords().size());
+        batchBytesMetric.histogram(estimatedBytes);
+    }
+
+    private Map<Long, ErrorInfo> write(List<Record> validRecords, StageTimings timings) {
+        return writeBatches(split(validRecords, timings).getBatches(), timings);
+    }
+
+    private RequestBatches split(List<Record> validRecords, StageTimings timings) {
+        long start = System.nanoTime();
+        RequestBatches requests = requestSplitter.splitMeasuring(validRecords);
+        timings.addSince(BigQuerySinkStage.REQUEST_SERIALIZATION, start);
+        if (requests.getBatches().size() > 1) {
+            instrumentation.logInfo("Split a batch of {} records into {} requests", validRecords.size(), requests.getBatches().size());
+        }
+        return requests;
+    }
+
+    private Map<Long, ErrorInfo> writeBatches(List<List<Record>> batches, StageTimings timings) {
+        Map<Long, ErrorInfo> errorInfoMap = new HashMap<>();
+        if (storageWriter != null) {
+            List<Map<Long, ErrorInfo>> results = dispatch(batches, batch -> {
+                long writeStart = System.nanoTime();
+                try {
+                    return storageWriter.write(batch);
+                } finally {
+                    timings.addSince(BigQuerySinkStage.NETWORK, writeStart);
+                }
+            });
+            for (int i = 0; i < batches.size(); i++) {
+                instrumentation.logInfo("Appended a batch of {} records to BQ. Append success?: {}", batches.get(i).size(), results.get(i).isEmpty());
+                errorInfoMap.putAll(results.get(i));
+            }
+        } else {
+            List<Optional<InsertAllResponse>> responses = dispatch(batches, batch -> tryInsertIntoBQ(batch, timings));
+            long start = System.nanoTime();
+            for (int i = 0; i < batches.size(); i++) {
+                if (responses.get(i).isPresent()) {
+                    errorInfoMap.putAll(handleInsertAllResponse(batches.get(i), responses.get(i).get()));
+                } else {
+                    instrumentation.logWarn("Failed a batch of {} records, bigquery circuit breaker is open", batches.get(i).size());
+                    batches.get(i).forEach(record -> errorInfoMap.put(record.getIndex(),
+                            new ErrorInfo(new BQCircuitOpenException("Bigquery circuit breaker is open"), ErrorType.SINK_CIRCUIT_OPEN_ERROR)));
+                }
+            }
+            timings.addSince(BigQuerySinkStage.ERROR_HANDLING, start);
+        }
+        return errorInfoMap;
+    }
+
+    /**
+     * Resends only the records that failed with a transient error until they succeed or the retry policy gives up.
+     * Errors of the records that are still failing after the last attempt are kept in the given error map.
+     */
+    private void retryTransientErrors(List<Record> validRecords, Map<Long, ErrorInfo> errorInfoMap, StageTimings timings) {
+        Instant start = Instant.now();
+        for (int attempt = 1; ; attempt++) {
+            List<Record> failedRecords = validRecords.stream()
+                    .filter(record -> retryPolicy.isRetryable(errorInfoMap.get(record.getIndex())))
+                    .collect(Collectors.toList());
+            if (failedRecords.isEmpty()) {
+                return;
+            }
+            long backoffMillis = retryPolicy.backoffMillis(attempt);
+            if (!retryPolicy.canRetry(attempt, Duration.between(start, Instant.now()).toMillis(), backoffMillis)) {
+                instrumentation.logWarn("Giving up retrying {} records after {} attempts", failedRecords.size(), attempt - 1);
+                return;
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            instrumentation.logInfo("Retrying {} records with transient errors, attempt {}", failedRecords.size(), attempt);
+            Instant attemptStart = Instant.now();
+            failedRecords.forEach(record -> errorInfoMap.remove(record.getIndex()));
+            errorInfoMap.putAll(write(failedRecords, timings));
+            String tableTag = String.format(BigQueryMetrics.BIGQUERY_TABLE_TAG, bigQueryClient.getTableID().getTable());
+            String datasetTag = String.format(BigQueryMetrics.BIGQUERY_DATASET_TAG, bigQueryClient.getTableID().getDataset());
+            instrumentation.incrementCounter(bigQueryMetrics.getBigqueryRetryTotalMetric(), tableTag, datasetTag);
+            instrumentation.captureCount(bigQueryMetrics.getBigqueryRetryRecordsTotalMetric(), (long) failedRecords.size(), tableTag, datasetTag);
+            instrumentation.captureDurationSince(bigQueryMetrics.getBigqueryRetryLatencyMetric(), attemptStart, tableTag, datasetTag);
+        }
+    }
+
+    private Map<Long, ErrorInfo> handleInsertAllResponse(List<Record> batch, InsertAllResponse response) {
+        instrumentation.logInfo("Pushed a batch of {} records to BQ. Insert success?: {}", batch.size(), !response.hasErrors());
+        if (!response.hasErrors()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, ErrorInfo> errorInfoMap = responseParser.parseAndFillOdpfSinkResponse(batch, response);
+        errorHandler.handle(response.getInsertErrors(), batch);
+        return errorInfoMap;
+    }
+
+    /**
+     * Appends the records still failing with transient errors, or rejected by the open circuit breaker, to the spill log.
+     * They are replayed in the background and not returned as errors. When spilling fails the errors are returned as they are.
+     */
+    private void spillTransientErrors(List<Record> validRecords, Map<Long, ErrorInfo> errorInfoMap) {
+        List<Record> failedRecords = validRecords.stream()
+                .filter(record -> {
+                    ErrorInfo errorInfo = errorInfoMap.get(record.getIndex());
+                    return errorInfo != null
+                            && (errorInfo.getErrorType() == ErrorType.SINK_5XX_ERROR || errorInfo.getErrorType() == ErrorType.SINK_CIRCUIT_OPEN_ERROR);
+                })
+                .collect(Collectors.toList());
+        if (failedRecords.isEmpty()) {
+            return;
+        }
+        try {
+            spillLog.append(failedRecords);
+        } catch (IOException | RuntimeException e) {
+            instrumentation.captureNonFatalError(bigQueryMetrics.getErrorEventMetric(), e, "Failed to spill {} records", failedRecords.size());
+            return;
+        }
+        failedRecords.forEach(record -> errorInfoMap.remove(record.getIndex()));
+        instrumentation.logWarn("Spilled {} records with transient errors", failedRecords.size());
+        instrumentation.captureCount(bigQueryMetrics.getBigquerySpillRecordsTotalMetric(), (long) failedRecords.size(),
+                String.format(BigQueryMetrics.BIGQUERY_TABLE_TAG, bigQueryClient.getTableID().getTable()),
+                String.format(BigQueryMetrics.BIGQUERY_DATASET_TAG, bigQueryClient.getTableID().getDataset()));
+    }
+
+    /**
+     * Sends every batch and returns the results in batch order.
+     * Batches are sent concurrently when there is a write executor, a failure of any request is rethrown once all are done.
+     */
+    private <T> List<T> dispatch(List<List<Record>> batches, Function<List<Record>, T> write) {
+        if (batches.size() == 1 || writeExecutor == null) {
+            return batches.stream().map(write).collect(Collectors.toList());
+        }
+        List<CompletableFuture<T>> futures = batches.stream()
+                .map(batch -> CompletableFuture.supplyAsync(() -> write.apply(batch), writeExecutor))
+                .collect(Collectors.toList());
+        join(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
 }
@@ -5,24 +5,55 @@ import io.odpf.depot.bigquery.handler.ErrorHandler;
 import io.odpf.depot.bigquery.handler.ErrorHandlerFactory;
 import io.odpf.depot.message.OdpfMessageParser;
 import io.odpf.depot.message.OdpfMessageParserFactory;
+import io.odpf.depot.message.proto.ProtoOdpfMessageParser;
 import io.odpf.depot.metrics.BigQueryMetrics;
 import io.odpf.depot.metrics.Instrumentation;
 import io.odpf.depot.metrics.StatsDReporter;
 import io.odpf.depot.stencil.OdpfStencilUpdateListener;
 import io.odpf.depot.OdpfSink;
 import io.odpf.depot.bigquery.client.BigQueryClient;
+import io.odpf.depot.bigquery.client.BigQueryRequestSplitter;
+import io.odpf.depot.bigquery.client.BigQueryRetryPolicy;
 import io.odpf.depot.bigquery.client.BigQueryRow;
 import io.odpf.depot.bigquery.client.BigQueryRowWithInsertId;
 import io.odpf.depot.bigquery.client.BigQueryRowWithoutInsertId;
+import io.odpf.depot.bigquery.client.HashingInsertIdGenerator;
+import io.odpf.depot.bigquery.converter.MessageRecordConverter;
 import io.odpf.depot.bigquery.converter.MessageRecordConverterCache;
+import io.odpf.depot.bigquery.json.BigqueryJsonKnownColumns;
+import io.odpf.depot.bigquery.spill.SpillLog;
+import io.odpf.depot.bigquery.spill.SpillReplayer;
+import io.odpf.depot.bigquery.storage.BigQueryStorageClient;
+import io.odpf.depot.bigquery.storage.BigQueryStorageWriter;
 import io.odpf.depot.config.BigQuerySinkConfig;
+import io.odpf.depot.config.ConfigSnapshot;
+import io.odpf.depot.config.enums.BigQueryInsertIdGenerator;
+import io.odpf.depot.config.enums.BigQueryWriteMode;
+import io.odpf.depot.config.enums.SinkConnectorSchemaDataType;
+import io.odpf.depot.error.SampledErrorReporter;
+import io.odpf.depot.exception.ConfigurationException;
+import io.odpf.depot.utils.ThreadUtils;
 import org.aeonbits.owner.ConfigFactory;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
-public class BigQuerySinkFactory {
+/**
+ * Creates {@link BigQuerySink}s sharing the client, the converters and the error handling set up by {@link #init()}.
+ * The factory owns what its sinks share: closing a sink only releases that sink, closing the factory releases the rest
+ * once all of its sinks are closed.
+ */
+public class BigQuerySinkFactory implements Closeable {
+    private static final String DEAD_LETTER_DIRECTORY = "dead-letter";
 
     private final StatsDReporter statsDReporter;
     private BigQueryClient bigQueryClient;
@@ -31,16 +62,43 @@ public class BigQuerySinkFactory {
     private BigQueryMetrics bigQueryMetrics;
     private ErrorHandler errorHandler;
     private MessageRecordConverterCache converterCache;
+    private OdpfStencilUpdateListener odpfStencilUpdateListener;
+    private SpillLog spillLog;
+    private SpillLog deadLetterLog;
+    private SpillReplayer spillReplayer;
     private final BigQuerySinkConfig sinkConfig;
+    private final BigQuerySinkResources resources;
+    private final boolean ownsResources;
 
     public BigQuerySinkFactory(Map<String, String> env, StatsDReporter statsDReporter, Function<Map<String, Object>, String> rowIDCreator) {
         this(ConfigFactory.create(BigQuerySinkConfig.class, env), statsDReporter, rowIDCreator);
     }
 
+    public BigQuerySinkFactory(Map<String, String> env, StatsDReporter statsDReporter, Function<Map<String, Object>, String> rowIDCreator,
+                               BigQuerySinkResources resources) {
+        this(ConfigFactory.create(BigQuerySinkConfig.class, env), statsDReporter, rowIDCreator, resources);
+    }
+
     public BigQuerySinkFactory(BigQuerySinkConfig sinkConfig, StatsDReporter statsDReporter, Function<Map<String, Object>, String> rowIDCreator) {
-        this.sinkConfig = sinkConfig;
+        this(sinkConfig, statsDReporter, rowIDCreator, new BigQuerySinkResources(), true);
+    }
+
+    /**
+     * @param resources bigquery service and stencil client shared with the other factories created with it, left open
+     *                  when the factory is closed.
+     */
+    public BigQuerySinkFactory(BigQuerySinkConfig sinkConfig, StatsDReporter statsDReporter, Function<Map<String, Object>, String> rowIDCreator,
+                               BigQuerySinkResources resources) {
+        this(sinkConfig, statsDReporter, rowIDCreator, resources, false);
+    }
+
+    private BigQuerySinkFactory(BigQuerySinkConfig sinkConfig, StatsDReporter statsDReporter, Function<Map<String, Object>, String> rowIDCreator,
+                                BigQuerySinkResources resources, boolean ownsResources) {
+        this.sinkConfig = ConfigSnapshot.of(BigQuerySinkConfig.class, sinkConfig);
         this.rowIDCreator = rowIDCreator;
         this.statsDReporter = statsDReporter;
+        this.resources = resources;
+        this.ownsResources = ownsResources;
     }
 
     public BigQuerySinkFactory(BigQuerySinkConfig sinkConfig) {
@@ -57,27 +115,107 @@ public class BigQuerySinkFactory {
     }
 
 
+    /**
+     * The schema registry fetch runs concurrently with loading the credentials and reading the dataset and table
+     * metadata, the schema is applied to the table once both are done. With a schema snapshot the metadata is read by
+     * the schema update listener instead, in the background when the snapshot is served. Every phase is reported in
+     * the init latency metric.
+     */
     public void init() {
+        if (sinkConfig.getBigQueryWriteMode() == BigQueryWriteMode.STORAGE_WRITE_API
+                && sinkConfig.getSinkConnectorSchemaDataType() != SinkConnectorSchemaDataType.PROTOBUF) {
+            throw new ConfigurationException("Storage write api is only supported for PROTOBUF schema data type");
+        }
+        Instant initStart = Instant.now();
+        this.bigQueryMetrics = new BigQueryMetrics(sinkConfig);
+        Instrumentation instrumentation = new Instrumentation(statsDReporter, BigQuerySinkFactory.class);
+        CompletableFuture<OdpfMessageParser> parserInit = CompletableFuture.supplyAsync(() -> {
+            Instant start = Instant.now();
+            OdpfMessageParser parser = createParser();
+            captureInitPhase(instrumentation, "schema_registry", start);
+            return parser;
+        }, resources.getExecutor());
         try {
-            this.bigQueryMetrics = new BigQueryMetrics(sinkConfig);
-            this.bigQueryClient = new BigQueryClient(sinkConfig, bigQueryMetrics, new Instrumentation(statsDReporter, BigQueryClient.class));
+            Instant start = Instant.now();
+            this.bigQueryClient = new BigQueryClient(resources.getBigQuery(sinkConfig), sinkConfig, bigQueryMetrics,
+                    new Instrumentation(statsDReporter, BigQueryClient.class), resources.getExecutor());
+            captureInitPhase(instrumentation, "client", start);
+            if (!isSchemaSnapshotEnabled()) {
+                start = Instant.now();
+                bigQueryClient.prefetchMetadata();
+                captureInitPhase(instrumentation, "metadata", start);
+            }
             this.converterCache = new MessageRecordConverterCache();
-            this.errorHandler = ErrorHandlerFactory.create(sinkConfig, bigQueryClient, statsDReporter);
-            OdpfStencilUpdateListener odpfStencilUpdateListener = BigqueryStencilUpdateListenerFactory.create(sinkConfig, bigQueryClient, converterCache, statsDReporter);
-            OdpfMessageParser odpfMessageParser = OdpfMessageParserFactory.getParser(sinkConfig, statsDReporter, odpfStencilUpdateListener);
+            converterCache.setErrorReporter(new SampledErrorReporter(MessageRecordConverter.class,
+                    sinkConfig.getDatasetName() + "." + sinkConfig.getTableName()));
+            if (sinkConfig.getSinkBigqueryConversionParallelism() > 1) {
+                converterCache.setConversionPool(new ForkJoinPool(sinkConfig.getSinkBigqueryConversionParallelism()));
+            }
+            BigqueryJsonKnownColumns knownColumns = new BigqueryJsonKnownColumns();
+            this.errorHandler = ErrorHandlerFactory.create(sinkConfig, bigQueryClient, statsDReporter, knownColumns);
+            this.odpfStencilUpdateListener = BigqueryStencilUpdateListenerFactory.create(sinkConfig, bigQueryClient, converterCache, statsDReporter, knownColumns);
+            OdpfMessageParser odpfMessageParser = awaitParser(parserInit);
+            if (sinkConfig.getSinkConnectorSchemaDataType() == SinkConnectorSchemaDataType.PROTOBUF) {
+                resources.addStencilUpdateListener(sinkConfig, odpfStencilUpdateListener);
+            }
             odpfStencilUpdateListener.setOdpfMessageParser(odpfMessageParser);
+            start = Instant.now();
             odpfStencilUpdateListener.updateSchema();
+            captureInitPhase(instrumentation, "schema_update", start);
 
             if (sinkConfig.isRowInsertIdEnabled()) {
-                this.rowCreator = new BigQueryRowWithInsertId(rowIDCreator);
+                this.rowCreator = new BigQueryRowWithInsertId(
+                        sinkConfig.getSinkBigqueryRowInsertIdGenerator() == BigQueryInsertIdGenerator.HASH
+                                ? new HashingInsertIdGenerator(sinkConfig.getSinkBigqueryRowInsertIdMetadataKeys())
+                                : rowIDCreator);
             } else {
                 this.rowCreator = new BigQueryRowWithoutInsertId();
             }
+            if (sinkConfig.isSinkBigquerySpillEnable()) {
+                Path spillDirectory = Paths.get(sinkConfig.getSinkBigquerySpillDirectory(), sinkConfig.getDatasetName(), sinkConfig.getTableName());
+                this.spillLog = new SpillLog(spillDirectory, sinkConfig.getSinkBigquerySpillSegmentBytes());
+                this.deadLetterLog = new SpillLog(spillDirectory.resolve(DEAD_LETTER_DIRECTORY), sinkConfig.getSinkBigquerySpillSegmentBytes());
+                this.spillReplayer = new SpillReplayer(spillLog, deadLetterLog, bigQueryClient, rowCreator, bigQueryMetrics,
+                        new Instrumentation(statsDReporter, SpillReplayer.class), sinkConfig.getSinkBigquerySpillReplayIntervalMs());
+                spillReplayer.start();
+            }
+            captureInitPhase(instrumentation, "total", initStart);
         } catch (IOException e) {
             throw new IllegalArgumentException("Exception occurred while creating sink", e);
         }
     }
 
+    private boolean isSchemaSnapshotEnabled() {
+        String snapshotPath = sinkConfig.getSinkBigquerySchemaSnapshotPath();
+        return sinkConfig.getSinkConnectorSchemaDataType() == SinkConnectorSchemaDataType.PROTOBUF
+                && snapshotPath != null && !snapshotPath.isEmpty();
+    }
+
+    private OdpfMessageParser createParser() {
+        if (sinkConfig.getSinkConnectorSchemaDataType() == SinkConnectorSchemaDataType.PROTOBUF) {
+            return new ProtoOdpfMessageParser(sinkConfig, statsDReporter, resources.getStencilClient(sinkConfig, statsDReporter));
+        }
+        return OdpfMessageParserFactory.getParser(sinkConfig, statsDReporter);
+    }
+
+    private static OdpfMessageParser awaitParser(CompletableFuture<OdpfMessageParser> parserInit) {
+        try {
+            return parserInit.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void captureInitPhase(Instrumentation instrumentation, String phase, Instant start) {
+        instrumentation.captureDurationSince(bigQueryMetrics.getBigquerySinkInitLatencyMetric(), start,
+                String.format(BigQueryMetrics.BIGQUERY_TABLE_TAG, sinkConfig.getTableName()),
+                String.format(BigQueryMetrics.BIGQUERY_DATASET_TAG, sinkConfig.getDatasetName()),
+                String.format(BigQueryMetrics.BIGQUERY_INIT_PHASE_TAG, phase));
+    }
+
     public OdpfSink create() {
         return new BigQuerySink(
                 bigQueryClient,
@@ -85,6 +223,74 @@ public class BigQuerySinkFactory {
                 rowCreator,
                 bigQueryMetrics,
                 new Instrumentation(statsDReporter, BigQuerySink.class),
-                errorHandler);
+                errorHandler,
+                createStorageWriter(),
+                new BigQueryRequestSplitter(sinkConfig.getSinkBigqueryInsertMaxRows(), sinkConfig.getSinkBigqueryInsertMaxRequestBytes()),
+                sinkConfig.getSinkBigqueryInsertConcurrency() > 1
+                        ? Executors.newFixedThreadPool(sinkConfig.getSinkBigqueryInsertConcurrency(), ThreadUtils.daemonThreadFactory("bigquery-sink-write"))
+                        : null,
+                new BigQueryRetryPolicy(
+                        sinkConfig.getSinkBigqueryRetryMaxAttempts(),
+                        sinkConfig.getSinkBigqueryRetryBackoffInitialMs(),
+                        sinkConfig.getSinkBigqueryRetryBackoffMaxMs(),
+                        sinkConfig.getSinkBigqueryRetryBudgetMs()),
+                sinkConfig.getSinkBigqueryAsyncMaxInFlightBatches() > 0
+                        ? Executors.newFixedThreadPool(sinkConfig.getSinkBigqueryAsyncMaxInFlightBatches(), ThreadUtils.daemonThreadFactory("bigquery-sink-pipeline"))
+                        : null,
+                sinkConfig.getSinkBigqueryAsyncMaxInFlightBatches(),
+                spillLog);
+    }
+
+    /**
+     * Stops the spill replayer and the schema update listener, closes the spill logs, flushes the conversion errors and
+     * shuts down the conversion pool shared by the sinks.
+     * The resources are closed too when the factory created them.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (odpfStencilUpdateListener != null) {
+                if (sinkConfig.getSinkConnectorSchemaDataType() == SinkConnectorSchemaDataType.PROTOBUF) {
+                    resources.removeStencilUpdateListener(sinkConfig, odpfStencilUpdateListener);
+                }
+                odpfStencilUpdateListener.close();
+            }
+            if (spillReplayer != null) {
+                spillReplayer.close();
+            }
+            if (spillLog != null) {
+                spillLog.close();
+            }
+            if (deadLetterLog != null) {
+                deadLetterLog.close();
+            }
+        } finally {
+            if (converterCache != null) {
+                converterCache.getErrorReporter().close();
+                if (converterCache.getConversionPool() != null) {
+                    converterCache.getConversionPool().shutdown();
+                }
+            }
+            if (ownsResources) {
+                resources.close();
+            }
+        }
+    }
+
+    private BigQueryStorageWriter createStorageWriter() {
+        if (sinkConfig.getBigQueryWriteMode() != BigQueryWriteMode.STORAGE_WRITE_API) {
+            return null;
+        }
+        try {
+            return new BigQueryStorageWriter(
+                    new BigQueryStorageClient(sinkConfig, resources.getCredentials(sinkConfig.getBigQueryCredentialPath())),
+                    bigQueryClient.getTableID(),
+                    bigQueryClient::getSchema,
+                    sinkConfig.getBqClientReadTimeoutMS(),
+                    bigQueryMetrics,
+                    new Instrumentation(statsDReporter, BigQueryStorageWriter.class));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Exception occurred while creating storage write client", e);
+        }
     }
 }
@@ -0,0 +1,144 @@
+package io.odpf.depot.bigquery;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryOptions;
+import com.google.cloud.http.HttpTransportOptions;
+import com.google.protobuf.Descriptors;
+import io.odpf.depot.config.BigQuerySinkConfig;
+import io.odpf.depot.config.OdpfSinkConfig;
+import io.odpf.depot.message.proto.ProtoOdpfMessageParser;
+import io.odpf.depot.metrics.StatsDReporter;
+import io.odpf.depot.utils.ThreadUtils;
+import io.odpf.stencil.SchemaUpdateListener;
+import io.odpf.stencil.client.StencilClient;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Heavy clients that several {@link BigQuerySinkFactory} in one jvm can share: the http transport, the credentials,
+ * the bigquery service and the stencil client. A service or stencil client is reused by every factory whose config
+ * has the same settings it is built from. Schema updates of a shared stencil client go to the listeners of all
+ * factories using it. Closing releases all of them, so it is up to whoever created the resources to close them once
+ * every factory using them is closed.
+ */
+public class BigQuerySinkResources implements Closeable {
+    private final HttpTransport httpTransport = new NetHttpTransport();
+    private final ExecutorService executor = Executors.newCachedThreadPool(ThreadUtils.daemonThreadFactory("bigquery-sink-init"));
+    private final Map<String, GoogleCredentials> credentials = new HashMap<>();
+    private final Map<String, BigQuery> services = new HashMap<>();
+    private final Map<String, StencilClient> stencilClients = new HashMap<>();
+    private final Map<String, SchemaUpdateListeners> stencilListeners = new HashMap<>();
+
+    public synchronized BigQuery getBigQuery(BigQuerySinkConfig sinkConfig) throws IOException {
+        String key = String.join("|", sinkConfig.getBigQueryCredentialPath(), sinkConfig.getGCloudProjectID(),
+                String.valueOf(sinkConfig.getBqClientConnectTimeoutMS()), String.valueOf(sinkConfig.getBqClientReadTimeoutMS()));
+        BigQuery service = services.get(key);
+        if (service == null) {
+            HttpTransportOptions transportOptions = BigQueryOptions.getDefaultHttpTransportOptions().toBuilder()
+                    .setHttpTransportFactory(() -> httpTransport)
+                    .setConnectTimeout(sinkConfig.getBqClientConnectTimeoutMS())
+                    .setReadTimeout(sinkConfig.getBqClientReadTimeoutMS())
+                    .build();
+            service = BigQueryOptions.newBuilder()
+                    .setTransportOptions(transportOptions)
+                    .setCredentials(getCredentials(sinkConfig.getBigQueryCredentialPath()))
+                    .setProjectId(sinkConfig.getGCloudProjectID())
+                    .build().getService();
+            services.put(key, service);
+        }
+        return service;
+    }
+
+    /**
+     * Stencil client for the schema registry settings of the config, created with the descriptors fetched on first use.
+     */
+    public synchronized StencilClient getStencilClient(OdpfSinkConfig sinkConfig, StatsDReporter statsDReporter) {
+        String key = stencilKey(sinkConfig);
+        StencilClient stencilClient = stencilClients.get(key);
+        if (stencilClient == null) {
+            SchemaUpdateListeners listeners = stencilListeners.computeIfAbsent(key, k -> new SchemaUpdateListeners());
+            stencilClient = ProtoOdpfMessageParser.createStencilClient(sinkConfig, statsDReporter, listeners);
+            stencilClients.put(key, stencilClient);
+        }
+        return stencilClient;
+    }
+
+    public synchronized void addStencilUpdateListener(OdpfSinkConfig sinkConfig, SchemaUpdateListener listener) {
+        stencilListeners.computeIfAbsent(stencilKey(sinkConfig), k -> new SchemaUpdateListeners()).listeners.add(listener);
+    }
+
+    /**
+     * Stops sending schema updates of the shared stencil client to the listener of a closed factory.
+     */
+    public synchronized boolean removeStencilUpdateListener(OdpfSinkConfig sinkConfig, SchemaUpdateListener listener) {
+        SchemaUpdateListeners listeners = stencilListeners.get(stencilKey(sinkConfig));
+        return listeners != null && listeners.listeners.remove(listener);
+    }
+
+    /**
+     * Credentials read once per credential path, shared by the bigquery services and the storage write clients.
+     */
+    public synchronized GoogleCredentials getCredentials(String credentialPath) throws IOException {
+        GoogleCredentials credential = credentials.get(credentialPath);
+        if (credential == null) {
+            try (InputStream stream = new FileInputStream(credentialPath)) {
+                credential = GoogleCredentials.fromStream(stream, () -> httpTransport);
+            }
+            credentials.put(credentialPath, credential);
+        }
+        return credential;
+    }
+
+    /**
+     * Runs the schema registry fetch and metadata lookups of the factories concurrently with their other init steps.
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Closes the stencil clients, shuts down the init executor and the http transport of the bigquery services.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        executor.shutdown();
+        try {
+            for (StencilClient stencilClient : stencilClients.values()) {
+                stencilClient.close();
+            }
+        } finally {
+            stencilClients.clear();
+            stencilListeners.clear();
+            services.clear();
+            credentials.clear();
+            httpTransport.shutdown();
+        }
+    }
+
+    private static String stencilKey(OdpfSinkConfig sinkConfig) {
+        return String.join("|", String.valueOf(sinkConfig.isSchemaRegistryStencilEnable()), sinkConfig.getSchemaRegistryStencilUrls(),
+                String.valueOf(sinkConfig.getSchemaRegistryStencilCacheAutoRefresh()), String.valueOf(sinkConfig.getSchemaRegistryStencilCacheTtlMs()),
+                String.valueOf(sinkConfig.getSchemaRegistryStencilRefreshStrategy()), String.valueOf(sinkConfig.getSchemaRegistryStencilFetchHeaders()));
+    }
+
+    private static final class SchemaUpdateListeners implements SchemaUpdateListener {
+        private final List<SchemaUpdateListener> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onSchemaUpdate(Map<String, Descriptors.Descriptor> newDescriptors) {
+            listeners.forEach(listener -> listener.onSchemaUpdate(newDescriptors));
+        }
+    }
+}
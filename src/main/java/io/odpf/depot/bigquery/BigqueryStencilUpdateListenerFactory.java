@@ -2,6 +2,7 @@ package io.odpf.depot.bigquery;
 
 import io.odpf.depot.bigquery.client.BigQueryClient;
 import io.odpf.depot.bigquery.converter.MessageRecordConverterCache;
+import io.odpf.depot.bigquery.json.BigqueryJsonKnownColumns;
 import io.odpf.depot.bigquery.json.BigqueryJsonUpdateListener;
 import io.odpf.depot.bigquery.proto.BigqueryProtoUpdateListener;
 import io.odpf.depot.config.BigQuerySinkConfig;
@@ -12,9 +13,14 @@ import io.odpf.depot.stencil.OdpfStencilUpdateListener;
 
 public class BigqueryStencilUpdateListenerFactory {
     public static OdpfStencilUpdateListener create(BigQuerySinkConfig config, BigQueryClient bqClient, MessageRecordConverterCache converterCache, StatsDReporter statsDReporter) {
+        return create(config, bqClient, converterCache, statsDReporter, null);
+    }
+
+    public static OdpfStencilUpdateListener create(BigQuerySinkConfig config, BigQueryClient bqClient, MessageRecordConverterCache converterCache,
+                                                   StatsDReporter statsDReporter, BigqueryJsonKnownColumns knownColumns) {
         switch (config.getSinkConnectorSchemaDataType()) {
             case JSON:
-                return new BigqueryJsonUpdateListener(config, converterCache, bqClient, new Instrumentation(statsDReporter, BigqueryJsonUpdateListener.class));
+                return new BigqueryJsonUpdateListener(config, converterCache, bqClient, new Instrumentation(statsDReporter, BigqueryJsonUpdateListener.class), knownColumns);
             case PROTOBUF:
                 return new BigqueryProtoUpdateListener(config, bqClient, converterCache);
             default:
@@ -0,0 +1,150 @@
+package io.odpf.depot.bigquery.client;
+
+import lombok.Getter;
+
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker over a rolling window of the last calls.
+ * It opens when the share of failed or slow calls in the window reaches its threshold, and rejects calls until the
+ * open duration has passed. It then lets a few probe calls through half open, closes again when they all succeed
+ * in time and opens again on the first one that does not.
+ */
+public class BigQueryCircuitBreaker {
+    private static final int PERCENT = 100;
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN,
+    }
+
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallDurationMillis;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+    private final Consumer<State> stateListener;
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int nextCall;
+    private int windowCalls;
+    private int windowFailures;
+    private int windowSlowCalls;
+    @Getter
+    private State state = State.CLOSED;
+    private long openedAtMillis;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    /**
+     * @param failureRateThreshold   percentage of failed calls in the window that opens the circuit
+     * @param slowCallRateThreshold  percentage of slow calls in the window that opens the circuit
+     * @param slowCallDurationMillis duration from which a call is slow
+     * @param windowSize             number of last calls the rates are computed on
+     * @param minimumCalls           number of calls in the window before the rates are checked
+     * @param openDurationMillis     time the circuit stays open before probe calls are let through
+     * @param halfOpenProbes         number of probe calls that have to succeed to close the circuit
+     * @param stateListener          called on every state change
+     */
+    public BigQueryCircuitBreaker(int failureRateThreshold, int slowCallRateThreshold, long slowCallDurationMillis, int windowSize,
+                                  int minimumCalls, long openDurationMillis, int halfOpenProbes, Consumer<State> stateListener) {
+        this(failureRateThreshold, slowCallRateThreshold, slowCallDurationMillis, windowSize, minimumCalls, openDurationMillis, halfOpenProbes,
+                stateListener, System::currentTimeMillis);
+    }
+
+    BigQueryCircuitBreaker(int failureRateThreshold, int slowCallRateThreshold, long slowCallDurationMillis, int windowSize,
+                           int minimumCalls, long openDurationMillis, int halfOpenProbes, Consumer<State> stateListener, LongSupplier clock) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDurationMillis = slowCallDurationMillis;
+        this.failedCalls = new boolean[Math.max(1, windowSize)];
+        this.slowCalls = new boolean[failedCalls.length];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, failedCalls.length));
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.stateListener = stateListener;
+        this.clock = clock;
+    }
+
+    /**
+     * @return whether the call may go ahead, its outcome then has to be reported with {@link #onSuccess} or {@link #onFailure}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAtMillis < openDurationMillis) {
+                return false;
+            }
+            probesStarted = 0;
+            probesSucceeded = 0;
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long durationMillis) {
+        record(false, durationMillis >= slowCallDurationMillis);
+    }
+
+    public synchronized void onFailure(long durationMillis) {
+        record(true, durationMillis >= slowCallDurationMillis);
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (state == State.OPEN) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                open();
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                resetWindow();
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (windowCalls == failedCalls.length) {
+            windowFailures -= failedCalls[nextCall] ? 1 : 0;
+            windowSlowCalls -= slowCalls[nextCall] ? 1 : 0;
+        } else {
+            windowCalls++;
+        }
+        failedCalls[nextCall] = failed;
+        slowCalls[nextCall] = slow;
+        windowFailures += failed ? 1 : 0;
+        windowSlowCalls += slow ? 1 : 0;
+        nextCall = (nextCall + 1) % failedCalls.length;
+        if (windowCalls >= minimumCalls
+                && (windowFailures * PERCENT >= failureRateThreshold * windowCalls
+                || windowSlowCalls * PERCENT >= slowCallRateThreshold * windowCalls)) {
+            open();
+        }
+    }
+
+    private void open() {
+        openedAtMillis = clock.getAsLong();
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        nextCall = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+        windowSlowCalls = 0;
+    }
+
+    private void transition(State newState) {
+        state = newState;
+        stateListener.accept(newState);
+    }
+}
@@ -16,17 +16,25 @@ import com.google.cloud.bigquery.TableDefinition;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.TimePartitioning;
+import io.odpf.depot.bigquery.exception.BQCircuitOpenException;
 import io.odpf.depot.bigquery.exception.BQDatasetLocationChangedException;
 import io.odpf.depot.config.BigQuerySinkConfig;
 import io.odpf.depot.metrics.BigQueryMetrics;
 import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.StatsDMetric;
 import lombok.Getter;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.CompletionException;
 
 public class BigQueryClient {
     private final BigQuery bigquery;
@@ -39,19 +47,74 @@ public class BigQueryClient {
     private static final int DEFAULT_SLEEP_RETRY = 10000;
     private final Random random = new Random(System.currentTimeMillis());
     private final BigQueryMetrics bigqueryMetrics;
+    private final BigQueryCircuitBreaker circuitBreaker;
+    private final long metadataCacheTtlMillis;
+    private CachedMetadata<Table> cachedTable;
+    private CachedMetadata<Dataset> cachedDataset;
+    private long metadataGeneration;
+    private final Map<BigQueryMetrics.BigQueryAPIType, StatsDMetric> operationTotalMetrics = new EnumMap<>(BigQueryMetrics.BigQueryAPIType.class);
+    private final Map<BigQueryMetrics.BigQueryAPIType, StatsDMetric> operationLatencyMetrics = new EnumMap<>(BigQueryMetrics.BigQueryAPIType.class);
+    private final StatsDMetric tableCacheHitMetric;
+    private final StatsDMetric tableCacheMissMetric;
+    private final StatsDMetric datasetCacheHitMetric;
+    private final StatsDMetric datasetCacheMissMetric;
+    private final StatsDMetric circuitBreakerStateMetric;
+    private final StatsDMetric circuitBreakerRejectedMetric;
+    private final Executor lookupExecutor;
 
     public BigQueryClient(BigQuerySinkConfig bqConfig, BigQueryMetrics bigQueryMetrics, Instrumentation instrumentation) throws IOException {
         this(getBigQueryInstance(bqConfig), bqConfig, bigQueryMetrics, instrumentation);
     }
 
     public BigQueryClient(BigQuery bq, BigQuerySinkConfig bqConfig, BigQueryMetrics bigQueryMetrics, Instrumentation instrumentation) {
+        this(bq, bqConfig, bigQueryMetrics, instrumentation, Runnable::run);
+    }
+
+    /**
+     * @param lookupExecutor runs the table lookup concurrently with the dataset lookup, they run one after another on
+     *                       the calling thread with the other constructors.
+     */
+    public BigQueryClient(BigQuery bq, BigQuerySinkConfig bqConfig, BigQueryMetrics bigQueryMetrics, Instrumentation instrumentation,
+                          Executor lookupExecutor) {
         this.bigquery = bq;
+        this.lookupExecutor = lookupExecutor;
         this.bqConfig = bqConfig;
         this.tableID = TableId.of(bqConfig.getDatasetName(), bqConfig.getTableName());
         this.bqTableDefinition = new BQTableDefinition(bqConfig);
         this.instrumentation = instrumentation;
         this.bigqueryMetrics = bigQueryMetrics;
+        String tableTag = String.format(BigQueryMetrics.BIGQUERY_TABLE_TAG, tableID.getTable());
+        String datasetTag = String.format(BigQueryMetrics.BIGQUERY_DATASET_TAG, tableID.getDataset());
+        for (BigQueryMetrics.BigQueryAPIType type : BigQueryMetrics.BigQueryAPIType.values()) {
+            String apiTag = String.format(BigQueryMetrics.BIGQUERY_API_TAG, type);
+            operationTotalMetrics.put(type, instrumentation.metric(bigQueryMetrics.getBigqueryOperationTotalMetric(), tableTag, datasetTag, apiTag));
+            operationLatencyMetrics.put(type, instrumentation.metric(bigQueryMetrics.getBigqueryOperationLatencyMetric(), tableTag, datasetTag, apiTag));
+        }
+        String tableMetadataTag = String.format(BigQueryMetrics.BIGQUERY_METADATA_TAG, "table");
+        String datasetMetadataTag = String.format(BigQueryMetrics.BIGQUERY_METADATA_TAG, "dataset");
+        this.tableCacheHitMetric = instrumentation.metric(bigQueryMetrics.getBigqueryMetadataCacheHitTotalMetric(), tableTag, datasetTag, tableMetadataTag);
+        this.tableCacheMissMetric = instrumentation.metric(bigQueryMetrics.getBigqueryMetadataCacheMissTotalMetric(), tableTag, datasetTag, tableMetadataTag);
+        this.datasetCacheHitMetric = instrumentation.metric(bigQueryMetrics.getBigqueryMetadataCacheHitTotalMetric(), tableTag, datasetTag, datasetMetadataTag);
+        this.datasetCacheMissMetric = instrumentation.metric(bigQueryMetrics.getBigqueryMetadataCacheMissTotalMetric(), tableTag, datasetTag, datasetMetadataTag);
+        this.circuitBreakerStateMetric = instrumentation.metric(bigQueryMetrics.getBigqueryCircuitBreakerStateMetric(), tableTag, datasetTag);
+        this.circuitBreakerRejectedMetric = instrumentation.metric(bigQueryMetrics.getBigqueryCircuitBreakerRejectedTotalMetric(), tableTag, datasetTag);
+        this.circuitBreaker = bqConfig.isSinkBigqueryCircuitBreakerEnable() ? createCircuitBreaker(bqConfig) : null;
+        this.metadataCacheTtlMillis = bqConfig.getSinkBigqueryMetadataCacheTtlMs();
+    }
 
+    private BigQueryCircuitBreaker createCircuitBreaker(BigQuerySinkConfig config) {
+        return new BigQueryCircuitBreaker(
+                config.getSinkBigqueryCircuitBreakerFailureRateThreshold(),
+                config.getSinkBigqueryCircuitBreakerSlowCallRateThreshold(),
+                config.getSinkBigqueryCircuitBreakerSlowCallDurationMs(),
+                config.getSinkBigqueryCircuitBreakerWindowSize(),
+                config.getSinkBigqueryCircuitBreakerMinimumCalls(),
+                config.getSinkBigqueryCircuitBreakerOpenDurationMs(),
+                config.getSinkBigqueryCircuitBreakerHalfOpenProbes(),
+                state -> {
+                    instrumentation.logWarn("Bigquery circuit breaker is {}", state);
+                    circuitBreakerStateMetric.gauge(state.ordinal());
+                });
     }
 
     private static BigQuery getBigQueryInstance(BigQuerySinkConfig sinkConfig) throws IOException {
@@ -66,9 +129,29 @@ public class BigQueryClient {
                 .build().getService();
     }
 
+    /**
+     * @throws BQCircuitOpenException without calling bigquery while the circuit breaker is open
+     */
     public InsertAllResponse insertAll(InsertAllRequest rows) {
+        if (circuitBreaker == null) {
+            Instant start = Instant.now();
+            InsertAllResponse response = bigquery.insertAll(rows);
+            instrument(start, BigQueryMetrics.BigQueryAPIType.TABLE_INSERT_ALL);
+            return response;
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            circuitBreakerRejectedMetric.increment();
+            throw new BQCircuitOpenException("Bigquery circuit breaker is " + circuitBreaker.getState() + ", insert rejected");
+        }
         Instant start = Instant.now();
-        InsertAllResponse response = bigquery.insertAll(rows);
+        InsertAllResponse response;
+        try {
+            response = bigquery.insertAll(rows);
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure(Duration.between(start, Instant.now()).toMillis());
+            throw e;
+        }
+        circuitBreaker.onSuccess(Duration.between(start, Instant.now()).toMillis());
         instrument(start, BigQueryMetrics.BigQueryAPIType.TABLE_INSERT_ALL);
         return response;
     }
@@ -82,20 +165,119 @@ public class BigQueryClient {
         upsertDatasetAndTableWithRetry(tableInfo);
     }
 
+    /**
+     * Table schema, read from bigquery at most once per metadata cache ttl.
+     */
     public Schema getSchema() {
-        Table table = bigquery.getTable(tableID);
+        return getSchema(false);
+    }
+
+    /**
+     * @param fresh reads the schema from bigquery even when the cached one is within the ttl, for callers building
+     *              a schema update on top of it, so they do not drop fields added to the table meanwhile.
+     */
+    public Schema getSchema(boolean fresh) {
+        Table table = fresh ? loadTable() : getTable();
         if (table == null) {
             return Schema.of();
         }
         return table.getDefinition().getSchema();
     }
 
+    /**
+     * Reads the dataset and the table into the metadata cache, both lookups run concurrently.
+     */
+    public void prefetchMetadata() {
+        CompletableFuture<Table> tableLookup = CompletableFuture.supplyAsync(this::getTable, lookupExecutor);
+        getDataset();
+        awaitTable(tableLookup);
+    }
+
+    private Table getTable() {
+        long generation;
+        synchronized (this) {
+            if (isFresh(cachedTable, tableCacheHitMetric, tableCacheMissMetric)) {
+                return cachedTable.value;
+            }
+            generation = metadataGeneration;
+        }
+        return loadTable(generation);
+    }
+
+    private Table loadTable() {
+        long generation;
+        synchronized (this) {
+            generation = metadataGeneration;
+        }
+        return loadTable(generation);
+    }
+
+    /**
+     * The remote call is made outside the lock so the table and dataset lookups can overlap, the result is only
+     * cached when no create or update invalidated the cache in the meantime.
+     */
+    private Table loadTable(long generation) {
+        Table table = bigquery.getTable(tableID);
+        synchronized (this) {
+            if (generation == metadataGeneration) {
+                cachedTable = new CachedMetadata<>(table, System.currentTimeMillis());
+            }
+        }
+        return table;
+    }
+
+    private Dataset getDataset() {
+        long generation;
+        synchronized (this) {
+            if (isFresh(cachedDataset, datasetCacheHitMetric, datasetCacheMissMetric)) {
+                return cachedDataset.value;
+            }
+            generation = metadataGeneration;
+        }
+        Dataset dataset = bigquery.getDataset(tableID.getDataset());
+        synchronized (this) {
+            if (generation == metadataGeneration) {
+                cachedDataset = new CachedMetadata<>(dataset, System.currentTimeMillis());
+            }
+        }
+        return dataset;
+    }
+
+    private static Table awaitTable(CompletableFuture<Table> tableLookup) {
+        try {
+            return tableLookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isFresh(CachedMetadata<?> cached, StatsDMetric hitMetric, StatsDMetric missMetric) {
+        boolean fresh = cached != null && System.currentTimeMillis() - cached.loadedAtMillis < metadataCacheTtlMillis;
+        (fresh ? hitMetric : missMetric).increment();
+        return fresh;
+    }
+
+    private synchronized void invalidateTable() {
+        metadataGeneration++;
+        cachedTable = null;
+    }
+
+    private synchronized void invalidateMetadataCache() {
+        metadataGeneration++;
+        cachedTable = null;
+        cachedDataset = null;
+    }
+
     private void upsertDatasetAndTableWithRetry(TableInfo info) {
         for (int ii = 0; ii < TABLE_INFO_UPDATE_RETRIES; ii++) {
             try {
                 upsertDatasetAndTable(info);
                 return;
             } catch (BigQueryException e) {
+                invalidateMetadataCache();
                 instrumentation.logWarn(e.getMessage());
                 if (e.getMessage().contains("Exceeded rate limits")) {
                     try {
@@ -112,9 +294,16 @@ public class BigQueryClient {
         }
     }
 
+    /**
+     * The dataset may come from the metadata cache, the table is always read from bigquery so the update is not
+     * decided on a stale schema. The table lookup runs concurrently with the dataset lookup and upsert, a table
+     * cannot exist in a dataset that is only being created so its result stays valid. The cached table or dataset
+     * is invalidated after it is created or updated.
+     */
     private void upsertDatasetAndTable(TableInfo tableInfo) {
-        Dataset dataSet = bigquery.getDataset(tableID.getDataset());
-        if (dataSet == null || !bigquery.getDataset(tableID.getDataset()).exists()) {
+        CompletableFuture<Table> tableLookup = CompletableFuture.supplyAsync(this::loadTable, lookupExecutor);
+        Dataset dataSet = getDataset();
+        if (dataSet == null || !dataSet.exists()) {
             Instant start = Instant.now();
             bigquery.create(
                     Dataset.newBuilder(tableID.getDataset())
@@ -122,6 +311,7 @@ public class BigQueryClient {
                             .setLabels(bqConfig.getDatasetLabels())
                             .build()
             );
+            invalidateMetadataCache();
             instrumentation.logInfo("Successfully CREATED bigquery DATASET: {}", tableID.getDataset());
             instrument(start, BigQueryMetrics.BigQueryAPIType.DATASET_CREATE);
         } else if (shouldUpdateDataset(dataSet)) {
@@ -131,14 +321,16 @@ public class BigQueryClient {
                             .setLabels(bqConfig.getDatasetLabels())
                             .build()
             );
+            invalidateMetadataCache();
             instrumentation.logInfo("Successfully UPDATED bigquery DATASET: {} with labels", tableID.getDataset());
             instrument(start, BigQueryMetrics.BigQueryAPIType.DATASET_UPDATE);
         }
 
-        Table table = bigquery.getTable(tableID);
+        Table table = awaitTable(tableLookup);
         if (table == null || !table.exists()) {
             Instant start = Instant.now();
             bigquery.create(tableInfo);
+            invalidateTable();
             instrumentation.logInfo("Successfully CREATED bigquery TABLE: {}", tableID.getTable());
             instrument(start, BigQueryMetrics.BigQueryAPIType.TABLE_CREATE);
         } else {
@@ -148,6 +340,7 @@ public class BigQueryClient {
             if (shouldUpdateTable(tableInfo, table, existingSchema, updatedSchema)) {
                 Instant start = Instant.now();
                 bigquery.update(tableInfo);
+                invalidateTable();
                 instrumentation.logInfo("Successfully UPDATED bigquery TABLE: {}", tableID.getTable());
                 instrument(start, BigQueryMetrics.BigQueryAPIType.TABLE_UPDATE);
             } else {
@@ -157,17 +350,8 @@ public class BigQueryClient {
     }
 
     private void instrument(Instant startTime, BigQueryMetrics.BigQueryAPIType type) {
-        instrumentation.incrementCounter(
-                bigqueryMetrics.getBigqueryOperationTotalMetric(),
-                String.format(BigQueryMetrics.BIGQUERY_TABLE_TAG, tableID.getTable()),
-                String.format(BigQueryMetrics.BIGQUERY_DATASET_TAG, tableID.getDataset()),
-                String.format(BigQueryMetrics.BIGQUERY_API_TAG, type));
-        instrumentation.captureDurationSince(
-                bigqueryMetrics.getBigqueryOperationLatencyMetric(),
-                startTime,
-                String.format(BigQueryMetrics.BIGQUERY_TABLE_TAG, tableID.getTable()),
-                String.format(BigQueryMetrics.BIGQUERY_DATASET_TAG, tableID.getDataset()),
-                String.format(BigQueryMetrics.BIGQUERY_API_TAG, type));
+        operationTotalMetrics.get(type).increment();
+        operationLatencyMetrics.get(type).durationSince(startTime);
     }
 
     private boolean shouldUpdateTable(TableInfo tableInfo, Table table, Schema existingSchema, Schema updatedSchema) {
@@ -203,4 +387,14 @@ public class BigQueryClient {
     private TableDefinition getTableDefinition(Schema schema) {
         return bqTableDefinition.getTableDefinition(schema);
     }
+
+    private static final class CachedMetadata<T> {
+        private final T value;
+        private final long loadedAtMillis;
+
+        private CachedMetadata(T value, long loadedAtMillis) {
+            this.value = value;
+            this.loadedAtMillis = loadedAtMillis;
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package io.odpf.depot.bigquery.client;
+
+import com.google.api.client.util.DateTime;
+import io.odpf.depot.bigquery.models.Record;
+import io.odpf.depot.bigquery.models.RequestBatches;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits records into consecutive batches that fit in a single bigquery write request,
+ * bounded by row count and by the estimated size of the rows in the request body.
+ * A row bigger than the byte limit on its own is sent alone. The defaults are the limits of bigquery itself,
+ * so by default a batch is sent in one request unless bigquery would reject it.
+ */
+public class BigQueryRequestSplitter {
+    public static final int DEFAULT_MAX_ROWS = 50_000;
+    public static final long DEFAULT_MAX_BYTES = 10L * 1024 * 1024;
+    private static final int ROW_OVERHEAD_BYTES = 64;
+    private static final int NUMBER_BYTES = 8;
+    private static final int DATE_TIME_BYTES = 32;
+    private static final int NULL_BYTES = 4;
+    private static final int FIELD_OVERHEAD_BYTES = 4;
+    private static final int BASE64_NUMERATOR = 4;
+    private static final int BASE64_DENOMINATOR = 3;
+
+    @Getter
+    private final int maxRows;
+    @Getter
+    private final long maxBytes;
+
+    public BigQueryRequestSplitter() {
+        this(DEFAULT_MAX_ROWS, DEFAULT_MAX_BYTES);
+    }
+
+    public BigQueryRequestSplitter(int maxRows, long maxBytes) {
+        this.maxRows = maxRows > 0 ? maxRows : DEFAULT_MAX_ROWS;
+        this.maxBytes = maxBytes > 0 ? maxBytes : DEFAULT_MAX_BYTES;
+    }
+
+    public List<List<Record>> split(List<Record> records) {
+        return splitMeasuring(records).getBatches();
+    }
+
+    /**
+     * Splits the records and sums up the estimated size of their rows on the way, so it is not estimated twice.
+     */
+    public RequestBatches splitMeasuring(List<Record> records) {
+        List<List<Record>> batches = new ArrayList<>();
+        int start = 0;
+        long batchBytes = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < records.size(); i++) {
+            long rowBytes = estimateSize(records.get(i));
+            boolean full = i - start >= maxRows || (i > start && batchBytes + rowBytes > maxBytes);
+            if (full) {
+                batches.add(records.subList(start, i));
+                start = i;
+                batchBytes = 0;
+            }
+            batchBytes += rowBytes;
+            totalBytes += rowBytes;
+        }
+        batches.add(records.subList(start, records.size()));
+        return new RequestBatches(batches.size() == 1 ? Collections.singletonList(records) : batches, totalBytes);
+    }
+
+    /**
+     * Approximate size of the row once serialized as json in an insertAll request.
+     */
+    public static long estimateSize(Record record) {
+        return ROW_OVERHEAD_BYTES + estimateSize(record.getColumns());
+    }
+
+    private static long estimateSize(Object value) {
+        if (value == null) {
+            return NULL_BYTES;
+        }
+        if (value instanceof String) {
+            return ((String) value).length() + 2;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return NUMBER_BYTES;
+        }
+        if (value instanceof DateTime) {
+            return DATE_TIME_BYTES;
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length * BASE64_NUMERATOR / BASE64_DENOMINATOR + 2;
+        }
+        if (value instanceof Map) {
+            long size = 2;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += String.valueOf(entry.getKey()).length() + FIELD_OVERHEAD_BYTES + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            long size = 2;
+            for (Object element : (Collection<?>) value) {
+                size += estimateSize(element) + 1;
+            }
+            return size;
+        }
+        return value.toString().length() + 2;
+    }
+}
@@ -2,24 +2,48 @@ package io.odpf.depot.bigquery.client;
 
 import com.google.cloud.bigquery.BigQueryError;
 import com.google.cloud.bigquery.InsertAllResponse;
+import com.google.cloud.bigquery.TableId;
 import io.odpf.depot.bigquery.error.OOBError;
 import io.odpf.depot.bigquery.exception.BigQuerySinkException;
 import io.odpf.depot.bigquery.models.Record;
 import io.odpf.depot.error.ErrorType;
 import io.odpf.depot.metrics.BigQueryMetrics;
 import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.StatsDMetric;
 import io.odpf.depot.bigquery.error.ErrorDescriptor;
 import io.odpf.depot.bigquery.error.ErrorParser;
 import io.odpf.depot.bigquery.error.InvalidSchemaError;
 import io.odpf.depot.bigquery.error.StoppedError;
 import io.odpf.depot.bigquery.error.UnknownError;
 import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.error.SampledErrorReporter;
 
+import java.io.Closeable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class BigQueryResponseParser {
+/**
+ * Maps the insert errors of one table to error infos, the logged errors are sampled per table until it is closed.
+ */
+public class BigQueryResponseParser implements Closeable {
+    private final Instrumentation instrumentation;
+    private final SampledErrorReporter errorReporter;
+    private final StatsDMetric unknownErrorMetric;
+    private final StatsDMetric invalidSchemaErrorMetric;
+    private final StatsDMetric oobErrorMetric;
+    private final StatsDMetric stoppedErrorMetric;
+
+    public BigQueryResponseParser(BigQueryMetrics bigQueryMetrics, Instrumentation instrumentation, TableId tableId) {
+        this.instrumentation = instrumentation;
+        this.errorReporter = new SampledErrorReporter(BigQueryResponseParser.class, tableId.getDataset() + "." + tableId.getTable());
+        String errorsMetric = bigQueryMetrics.getBigqueryTotalErrorsMetrics();
+        this.unknownErrorMetric = instrumentation.metric(errorsMetric, errorTag(BigQueryMetrics.BigQueryErrorType.UNKNOWN_ERROR));
+        this.invalidSchemaErrorMetric = instrumentation.metric(errorsMetric, errorTag(BigQueryMetrics.BigQueryErrorType.INVALID_SCHEMA_ERROR));
+        this.oobErrorMetric = instrumentation.metric(errorsMetric, errorTag(BigQueryMetrics.BigQueryErrorType.OOB_ERROR));
+        this.stoppedErrorMetric = instrumentation.metric(errorsMetric, errorTag(BigQueryMetrics.BigQueryErrorType.STOPPED_ERROR));
+    }
+
     /**
      * Parses the {@link InsertAllResponse} object and returns errors type {@link ErrorDescriptor}.
      * {@link InsertAllResponse} in bqResponse are 1 to 1 indexed based on the records that are requested to be inserted.
@@ -28,11 +52,7 @@ public class BigQueryResponseParser {
      * @param bqResponse - the status of insertion for all records as returned by BQ
      * @return list of messages with error.
      */
-    public static Map<Long, ErrorInfo> parseAndFillOdpfSinkResponse(
-            final List<Record> records,
-            final InsertAllResponse bqResponse,
-            BigQueryMetrics bigQueryMetrics,
-            Instrumentation instrumentation) {
+    public Map<Long, ErrorInfo> parseAndFillOdpfSinkResponse(final List<Record> records, final InsertAllResponse bqResponse) {
         Map<Long, ErrorInfo> errorInfoResponse = new HashMap<>();
         if (!bqResponse.hasErrors()) {
             return errorInfoResponse;
@@ -42,27 +62,41 @@ public class BigQueryResponseParser {
             Record record = records.get(errorEntry.getKey().intValue());
             long messageIndex = record.getIndex();
             List<ErrorDescriptor> errors = ErrorParser.parseError(errorEntry.getValue());
-            instrumentation.logError("Error while bigquery insert for message. Record: {}, Error: {}, MetaData: {}",
-                    record.getColumns(), errors, record.getMetadata());
+            if (errorReporter.record(errors.isEmpty() ? "none" : errors.get(0).getClass().getSimpleName())) {
+                instrumentation.logError("Error while bigquery insert for message. Record: {}, Error: {}, MetaData: {}",
+                        record.getColumns(), errors, record.getMetadata());
+            }
 
             if (errorMatch(errors, UnknownError.class)) {
                 errorInfoResponse.put(messageIndex, new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_UNKNOWN_ERROR));
-                instrumentation.incrementCounter(bigQueryMetrics.getBigqueryTotalErrorsMetrics(), String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, BigQueryMetrics.BigQueryErrorType.UNKNOWN_ERROR));
+                unknownErrorMetric.increment();
             } else if (errorMatch(errors, InvalidSchemaError.class)) {
                 errorInfoResponse.put(messageIndex, new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_4XX_ERROR));
-                instrumentation.incrementCounter(bigQueryMetrics.getBigqueryTotalErrorsMetrics(), String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, BigQueryMetrics.BigQueryErrorType.INVALID_SCHEMA_ERROR));
+                invalidSchemaErrorMetric.increment();
             } else if (errorMatch(errors, OOBError.class)) {
                 errorInfoResponse.put(messageIndex, new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_4XX_ERROR));
-                instrumentation.incrementCounter(bigQueryMetrics.getBigqueryTotalErrorsMetrics(), String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, BigQueryMetrics.BigQueryErrorType.OOB_ERROR));
+                oobErrorMetric.increment();
             } else if (errorMatch(errors, StoppedError.class)) {
                 errorInfoResponse.put(messageIndex, new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_5XX_ERROR));
-                instrumentation.incrementCounter(bigQueryMetrics.getBigqueryTotalErrorsMetrics(), String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, BigQueryMetrics.BigQueryErrorType.STOPPED_ERROR));
+                stoppedErrorMetric.increment();
             }
         }
         return errorInfoResponse;
     }
 
+    private static String errorTag(BigQueryMetrics.BigQueryErrorType errorType) {
+        return String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, errorType);
+    }
+
     private static boolean errorMatch(List<ErrorDescriptor> errors, Class c) {
         return errors.stream().anyMatch(errorDescriptor -> errorDescriptor.getClass().equals(c));
     }
+
+    /**
+     * Logs the summary of the errors not logged yet.
+     */
+    @Override
+    public void close() {
+        errorReporter.close();
+    }
 }
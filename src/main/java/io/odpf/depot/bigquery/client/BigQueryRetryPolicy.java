@@ -0,0 +1,67 @@
+package io.odpf.depot.bigquery.client;
+
+import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.error.ErrorType;
+import lombok.Getter;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy for rows that failed with a transient error.
+ * The backoff of an attempt grows exponentially from the initial backoff up to the max backoff, with a random jitter
+ * of up to half of it, and retries stop once the attempts or the total time budget are used up.
+ */
+public class BigQueryRetryPolicy {
+    private static final BigQueryRetryPolicy DISABLED = new BigQueryRetryPolicy(0, 0, 0, 0);
+    private static final int MAX_SHIFT = 30;
+
+    @Getter
+    private final int maxAttempts;
+    @Getter
+    private final long initialBackoffMillis;
+    @Getter
+    private final long maxBackoffMillis;
+    @Getter
+    private final long budgetMillis;
+
+    public BigQueryRetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, long budgetMillis) {
+        this.maxAttempts = Math.max(0, maxAttempts);
+        this.initialBackoffMillis = Math.max(0, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.budgetMillis = Math.max(0, budgetMillis);
+    }
+
+    public static BigQueryRetryPolicy disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return maxAttempts > 0;
+    }
+
+    public boolean isRetryable(ErrorInfo errorInfo) {
+        return errorInfo != null && errorInfo.getErrorType() == ErrorType.SINK_5XX_ERROR;
+    }
+
+    /**
+     * @param attempt       retry attempt starting from 1
+     * @param elapsedMillis time already spent on retries of the batch
+     * @param backoffMillis wait before the attempt
+     * @return whether another attempt is allowed after waiting for the given backoff
+     */
+    public boolean canRetry(int attempt, long elapsedMillis, long backoffMillis) {
+        return attempt <= maxAttempts && elapsedMillis + backoffMillis <= budgetMillis;
+    }
+
+    public long backoffMillis(int attempt) {
+        return backoffMillis(attempt, ThreadLocalRandom.current());
+    }
+
+    long backoffMillis(int attempt, Random random) {
+        int shift = Math.min(Math.max(0, attempt - 1), MAX_SHIFT);
+        long backoff = initialBackoffMillis > (maxBackoffMillis >> shift) ? maxBackoffMillis : initialBackoffMillis << shift;
+        long jitter = backoff / 2;
+        return backoff - jitter + (jitter == 0 ? 0 : (long) (random.nextDouble() * (jitter + 1)));
+    }
+}
@@ -0,0 +1,186 @@
+package io.odpf.depot.bigquery.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Creates the insert id of a row from the configured metadata keys, e.g. topic, partition and offset.
+ * The values are hashed with a murmur3-based 128-bit hash straight from the metadata, numbers as longs and strings
+ * char by char, and the id is the 32 hex chars of the hash. It takes murmur3 x64 128 block mixing and finalization,
+ * but a trailing long is padded to a full block instead of going through the murmur3 tail step, so its ids are not
+ * meant to match other murmur3 implementations. Every value is prefixed with its type and length, so different metadata
+ * give different input to the hash. The only allocation per row is the id string itself.
+ */
+public class HashingInsertIdGenerator implements Function<Map<String, Object>, String> {
+    private static final int ID_LENGTH = 32;
+    private static final int HEX_DIGITS_PER_LONG = 16;
+    private static final int BITS_PER_HEX_DIGIT = 4;
+    private static final int HEX_DIGIT_MASK = 0xf;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int CHARS_PER_LONG = 4;
+    private static final int BITS_PER_CHAR = 16;
+    private static final int BYTES_PER_LONG = 8;
+    private static final int BITS_PER_BYTE = 8;
+    private static final int BYTE_MASK = 0xff;
+    private static final long NULL_TAG = 0x6e756c6c00000000L;
+    private static final long NUMBER_TAG = 0x6e756d6200000000L;
+    private static final long STRING_TAG = 0x7374720000000000L;
+    private static final long BYTES_TAG = 0x6279746500000000L;
+
+    private static final ThreadLocal<Murmur3Hasher> HASHER = ThreadLocal.withInitial(Murmur3Hasher::new);
+
+    private final String[] metadataKeys;
+
+    public HashingInsertIdGenerator(List<String> metadataKeys) {
+        this.metadataKeys = metadataKeys.stream().map(String::trim).filter(key -> !key.isEmpty()).toArray(String[]::new);
+    }
+
+    @Override
+    public String apply(Map<String, Object> metadata) {
+        Murmur3Hasher hasher = HASHER.get();
+        hasher.reset();
+        for (String key : metadataKeys) {
+            putValue(hasher, metadata.get(key));
+        }
+        hasher.finish();
+        char[] id = hasher.id;
+        writeHex(id, 0, hasher.h1);
+        writeHex(id, HEX_DIGITS_PER_LONG, hasher.h2);
+        return new String(id);
+    }
+
+    private static void putValue(Murmur3Hasher hasher, Object value) {
+        if (value == null) {
+            hasher.putLong(NULL_TAG);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            hasher.putLong(NUMBER_TAG);
+            hasher.putLong(((Number) value).longValue());
+        } else if (value instanceof CharSequence) {
+            putChars(hasher, (CharSequence) value);
+        } else if (value instanceof byte[]) {
+            putBytes(hasher, (byte[]) value);
+        } else {
+            putChars(hasher, value.toString());
+        }
+    }
+
+    private static void putChars(Murmur3Hasher hasher, CharSequence chars) {
+        int length = chars.length();
+        hasher.putLong(STRING_TAG | length);
+        long word = 0;
+        int packed = 0;
+        for (int i = 0; i < length; i++) {
+            word = (word << BITS_PER_CHAR) | chars.charAt(i);
+            if (++packed == CHARS_PER_LONG) {
+                hasher.putLong(word);
+                word = 0;
+                packed = 0;
+            }
+        }
+        if (packed > 0) {
+            hasher.putLong(word);
+        }
+    }
+
+    private static void putBytes(Murmur3Hasher hasher, byte[] bytes) {
+        hasher.putLong(BYTES_TAG | bytes.length);
+        long word = 0;
+        int packed = 0;
+        for (byte b : bytes) {
+            word = (word << BITS_PER_BYTE) | (b & BYTE_MASK);
+            if (++packed == BYTES_PER_LONG) {
+                hasher.putLong(word);
+                word = 0;
+                packed = 0;
+            }
+        }
+        if (packed > 0) {
+            hasher.putLong(word);
+        }
+    }
+
+    private static void writeHex(char[] id, int offset, long value) {
+        for (int i = HEX_DIGITS_PER_LONG - 1; i >= 0; i--) {
+            id[offset + i] = HEX[(int) (value & HEX_DIGIT_MASK)];
+            value >>>= BITS_PER_HEX_DIGIT;
+        }
+    }
+
+    /**
+     * Murmur3-based 128-bit hash over a sequence of longs, reused by one thread for every row.
+     */
+    private static final class Murmur3Hasher {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+        private static final long SEED = 0x6f6470665f626971L;
+        private static final int R1 = 31;
+        private static final int R2 = 27;
+        private static final int R3 = 33;
+        private static final int M = 5;
+        private static final long N1 = 0x52dce729L;
+        private static final long N2 = 0x38495ab5L;
+        private static final long FMIX1 = 0xff51afd7ed558ccdL;
+        private static final long FMIX2 = 0xc4ceb9fe1a85ec53L;
+        private static final int FMIX_SHIFT = 33;
+        private static final int BYTES_PER_BLOCK = 16;
+
+        private final char[] id = new char[ID_LENGTH];
+        private long h1;
+        private long h2;
+        private long pending;
+        private boolean hasPending;
+        private long length;
+
+        void reset() {
+            h1 = SEED;
+            h2 = SEED;
+            hasPending = false;
+            length = 0;
+        }
+
+        void putLong(long value) {
+            if (!hasPending) {
+                pending = value;
+                hasPending = true;
+                return;
+            }
+            mixBlock(pending, value);
+            hasPending = false;
+        }
+
+        void finish() {
+            if (hasPending) {
+                mixBlock(pending, 0);
+                hasPending = false;
+            }
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+        }
+
+        private void mixBlock(long k1, long k2) {
+            h1 ^= Long.rotateLeft(k1 * C1, R1) * C2;
+            h1 = Long.rotateLeft(h1, R2) + h2;
+            h1 = h1 * M + N1;
+            h2 ^= Long.rotateLeft(k2 * C2, R3) * C1;
+            h2 = Long.rotateLeft(h2, R1) + h1;
+            h2 = h2 * M + N2;
+            length += BYTES_PER_BLOCK;
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> FMIX_SHIFT;
+            k *= FMIX1;
+            k ^= k >>> FMIX_SHIFT;
+            k *= FMIX2;
+            k ^= k >>> FMIX_SHIFT;
+            return k;
+        }
+    }
+}
@@ -2,9 +2,11 @@ package io.odpf.depot.bigquery.converter;
 
 import io.odpf.depot.bigquery.models.Record;
 import io.odpf.depot.bigquery.models.Records;
+import io.odpf.depot.bigquery.models.StageTimings;
 import io.odpf.depot.config.BigQuerySinkConfig;
 import io.odpf.depot.error.ErrorInfo;
 import io.odpf.depot.error.ErrorType;
+import io.odpf.depot.error.SampledErrorReporter;
 import io.odpf.depot.exception.DeserializerException;
 import io.odpf.depot.exception.EmptyMessageException;
 import io.odpf.depot.exception.UnknownFieldsException;
@@ -13,6 +15,7 @@ import io.odpf.depot.message.OdpfMessageParser;
 import io.odpf.depot.message.OdpfMessageSchema;
 import io.odpf.depot.message.ParsedOdpfMessage;
 import io.odpf.depot.message.SinkConnectorSchemaMessageMode;
+import io.odpf.depot.metrics.BigQueryMetrics.BigQuerySinkStage;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,6 +24,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 @AllArgsConstructor
 @Slf4j
@@ -28,15 +33,53 @@ public class MessageRecordConverter {
     private final OdpfMessageParser parser;
     private final BigQuerySinkConfig config;
     private final OdpfMessageSchema schema;
+    private final ForkJoinPool conversionPool;
+    private final SampledErrorReporter errorReporter;
 
+    public MessageRecordConverter(OdpfMessageParser parser, BigQuerySinkConfig config, OdpfMessageSchema schema) {
+        this(parser, config, schema, null);
+    }
+
+    public MessageRecordConverter(OdpfMessageParser parser, BigQuerySinkConfig config, OdpfMessageSchema schema, ForkJoinPool conversionPool) {
+        this(parser, config, schema, conversionPool, new SampledErrorReporter(MessageRecordConverter.class, config.getTableName()));
+    }
 
+    /**
+     * Converts messages to records keeping the message index.
+     * Batches of at least SINK_BIGQUERY_CONVERSION_PARALLEL_MIN_BATCH_SIZE messages are split in contiguous chunks
+     * converted on the conversion pool, chunk results are joined in order so the records come out in the same order
+     * as a sequential conversion. The time spent in each conversion stage is summed over all chunks.
+     */
     public Records convert(List<OdpfMessage> messages) {
-        ArrayList<Record> validRecords = new ArrayList<>();
+        StageTimings timings = new StageTimings();
+        if (conversionPool == null || messages.size() < Math.max(2, config.getSinkBigqueryConversionParallelMinBatchSize())) {
+            return convert(messages, 0, messages.size(), timings);
+        }
+        int chunks = Math.min(conversionPool.getParallelism(), messages.size());
+        int chunkSize = (messages.size() + chunks - 1) / chunks;
+        List<ForkJoinTask<Records>> tasks = new ArrayList<>(chunks);
+        for (int from = 0; from < messages.size(); from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, messages.size());
+            tasks.add(conversionPool.submit(() -> convert(messages, start, end, timings)));
+        }
+        ArrayList<Record> validRecords = new ArrayList<>(messages.size());
         ArrayList<Record> invalidRecords = new ArrayList<>();
-        for (int index = 0; index < messages.size(); index++) {
+        for (ForkJoinTask<Records> task : tasks) {
+            Records records = task.join();
+            validRecords.addAll(records.getValidRecords());
+            invalidRecords.addAll(records.getInvalidRecords());
+        }
+        return new Records(validRecords, invalidRecords, 0, timings);
+    }
+
+    private Records convert(List<OdpfMessage> messages, int from, int to, StageTimings timings) {
+        ArrayList<Record> validRecords = new ArrayList<>(to - from);
+        ArrayList<Record> invalidRecords = new ArrayList<>();
+        for (int index = from; index < to; index++) {
             OdpfMessage message = messages.get(index);
             try {
-                Record record = createRecord(message, index);
+                Record record = createRecord(message, index, timings);
                 validRecords.add(record);
             } catch (UnknownFieldsException e) {
                 ErrorInfo errorInfo = new ErrorInfo(e, ErrorType.UNKNOWN_FIELDS_ERROR);
@@ -49,22 +92,29 @@ public class MessageRecordConverter {
                 invalidRecords.add(new Record(message.getMetadata(), Collections.emptyMap(), index, errorInfo));
             }
         }
-        return new Records(validRecords, invalidRecords);
+        return new Records(validRecords, invalidRecords, 0, timings);
     }
 
-    private Record createRecord(OdpfMessage message, int index) {
+    private Record createRecord(OdpfMessage message, int index, StageTimings timings) {
         try {
             SinkConnectorSchemaMessageMode mode = config.getSinkConnectorSchemaMessageMode();
             String schemaClass = mode == SinkConnectorSchemaMessageMode.LOG_MESSAGE
                     ? config.getSinkConnectorSchemaProtoMessageClass() : config.getSinkConnectorSchemaProtoKeyClass();
+            long start = System.nanoTime();
             ParsedOdpfMessage parsedOdpfMessage = parser.parse(message, mode, schemaClass);
+            start = timings.addSince(BigQuerySinkStage.DESERIALIZE, start);
             parsedOdpfMessage.validate(config);
+            start = timings.addSince(BigQuerySinkStage.VALIDATE, start);
             Map<String, Object> columns = parsedOdpfMessage.getMapping(schema);
+            start = timings.addSince(BigQuerySinkStage.COLUMN_MAPPING, start);
             MessageRecordConverterUtils.addMetadata(columns, message, config);
             MessageRecordConverterUtils.addTimeStampColumnForJson(columns, config);
+            timings.addSince(BigQuerySinkStage.METADATA_ENRICHMENT, start);
             return new Record(message.getMetadata(), columns, index, null);
         } catch (IOException e) {
-            log.error("failed to deserialize message: {}, {} ", e, message.getMetadataString());
+            if (errorReporter.record("deserialization")) {
+                log.error("failed to deserialize message: {}, {} ", e, message.getMetadataString());
+            }
             throw new DeserializerException("failed to deserialize ", e);
         }
     }
@@ -1,8 +1,81 @@
 package io.odpf.depot.bigquery.converter;
 
-import lombok.Data;
+import io.odpf.depot.bigquery.models.Records;
+import io.odpf.depot.error.SampledErrorReporter;
+import io.odpf.depot.message.OdpfMessage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 
-@Data
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the converter of the current schema version.
+ * A new converter is swapped in atomically, a batch being converted keeps the converter it started with.
+ */
 public class MessageRecordConverterCache {
-    private MessageRecordConverter messageRecordConverter;
+    private final AtomicReference<VersionedConverter> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    /**
+     * Pool shared by the converters of every schema version, null when conversion is sequential.
+     */
+    private volatile ForkJoinPool conversionPool;
+    /**
+     * Reporter shared by the converters of every schema version, so a schema update does not reset the error sampling.
+     */
+    private volatile SampledErrorReporter errorReporter = new SampledErrorReporter(MessageRecordConverter.class);
+
+    public MessageRecordConverter getMessageRecordConverter() {
+        VersionedConverter versionedConverter = current.get();
+        return versionedConverter == null ? null : versionedConverter.getConverter();
+    }
+
+    /**
+     * Makes the converter the current one under the next schema version.
+     */
+    public void setMessageRecordConverter(MessageRecordConverter messageRecordConverter) {
+        current.set(new VersionedConverter(versions.incrementAndGet(), messageRecordConverter));
+    }
+
+    /**
+     * @return version of the current converter, 0 before any converter is set
+     */
+    public long getSchemaVersion() {
+        VersionedConverter versionedConverter = current.get();
+        return versionedConverter == null ? 0 : versionedConverter.getVersion();
+    }
+
+    /**
+     * Converts the messages with the current converter and stamps the records with its schema version.
+     */
+    public Records convert(List<OdpfMessage> messages) {
+        VersionedConverter versionedConverter = current.get();
+        Records records = versionedConverter.getConverter().convert(messages);
+        return new Records(records.getValidRecords(), records.getInvalidRecords(), versionedConverter.getVersion(), records.getStageTimings());
+    }
+
+    public ForkJoinPool getConversionPool() {
+        return conversionPool;
+    }
+
+    public void setConversionPool(ForkJoinPool conversionPool) {
+        this.conversionPool = conversionPool;
+    }
+
+    public SampledErrorReporter getErrorReporter() {
+        return errorReporter;
+    }
+
+    public void setErrorReporter(SampledErrorReporter errorReporter) {
+        this.errorReporter = errorReporter;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    private static class VersionedConverter {
+        private final long version;
+        private final MessageRecordConverter converter;
+    }
 }
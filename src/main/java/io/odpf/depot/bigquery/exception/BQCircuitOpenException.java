@@ -0,0 +1,7 @@
+package io.odpf.depot.bigquery.exception;
+
+public class BQCircuitOpenException extends RuntimeException {
+    public BQCircuitOpenException(String message) {
+        super(message);
+    }
+}
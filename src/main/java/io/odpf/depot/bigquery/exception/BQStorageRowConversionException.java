@@ -0,0 +1,22 @@
+package io.odpf.depot.bigquery.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a record column cannot be encoded into the protobuf row expected by the storage write api.
+ * {@link #isUnknownColumn()} is true when the column is absent from the table schema the row descriptor was built from.
+ */
+public class BQStorageRowConversionException extends RuntimeException {
+    @Getter
+    private final boolean unknownColumn;
+
+    public BQStorageRowConversionException(String message, boolean unknownColumn) {
+        super(message);
+        this.unknownColumn = unknownColumn;
+    }
+
+    public BQStorageRowConversionException(String message, Throwable cause) {
+        super(message, cause);
+        this.unknownColumn = false;
+    }
+}
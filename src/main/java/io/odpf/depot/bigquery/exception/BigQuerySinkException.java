@@ -4,4 +4,11 @@ import lombok.EqualsAndHashCode;
 
 @EqualsAndHashCode(callSuper = false)
 public class BigQuerySinkException extends RuntimeException {
+    public BigQuerySinkException() {
+        super();
+    }
+
+    public BigQuerySinkException(String message) {
+        super(message);
+    }
 }
@@ -1,6 +1,7 @@
 package io.odpf.depot.bigquery.handler;
 
 import io.odpf.depot.bigquery.client.BigQueryClient;
+import io.odpf.depot.bigquery.json.BigqueryJsonKnownColumns;
 import io.odpf.depot.config.enums.SinkConnectorSchemaDataType;
 import io.odpf.depot.config.BigQuerySinkConfig;
 import io.odpf.depot.metrics.Instrumentation;
@@ -8,10 +9,14 @@ import io.odpf.depot.metrics.StatsDReporter;
 
 public class ErrorHandlerFactory {
     public static ErrorHandler create(BigQuerySinkConfig sinkConfig, BigQueryClient bigQueryClient, StatsDReporter statsDReprter) {
+        return create(sinkConfig, bigQueryClient, statsDReprter, null);
+    }
+
+    public static ErrorHandler create(BigQuerySinkConfig sinkConfig, BigQueryClient bigQueryClient, StatsDReporter statsDReprter, BigqueryJsonKnownColumns knownColumns) {
         if (SinkConnectorSchemaDataType.JSON == sinkConfig.getSinkConnectorSchemaDataType()) {
             return new JsonErrorHandler(
                     bigQueryClient,
-                    sinkConfig, new Instrumentation(statsDReprter, JsonErrorHandler.class));
+                    sinkConfig, new Instrumentation(statsDReprter, JsonErrorHandler.class), knownColumns);
         }
         return new NoopErrorHandler();
     }
@@ -6,6 +6,7 @@ import com.google.cloud.bigquery.FieldList;
 import com.google.cloud.bigquery.LegacySQLTypeName;
 import com.google.cloud.bigquery.Schema;
 import io.odpf.depot.bigquery.client.BigQueryClient;
+import io.odpf.depot.bigquery.json.BigqueryJsonKnownColumns;
 import io.odpf.depot.bigquery.models.Record;
 import io.odpf.depot.common.TupleString;
 import io.odpf.depot.config.BigQuerySinkConfig;
@@ -35,9 +36,18 @@ public class JsonErrorHandler implements ErrorHandler {
     private final String bqMetadataNamespace;
     private final Instrumentation instrumentation;
     private final Map<String, String> defaultColumnsMap;
+    private final BigqueryJsonKnownColumns knownColumns;
 
     public JsonErrorHandler(BigQueryClient bigQueryClient, BigQuerySinkConfig bigQuerySinkConfig, Instrumentation instrumentation) {
+        this(bigQueryClient, bigQuerySinkConfig, instrumentation, null);
+    }
+
+    /**
+     * @param knownColumns when not null, keys missing from it are added to the table before the insert.
+     */
+    public JsonErrorHandler(BigQueryClient bigQueryClient, BigQuerySinkConfig bigQuerySinkConfig, Instrumentation instrumentation, BigqueryJsonKnownColumns knownColumns) {
 
+        this.knownColumns = knownColumns;
         this.instrumentation = instrumentation;
         this.bigQueryClient = bigQueryClient;
         tablePartitionKey = bigQuerySinkConfig.isTablePartitioningEnabled() ? bigQuerySinkConfig.getTablePartitionKey() : "";
@@ -62,12 +72,45 @@ public class JsonErrorHandler implements ErrorHandler {
 
     }
 
+    /**
+     * Adds the keys of the records that are not known columns to the table in a single update,
+     * so the insert does not fail with unknown field errors. The table schema is read again before the update,
+     * and a batch without new keys does not call bigquery at all.
+     */
+    @Override
+    public void beforeInsert(List<Record> records) {
+        if (knownColumns == null || knownColumns.unknownColumns(records).isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            Set<String> unknownColumns = knownColumns.unknownColumns(records);
+            if (unknownColumns.isEmpty()) {
+                return;
+            }
+            FieldList existingFieldList = bigQueryClient.getSchema(true).getFields();
+            ArrayList<Field> bqSchemaFields = unknownColumns
+                    .stream()
+                    .filter(key -> filterExistingFields(existingFieldList, key))
+                    .map(this::getField)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            if (!bqSchemaFields.isEmpty()) {
+                instrumentation.logInfo("updating table with new fields detected before insert {}", bqSchemaFields);
+                existingFieldList.iterator().forEachRemaining(bqSchemaFields::add);
+                bigQueryClient.upsertTable(bqSchemaFields);
+            } else {
+                existingFieldList.iterator().forEachRemaining(bqSchemaFields::add);
+            }
+            knownColumns.addFields(bqSchemaFields);
+        }
+    }
+
+    @Override
     public void handle(Map<Long, List<BigQueryError>> insertErrors, List<Record> records) {
 
-        Schema schema = bigQueryClient.getSchema();
-        FieldList existingFieldList = schema.getFields();
         List<Entry<Long, List<BigQueryError>>> unknownFieldBqErrors = getUnknownFieldBqErrors(insertErrors);
         if (!unknownFieldBqErrors.isEmpty()) {
+            Schema schema = bigQueryClient.getSchema(true);
+            FieldList existingFieldList = schema.getFields();
             ArrayList<Field> bqSchemaFields = unknownFieldBqErrors
                     .stream()
                     .map(x -> getColumnNamesForRecordsWhichHadUnknownBqFieldErrors(records, x))
@@ -79,6 +122,9 @@ public class JsonErrorHandler implements ErrorHandler {
             instrumentation.logInfo("updating table with missing fields detected {}", bqSchemaFields);
             existingFieldList.iterator().forEachRemaining(bqSchemaFields::add);
             bigQueryClient.upsertTable(bqSchemaFields);
+            if (knownColumns != null) {
+                knownColumns.addFields(bqSchemaFields);
+            }
         }
     }
 
@@ -0,0 +1,47 @@
+package io.odpf.depot.bigquery.json;
+
+import com.google.cloud.bigquery.Field;
+import io.odpf.depot.bigquery.models.Record;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Columns known to exist in the table when the schema is inferred from incoming data.
+ * It is seeded with the table schema on schema update, so keys new to the table can be found locally
+ * before the insert instead of from "no such field" errors returned by bigquery.
+ */
+public class BigqueryJsonKnownColumns {
+    private final Set<String> columns = ConcurrentHashMap.newKeySet();
+
+    public void reset(Collection<Field> fields) {
+        columns.clear();
+        addFields(fields);
+    }
+
+    public void addFields(Collection<Field> fields) {
+        fields.forEach(field -> columns.add(field.getName()));
+    }
+
+    public boolean contains(String column) {
+        return columns.contains(column);
+    }
+
+    /**
+     * @return keys of the records that are not known columns, in the order they are first seen
+     */
+    public Set<String> unknownColumns(List<Record> records) {
+        Set<String> unknown = new LinkedHashSet<>();
+        for (Record record : records) {
+            for (String key : record.getColumns().keySet()) {
+                if (!columns.contains(key)) {
+                    unknown.add(key);
+                }
+            }
+        }
+        return unknown;
+    }
+}
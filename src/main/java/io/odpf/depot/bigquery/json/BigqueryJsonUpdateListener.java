@@ -28,8 +28,18 @@ public class BigqueryJsonUpdateListener extends OdpfStencilUpdateListener {
     private final BigQuerySinkConfig config;
     private final BigQueryClient bigQueryClient;
     private final Instrumentation instrumentation;
+    private final BigqueryJsonKnownColumns knownColumns;
 
     public BigqueryJsonUpdateListener(BigQuerySinkConfig config, MessageRecordConverterCache converterCache, BigQueryClient bigQueryClient, Instrumentation instrumentation) {
+        this(config, converterCache, bigQueryClient, instrumentation, null);
+    }
+
+    /**
+     * @param knownColumns when not null, it is reset to the table columns on every schema update.
+     */
+    public BigqueryJsonUpdateListener(BigQuerySinkConfig config, MessageRecordConverterCache converterCache, BigQueryClient bigQueryClient,
+                                      Instrumentation instrumentation, BigqueryJsonKnownColumns knownColumns) {
+        this.knownColumns = knownColumns;
         this.converterCache = converterCache;
         this.config = config;
         this.bigQueryClient = bigQueryClient;
@@ -42,7 +52,7 @@ public class BigqueryJsonUpdateListener extends OdpfStencilUpdateListener {
     @Override
     public void updateSchema() {
         OdpfMessageParser parser = getOdpfMessageParser();
-        MessageRecordConverter messageRecordConverter = new MessageRecordConverter(parser, config, null);
+        MessageRecordConverter messageRecordConverter = new MessageRecordConverter(parser, config, null, converterCache.getConversionPool(), converterCache.getErrorReporter());
         converterCache.setMessageRecordConverter(messageRecordConverter);
         List<TupleString> defaultColumns = config.getSinkBigqueryDefaultColumns();
         HashSet<Field> fieldsToBeUpdated = defaultColumns
@@ -58,6 +68,9 @@ public class BigqueryJsonUpdateListener extends OdpfStencilUpdateListener {
             FieldList existingTableFields = existingTableSchema.getFields();
             existingTableFields.iterator().forEachRemaining(fieldsToBeUpdated::add);
             bigQueryClient.upsertTable(new ArrayList<>(fieldsToBeUpdated));
+            if (knownColumns != null) {
+                knownColumns.reset(fieldsToBeUpdated);
+            }
         } catch (BigQueryException e) {
             String errMsg = "Error while updating bigquery table in json update listener:" + e.getMessage();
             instrumentation.logError(errMsg);
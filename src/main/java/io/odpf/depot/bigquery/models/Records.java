@@ -14,4 +14,22 @@ import java.util.List;
 public class Records {
     private final List<Record> validRecords;
     private final List<Record> invalidRecords;
+    /**
+     * Version of the schema the records were converted with, 0 when unknown.
+     */
+    private final long schemaVersion;
+    /**
+     * Time spent converting the records, the write stages are added to it by the sink.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final StageTimings stageTimings;
+
+    public Records(List<Record> validRecords, List<Record> invalidRecords) {
+        this(validRecords, invalidRecords, 0);
+    }
+
+    public Records(List<Record> validRecords, List<Record> invalidRecords, long schemaVersion) {
+        this(validRecords, invalidRecords, schemaVersion, new StageTimings());
+    }
 }
@@ -0,0 +1,16 @@
+package io.odpf.depot.bigquery.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class RequestBatches {
+    private final List<List<Record>> batches;
+    /**
+     * Estimated size of all the rows of the batches, summed up while splitting them.
+     */
+    private final long estimatedBytes;
+}
@@ -0,0 +1,34 @@
+package io.odpf.depot.bigquery.models;
+
+import io.odpf.depot.metrics.BigQueryMetrics.BigQuerySinkStage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent in each stage of writing a batch, summed over all threads working on the batch.
+ */
+public class StageTimings {
+    private final LongAdder[] stageNanos = new LongAdder[BigQuerySinkStage.values().length];
+
+    public StageTimings() {
+        for (int i = 0; i < stageNanos.length; i++) {
+            stageNanos[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Adds the time from the given {@link System#nanoTime()} reading until now to the stage.
+     *
+     * @return the current nano time, to be used as start of the next stage
+     */
+    public long addSince(BigQuerySinkStage stage, long startNanos) {
+        long now = System.nanoTime();
+        stageNanos[stage.ordinal()].add(now - startNanos);
+        return now;
+    }
+
+    public long getMillis(BigQuerySinkStage stage) {
+        return TimeUnit.NANOSECONDS.toMillis(stageNanos[stage.ordinal()].sum());
+    }
+}
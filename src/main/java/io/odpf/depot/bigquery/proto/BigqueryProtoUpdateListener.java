@@ -16,35 +16,86 @@ import io.odpf.depot.message.proto.ProtoField;
 import io.odpf.depot.message.proto.ProtoOdpfMessageParser;
 import io.odpf.depot.message.proto.ProtoOdpfMessageSchema;
 import io.odpf.depot.stencil.OdpfStencilUpdateListener;
+import io.odpf.depot.utils.ThreadUtils;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class BigqueryProtoUpdateListener extends OdpfStencilUpdateListener {
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
     private final BigQuerySinkConfig config;
     private final BigQueryClient bqClient;
     @Getter
     private final MessageRecordConverterCache converterCache;
+    private final boolean asyncRefresh;
+    private final BigquerySchemaSnapshotStore snapshotStore;
+    private final ExecutorService refreshExecutor;
+    private final AtomicReference<Map<String, Descriptor>> pendingDescriptors = new AtomicReference<>();
+    /**
+     * Moves on every schema update, an update publishes its converter only while it is still the latest one.
+     */
+    private final AtomicLong updateGeneration = new AtomicLong();
+    private final Object publishLock = new Object();
 
     public BigqueryProtoUpdateListener(BigQuerySinkConfig config, BigQueryClient bqClient, MessageRecordConverterCache converterCache) {
         this.config = config;
         this.bqClient = bqClient;
         this.converterCache = converterCache;
+        this.asyncRefresh = config.isSinkBigquerySchemaRefreshAsyncEnable();
+        String snapshotPath = config.getSinkBigquerySchemaSnapshotPath();
+        this.snapshotStore = snapshotPath == null || snapshotPath.isEmpty() ? null : new BigquerySchemaSnapshotStore(Paths.get(snapshotPath));
+        this.refreshExecutor = asyncRefresh || snapshotStore != null ? Executors.newSingleThreadExecutor(ThreadUtils.daemonThreadFactory("bigquery-schema-refresh")) : null;
     }
 
+    /**
+     * Applies refreshed descriptors in the background when async schema refresh is enabled, the stencil refresh
+     * then returns right away. Refreshes arriving while one is pending are coalesced into the latest one.
+     */
     @Override
     public void onSchemaUpdate(Map<String, Descriptor> newDescriptors) {
+        long generation = updateGeneration.incrementAndGet();
+        if (asyncRefresh && newDescriptors != null) {
+            if (pendingDescriptors.getAndSet(newDescriptors) == null) {
+                refreshExecutor.submit(this::applyPendingSchemaUpdate);
+            }
+            return;
+        }
+        applySchemaUpdate(newDescriptors, generation);
+    }
+
+    private void applyPendingSchemaUpdate() {
+        Map<String, Descriptor> newDescriptors = pendingDescriptors.getAndSet(null);
+        try {
+            applySchemaUpdate(newDescriptors, updateGeneration.get());
+        } catch (RuntimeException e) {
+            log.error("Failed to apply refreshed schema, still converting with schema version {}", converterCache.getSchemaVersion(), e);
+        }
+    }
+
+    /**
+     * Updates the table before the new converter is swapped in, so records of the new schema are only produced
+     * once the table accepts them. Batches already converting keep the previous converter.
+     * An update overtaken by a newer one while it ran is dropped, so a slow refresh never replaces a newer schema.
+     *
+     * @param generation update generation the update was requested in
+     */
+    private void applySchemaUpdate(Map<String, Descriptor> newDescriptors, long generation) {
         log.info("stencil cache was refreshed, validating if bigquery schema changed");
         try {
-            SinkConnectorSchemaMessageMode mode = config.getSinkConnectorSchemaMessageMode();
-            String schemaClass = mode == SinkConnectorSchemaMessageMode.LOG_MESSAGE
-                    ? config.getSinkConnectorSchemaProtoMessageClass() : config.getSinkConnectorSchemaProtoKeyClass();
+            String schemaClass = getSchemaClass();
             ProtoOdpfMessageParser odpfMessageParser = (ProtoOdpfMessageParser) getOdpfMessageParser();
             OdpfMessageSchema schema;
             if (newDescriptors == null) {
@@ -55,8 +106,25 @@ public class BigqueryProtoUpdateListener extends OdpfStencilUpdateListener {
             ProtoField protoField = ((ProtoOdpfMessageSchema) schema).getProtoField();
             List<Field> bqSchemaFields = BigqueryFields.generateBigquerySchema(protoField);
             addMetadataFields(bqSchemaFields);
+            if (isSuperseded(generation)) {
+                return;
+            }
             bqClient.upsertTable(bqSchemaFields);
-            converterCache.setMessageRecordConverter(new MessageRecordConverter(odpfMessageParser, config, schema));
+            MessageRecordConverter converter = new MessageRecordConverter(odpfMessageParser, config, schema, converterCache.getConversionPool(), converterCache.getErrorReporter());
+            synchronized (publishLock) {
+                if (isSuperseded(generation)) {
+                    return;
+                }
+                converterCache.setMessageRecordConverter(converter);
+            }
+            log.info("bigquery schema applied as version {}", converterCache.getSchemaVersion());
+            if (snapshotStore != null) {
+                Descriptor descriptor = (newDescriptors == null ? odpfMessageParser.getDescriptorMap() : newDescriptors).get(schemaClass);
+                if (descriptor != null) {
+                    snapshotStore.save(new BigquerySchemaSnapshot(
+                            BigquerySchemaSnapshot.fingerprint(descriptor, getSnapshotSettings()), protoField, schema.getSchema(), bqSchemaFields));
+                }
+            }
         } catch (BigQueryException | IOException e) {
             String errMsg = "Error while updating bigquery table on callback:" + e.getMessage();
             log.error(errMsg);
@@ -64,11 +132,73 @@ public class BigqueryProtoUpdateListener extends OdpfStencilUpdateListener {
         }
     }
 
+    /**
+     * Serves the schema from the snapshot when its descriptors are unchanged, the table metadata is then read and the
+     * table and the schema are checked against stencil in the background. Without a usable snapshot the schema is
+     * applied before returning.
+     */
     @Override
     public void updateSchema() {
+        if (snapshotStore != null && applySnapshot()) {
+            long generation = updateGeneration.incrementAndGet();
+            refreshExecutor.submit(() -> applySchemaUpdateAfterSnapshot(generation));
+            return;
+        }
+        if (snapshotStore != null) {
+            bqClient.prefetchMetadata();
+        }
         onSchemaUpdate(null);
     }
 
+    private boolean applySnapshot() {
+        Optional<BigquerySchemaSnapshot> snapshot = snapshotStore.load();
+        if (!snapshot.isPresent()) {
+            return false;
+        }
+        ProtoOdpfMessageParser odpfMessageParser = (ProtoOdpfMessageParser) getOdpfMessageParser();
+        Descriptor descriptor = odpfMessageParser.getDescriptorMap().get(getSchemaClass());
+        if (descriptor == null || !BigquerySchemaSnapshot.fingerprint(descriptor, getSnapshotSettings()).equals(snapshot.get().getFingerprint())) {
+            log.info("schema snapshot does not match the current descriptors, building the schema from stencil");
+            return false;
+        }
+        try {
+            OdpfMessageSchema schema = new ProtoOdpfMessageSchema(snapshot.get().getProtoField(), snapshot.get().getColumnMapping());
+            converterCache.setMessageRecordConverter(new MessageRecordConverter(odpfMessageParser, config, schema, converterCache.getConversionPool(), converterCache.getErrorReporter()));
+        } catch (IOException e) {
+            log.warn("Failed to use schema snapshot, building the schema from stencil", e);
+            return false;
+        }
+        log.info("bigquery schema served from snapshot as version {}", converterCache.getSchemaVersion());
+        return true;
+    }
+
+    private void applySchemaUpdateAfterSnapshot(long generation) {
+        try {
+            bqClient.prefetchMetadata();
+            applySchemaUpdate(null, generation);
+        } catch (RuntimeException e) {
+            log.error("Failed to check the table against the schema snapshot, still converting with schema version {}", converterCache.getSchemaVersion(), e);
+        }
+    }
+
+    private boolean isSuperseded(long generation) {
+        if (updateGeneration.get() == generation) {
+            return false;
+        }
+        log.info("schema update overtaken by a newer one, keeping schema version {}", converterCache.getSchemaVersion());
+        return true;
+    }
+
+    private String getSchemaClass() {
+        SinkConnectorSchemaMessageMode mode = config.getSinkConnectorSchemaMessageMode();
+        return mode == SinkConnectorSchemaMessageMode.LOG_MESSAGE
+                ? config.getSinkConnectorSchemaProtoMessageClass() : config.getSinkConnectorSchemaProtoKeyClass();
+    }
+
+    private String getSnapshotSettings() {
+        return String.format("%s|%s|%s", config.shouldAddMetadata(), config.getBqMetadataNamespace(), config.getMetadataColumnsTypes());
+    }
+
     private void addMetadataFields(List<Field> bqSchemaFields) {
         List<Field> bqMetadataFields = new ArrayList<>();
         String namespaceName = config.getBqMetadataNamespace();
@@ -89,7 +219,23 @@ public class BigqueryProtoUpdateListener extends OdpfStencilUpdateListener {
         bqSchemaFields.addAll(bqMetadataFields);
     }
 
+    /**
+     * Lets a running refresh finish, so it does not stop half way through a table update.
+     */
+    @Override
     public void close() throws IOException {
+        if (refreshExecutor == null) {
+            return;
+        }
+        refreshExecutor.shutdown();
+        try {
+            if (!refreshExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                refreshExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            refreshExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
     }
 
     private List<Field> getDuplicateFields(List<Field> fields1, List<Field> fields2) {
@@ -0,0 +1,62 @@
+package io.odpf.depot.bigquery.proto;
+
+import com.google.cloud.bigquery.Field;
+import com.google.protobuf.Descriptors;
+import io.odpf.depot.message.proto.ProtoField;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Schema state needed to serve messages right after startup: the parsed proto fields, their column mapping and the
+ * bigquery fields they were applied to the table with, keyed by a fingerprint of the descriptors they were built from.
+ */
+@AllArgsConstructor
+@Getter
+public class BigquerySchemaSnapshot implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String fingerprint;
+    private final ProtoField protoField;
+    private final Properties columnMapping;
+    private final List<Field> bqSchemaFields;
+
+    /**
+     * Fingerprint of the message descriptor with every proto file it depends on, and of the sink settings that
+     * change the generated fields.
+     */
+    public static String fingerprint(Descriptors.Descriptor descriptor, String settings) {
+        TreeMap<String, Descriptors.FileDescriptor> files = new TreeMap<>();
+        Deque<Descriptors.FileDescriptor> toVisit = new ArrayDeque<>();
+        toVisit.push(descriptor.getFile());
+        while (!toVisit.isEmpty()) {
+            Descriptors.FileDescriptor file = toVisit.pop();
+            if (files.put(file.getName(), file) == null) {
+                file.getDependencies().forEach(toVisit::push);
+            }
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        files.values().forEach(file -> digest.update(file.toProto().toByteArray()));
+        digest.update(descriptor.getFullName().getBytes(StandardCharsets.UTF_8));
+        digest.update(settings.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
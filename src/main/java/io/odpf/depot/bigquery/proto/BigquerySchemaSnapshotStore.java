@@ -0,0 +1,52 @@
+package io.odpf.depot.bigquery.proto;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Keeps the last applied {@link BigquerySchemaSnapshot} in a local file.
+ * The file is replaced atomically, a missing or unreadable file is treated as no snapshot.
+ */
+@Slf4j
+public class BigquerySchemaSnapshotStore {
+    private final Path path;
+
+    public BigquerySchemaSnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    public Optional<BigquerySchemaSnapshot> load() {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try (InputStream file = Files.newInputStream(path); ObjectInputStream in = new ObjectInputStream(file)) {
+            return Optional.of((BigquerySchemaSnapshot) in.readObject());
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("Ignoring unreadable schema snapshot {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    public void save(BigquerySchemaSnapshot snapshot) {
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (OutputStream file = Files.newOutputStream(tmp); ObjectOutputStream out = new ObjectOutputStream(file)) {
+                out.writeObject(snapshot);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to save schema snapshot {}", path, e);
+        }
+    }
+}
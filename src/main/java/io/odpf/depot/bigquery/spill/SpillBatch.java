@@ -0,0 +1,15 @@
+package io.odpf.depot.bigquery.spill;
+
+import io.odpf.depot.bigquery.models.Record;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class SpillBatch {
+    private final Instant appendedAt;
+    private final List<Record> records;
+}
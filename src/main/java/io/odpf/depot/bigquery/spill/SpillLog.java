@@ -0,0 +1,284 @@
+package io.odpf.depot.bigquery.spill;
+
+import io.odpf.depot.bigquery.models.Record;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Append-only log of record batches on local disk, split into memory-mapped segment files.
+ * Every appended batch is forced to disk before append returns. Segments are read back oldest first and deleted
+ * once replayed, segments left by an earlier run are picked up when the log is opened.
+ * The log holds a lock on its directory while open, so two logs never append to the same segments.
+ * A segment that cannot be read back is moved aside as a {@code quarantined-} file, kept for inspection and never read again.
+ * <p>
+ * An entry is the batch length, its append time in epoch millis and the serialized batch. A zero length marks the
+ * end of the entries in a segment.
+ */
+public class SpillLog implements Closeable {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String QUARANTINE_PREFIX = "quarantined-";
+    private static final String LOCK_FILE = "spill.lock";
+    private static final int ENTRY_HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final TreeMap<Long, SegmentInfo> segments = new TreeMap<>();
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private long nextSequence;
+    private long activeSequence = -1;
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+
+    public SpillLog(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = tryLock(lockChannel);
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Spill directory " + directory + " is used by another spill log");
+        }
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            lock.release();
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    public synchronized void append(List<Record> records) throws IOException {
+        byte[] payload = serialize(records);
+        int entryBytes = ENTRY_HEADER_BYTES + payload.length;
+        if (activeBuffer == null || activeBuffer.remaining() < entryBytes) {
+            roll(entryBytes);
+        }
+        long now = System.currentTimeMillis();
+        activeBuffer.putInt(payload.length);
+        activeBuffer.putLong(now);
+        activeBuffer.put(payload);
+        activeBuffer.force();
+        SegmentInfo info = segments.get(activeSequence);
+        info.bytes += entryBytes;
+        if (info.firstEntryMillis == 0) {
+            info.firstEntryMillis = now;
+        }
+    }
+
+    /**
+     * Oldest segment with its batches, the active segment is sealed first when it is the only one left.
+     */
+    public synchronized SpillSegment readOldest() throws IOException {
+        if (segments.isEmpty()) {
+            return null;
+        }
+        long sequence = segments.firstKey();
+        if (sequence == activeSequence) {
+            seal();
+        }
+        return new SpillSegment(sequence, read(segmentPath(sequence)));
+    }
+
+    /**
+     * Moves the oldest segment out of the log, for a segment {@link #readOldest} cannot read.
+     *
+     * @return the file the segment was moved to, null when the log is empty
+     */
+    public synchronized Path quarantineOldest() throws IOException {
+        if (segments.isEmpty()) {
+            return null;
+        }
+        long sequence = segments.firstKey();
+        if (sequence == activeSequence) {
+            seal();
+        }
+        Path quarantined = directory.resolve(QUARANTINE_PREFIX + segmentPath(sequence).getFileName());
+        Files.move(segmentPath(sequence), quarantined, StandardCopyOption.REPLACE_EXISTING);
+        segments.remove(sequence);
+        return quarantined;
+    }
+
+    public synchronized void delete(long sequence) throws IOException {
+        if (sequence == activeSequence) {
+            seal();
+        }
+        if (segments.remove(sequence) != null) {
+            Files.deleteIfExists(segmentPath(sequence));
+        }
+    }
+
+    public synchronized long sizeBytes() {
+        return segments.values().stream().mapToLong(info -> info.bytes).sum();
+    }
+
+    /**
+     * Append time of the oldest batch still in the log, null when the log is empty.
+     */
+    public synchronized Instant oldestEntryTime() {
+        return segments.values().stream()
+                .filter(info -> info.firstEntryMillis > 0)
+                .findFirst()
+                .map(info -> Instant.ofEpochMilli(info.firstEntryMillis))
+                .orElse(null);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!lockChannel.isOpen()) {
+            return;
+        }
+        try {
+            seal();
+        } finally {
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                long sequence = sequenceOf(file);
+                SegmentInfo info = scan(file);
+                if (info.bytes == 0) {
+                    Files.delete(file);
+                    continue;
+                }
+                segments.put(sequence, info);
+                nextSequence = Math.max(nextSequence, sequence + 1);
+            }
+        }
+    }
+
+    private void roll(int entryBytes) throws IOException {
+        seal();
+        activeSequence = nextSequence++;
+        activeChannel = FileChannel.open(segmentPath(activeSequence), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, entryBytes + Integer.BYTES));
+        segments.put(activeSequence, new SegmentInfo());
+    }
+
+    private void seal() throws IOException {
+        if (activeChannel == null) {
+            return;
+        }
+        activeBuffer.force();
+        activeChannel.close();
+        activeChannel = null;
+        activeBuffer = null;
+        activeSequence = -1;
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static SegmentInfo scan(Path file) throws IOException {
+        SegmentInfo info = new SegmentInfo();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= ENTRY_HEADER_BYTES) {
+                int length = buffer.getInt();
+                long appendedAt = buffer.getLong();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                if (info.firstEntryMillis == 0) {
+                    info.firstEntryMillis = appendedAt;
+                }
+                buffer.position(buffer.position() + length);
+                info.bytes += ENTRY_HEADER_BYTES + length;
+            }
+        }
+        return info;
+    }
+
+    private static List<SpillBatch> read(Path file) throws IOException {
+        List<SpillBatch> batches = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= ENTRY_HEADER_BYTES) {
+                int length = buffer.getInt();
+                long appendedAt = buffer.getLong();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                batches.add(new SpillBatch(Instant.ofEpochMilli(appendedAt), deserialize(payload)));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Could not read spill segment " + file, e);
+        }
+        return batches;
+    }
+
+    private static byte[] serialize(List<Record> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeInt(records.size());
+            for (Record record : records) {
+                out.writeObject(record.getMetadata() == null ? null : new HashMap<>(record.getMetadata()));
+                out.writeObject(new HashMap<>(record.getColumns()));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Record> deserialize(byte[] payload) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            int size = in.readInt();
+            List<Record> records = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Map<String, Object> metadata = (Map<String, Object>) in.readObject();
+                Map<String, Object> columns = (Map<String, Object>) in.readObject();
+                records.add(new Record(metadata, columns, i, null));
+            }
+            return records;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Could not read spilled records", e);
+        }
+    }
+
+    private static final class SegmentInfo {
+        private long bytes;
+        private long firstEntryMillis;
+    }
+}
@@ -0,0 +1,202 @@
+package io.odpf.depot.bigquery.spill;
+
+import com.google.cloud.bigquery.InsertAllRequest;
+import com.google.cloud.bigquery.InsertAllResponse;
+import io.odpf.depot.bigquery.client.BigQueryClient;
+import io.odpf.depot.bigquery.client.BigQueryResponseParser;
+import io.odpf.depot.bigquery.client.BigQueryRow;
+import io.odpf.depot.bigquery.models.Record;
+import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.error.ErrorType;
+import io.odpf.depot.metrics.BigQueryMetrics;
+import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.StatsDMetric;
+import io.odpf.depot.utils.ThreadUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the {@link SpillLog} back into the table through insertAll, oldest batch first.
+ * A batch that fails with a transient error stops the run and is retried on the next one, so batches are replayed
+ * in order and a segment is deleted only once all its batches went through. Rows rejected by bigquery for any other
+ * reason cannot be returned to the consumer any more, each is logged and counted and they are appended to the dead
+ * letter log, the rows of the batch stopped by them are sent again right away. A segment that cannot be read is
+ * quarantined and counted, so the segments after it are still replayed.
+ */
+public class SpillReplayer implements Runnable, Closeable {
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+    private final SpillLog spillLog;
+    private final SpillLog deadLetterLog;
+    private final BigQueryClient bigQueryClient;
+    private final BigQueryRow rowCreator;
+    private final BigQueryMetrics bigQueryMetrics;
+    private final Instrumentation instrumentation;
+    private final long intervalMillis;
+    private final BigQueryResponseParser responseParser;
+    private final StatsDMetric replayRecordsMetric;
+    private final StatsDMetric replayLatencyMetric;
+    private final StatsDMetric replayRejectedRecordsMetric;
+    private final StatsDMetric replayQuarantinedSegmentsMetric;
+    private final StatsDMetric spillSizeBytesMetric;
+    private final StatsDMetric spillAgeMetric;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(ThreadUtils.daemonThreadFactory("bigquery-spill-replay"));
+    private SpillSegment currentSegment;
+    private int nextBatch;
+    private List<Record> pendingRecords;
+
+    public SpillReplayer(SpillLog spillLog, BigQueryClient bigQueryClient, BigQueryRow rowCreator, BigQueryMetrics bigQueryMetrics, Instrumentation instrumentation, long intervalMillis) {
+        this(spillLog, null, bigQueryClient, rowCreator, bigQueryMetrics, instrumentation, intervalMillis);
+    }
+
+    /**
+     * @param deadLetterLog when not null, rows rejected by bigquery on replay are appended to it, it is never replayed.
+     */
+    public SpillReplayer(SpillLog spillLog, SpillLog deadLetterLog, BigQueryClient bigQueryClient, BigQueryRow rowCreator, BigQueryMetrics bigQueryMetrics,
+                         Instrumentation instrumentation, long intervalMillis) {
+        this.spillLog = spillLog;
+        this.deadLetterLog = deadLetterLog;
+        this.bigQueryClient = bigQueryClient;
+        this.rowCreator = rowCreator;
+        this.bigQueryMetrics = bigQueryMetrics;
+        this.instrumentation = instrumentation;
+        this.intervalMillis = intervalMillis;
+        this.responseParser = new BigQueryResponseParser(bigQueryMetrics, instrumentation, bigQueryClient.getTableID());
+        String tableTag = String.format(BigQueryMetrics.BIGQUERY_TABLE_TAG, bigQueryClient.getTableID().getTable());
+        String datasetTag = String.format(BigQueryMetrics.BIGQUERY_DATASET_TAG, bigQueryClient.getTableID().getDataset());
+        this.replayRecordsMetric = instrumentation.metric(bigQueryMetrics.getBigqueryReplayRecordsTotalMetric(), tableTag, datasetTag);
+        this.replayLatencyMetric = instrumentation.metric(bigQueryMetrics.getBigqueryReplayLatencyMetric(), tableTag, datasetTag);
+        this.replayRejectedRecordsMetric = instrumentation.metric(bigQueryMetrics.getBigqueryReplayRejectedRecordsTotalMetric(), tableTag, datasetTag);
+        this.replayQuarantinedSegmentsMetric = instrumentation.metric(bigQueryMetrics.getBigqueryReplayQuarantinedSegmentsTotalMetric(), tableTag, datasetTag);
+        this.spillSizeBytesMetric = instrumentation.metric(bigQueryMetrics.getBigquerySpillSizeBytesMetric(), tableTag, datasetTag);
+        this.spillAgeMetric = instrumentation.metric(bigQueryMetrics.getBigquerySpillAgeMetric(), tableTag, datasetTag);
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void run() {
+        try {
+            while (replayOldestSegment()) {
+                currentSegment = null;
+            }
+        } catch (IOException | RuntimeException e) {
+            instrumentation.captureNonFatalError(bigQueryMetrics.getErrorEventMetric(), e, "Failed to replay spilled records");
+        } finally {
+            captureSpillGauges();
+        }
+    }
+
+    /**
+     * @return whether a whole segment was replayed and deleted, or quarantined because it could not be read
+     */
+    private boolean replayOldestSegment() throws IOException {
+        if (currentSegment == null) {
+            try {
+                currentSegment = spillLog.readOldest();
+            } catch (IOException e) {
+                quarantineOldestSegment(e);
+                return true;
+            }
+            nextBatch = 0;
+            pendingRecords = null;
+            if (currentSegment == null) {
+                return false;
+            }
+        }
+        List<SpillBatch> batches = currentSegment.getBatches();
+        for (; nextBatch < batches.size(); nextBatch++) {
+            if (!replay(batches.get(nextBatch))) {
+                return false;
+            }
+        }
+        spillLog.delete(currentSegment.getSequence());
+        instrumentation.logInfo("Replayed spilled segment {}", currentSegment.getSequence());
+        return true;
+    }
+
+    /**
+     * Moves aside a segment that cannot be read, it would otherwise fail every run and block the segments after it.
+     */
+    private void quarantineOldestSegment(IOException readFailure) throws IOException {
+        Path quarantined = spillLog.quarantineOldest();
+        instrumentation.logError("Spilled segment could not be read and was moved to {}: {}", quarantined, readFailure.getMessage());
+        replayQuarantinedSegmentsMetric.increment();
+    }
+
+    private boolean replay(SpillBatch batch) throws IOException {
+        Instant start = Instant.now();
+        List<Record> records = pendingRecords == null ? batch.getRecords() : pendingRecords;
+        while (!records.isEmpty()) {
+            pendingRecords = records;
+            InsertAllRequest.Builder builder = InsertAllRequest.newBuilder(bigQueryClient.getTableID());
+            records.forEach(record -> builder.addRow(rowCreator.of(record)));
+            InsertAllResponse response = bigQueryClient.insertAll(builder.build());
+            if (!response.hasErrors()) {
+                break;
+            }
+            Map<Long, ErrorInfo> errors = responseParser.parseAndFillOdpfSinkResponse(records, response);
+            Map<Long, Record> recordsByIndex = new HashMap<>();
+            records.forEach(record -> recordsByIndex.put(record.getIndex(), record));
+            List<Record> rejected = new ArrayList<>();
+            List<Record> stopped = new ArrayList<>();
+            errors.forEach((index, errorInfo) -> (errorInfo.getErrorType() == ErrorType.SINK_5XX_ERROR ? stopped : rejected).add(recordsByIndex.get(index)));
+            if (rejected.isEmpty()) {
+                instrumentation.logWarn("Replay of {} spilled records failed with transient errors, retrying later", records.size());
+                return false;
+            }
+            deadLetter(rejected, errors);
+            records = stopped;
+        }
+        pendingRecords = null;
+        replayRecordsMetric.count(batch.getRecords().size());
+        replayLatencyMetric.durationSince(start);
+        return true;
+    }
+
+    private void deadLetter(List<Record> rejected, Map<Long, ErrorInfo> errors) throws IOException {
+        for (Record record : rejected) {
+            instrumentation.logError("Spilled record rejected by bigquery with {}. Record: {}, MetaData: {}",
+                    errors.get(record.getIndex()).getErrorType(), record.getColumns(), record.getMetadata());
+        }
+        if (deadLetterLog != null) {
+            deadLetterLog.append(rejected);
+        }
+        replayRejectedRecordsMetric.count(rejected.size());
+    }
+
+    private void captureSpillGauges() {
+        spillSizeBytesMetric.gauge((int) Math.min(Integer.MAX_VALUE, spillLog.sizeBytes()));
+        Instant oldest = spillLog.oldestEntryTime();
+        long ageMillis = oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis();
+        spillAgeMetric.gauge((int) Math.min(Integer.MAX_VALUE, ageMillis));
+    }
+
+    /**
+     * Stops the replayer and waits for a running replay, so the spill logs can be closed after it.
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+        try {
+            if (!scheduler.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                instrumentation.logWarn("Spill replay still running after {} seconds on close", CLOSE_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        responseParser.close();
+    }
+}
@@ -0,0 +1,13 @@
+package io.odpf.depot.bigquery.spill;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class SpillSegment {
+    private final long sequence;
+    private final List<SpillBatch> batches;
+}
@@ -0,0 +1,199 @@
+package io.odpf.depot.bigquery.storage;
+
+import com.google.api.client.util.DateTime;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import io.odpf.depot.bigquery.exception.BQSchemaMappingException;
+import io.odpf.depot.bigquery.exception.BQStorageRowConversionException;
+import lombok.Getter;
+
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Protobuf representation of a bigquery table row, used to serialize {@link io.odpf.depot.bigquery.models.Record}
+ * columns for the storage write api.
+ * The descriptor is derived from the table schema, every RECORD column becomes a nested message type.
+ */
+public class BigQueryProtoRowSchema {
+    private static final String ROW_MESSAGE_NAME = "BigQueryRow";
+    private static final String NESTED_MESSAGE_SUFFIX = "_Record";
+    private static final long MICROS_PER_MILLI = 1000L;
+    private static final double MICROS_PER_SECOND = 1_000_000d;
+
+    @Getter
+    private final Schema tableSchema;
+    @Getter
+    private final DescriptorProtos.DescriptorProto descriptorProto;
+    private final Descriptors.Descriptor descriptor;
+    private final Set<Descriptors.FieldDescriptor> timestampFields = new HashSet<>();
+
+    private BigQueryProtoRowSchema(Schema tableSchema, DescriptorProtos.DescriptorProto descriptorProto, Descriptors.Descriptor descriptor) {
+        this.tableSchema = tableSchema;
+        this.descriptorProto = descriptorProto;
+        this.descriptor = descriptor;
+        collectTimestampFields(descriptor, tableSchema.getFields());
+    }
+
+    public static BigQueryProtoRowSchema of(Schema tableSchema) {
+        DescriptorProtos.DescriptorProto rowProto = toDescriptorProto(ROW_MESSAGE_NAME, tableSchema.getFields());
+        DescriptorProtos.FileDescriptorProto fileProto = DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName(ROW_MESSAGE_NAME + ".proto")
+                .addMessageType(rowProto)
+                .build();
+        try {
+            Descriptors.FileDescriptor fileDescriptor = Descriptors.FileDescriptor.buildFrom(fileProto, new Descriptors.FileDescriptor[0]);
+            return new BigQueryProtoRowSchema(tableSchema, rowProto, fileDescriptor.findMessageTypeByName(ROW_MESSAGE_NAME));
+        } catch (Descriptors.DescriptorValidationException e) {
+            throw new BQSchemaMappingException(String.format("Unable to build storage write row descriptor: %s", e.getMessage()));
+        }
+    }
+
+    private void collectTimestampFields(Descriptors.Descriptor messageDescriptor, FieldList fields) {
+        if (fields == null) {
+            return;
+        }
+        for (Field field : fields) {
+            Descriptors.FieldDescriptor fieldDescriptor = messageDescriptor.findFieldByName(field.getName());
+            if (field.getType().getStandardType() == StandardSQLTypeName.TIMESTAMP) {
+                timestampFields.add(fieldDescriptor);
+            } else if (field.getType().getStandardType() == StandardSQLTypeName.STRUCT) {
+                collectTimestampFields(fieldDescriptor.getMessageType(), field.getSubFields());
+            }
+        }
+    }
+
+    public ByteString serialize(Map<String, Object> columns) {
+        return toMessage(descriptor, columns).toByteString();
+    }
+
+    private static DescriptorProtos.DescriptorProto toDescriptorProto(String name, FieldList fields) {
+        DescriptorProtos.DescriptorProto.Builder message = DescriptorProtos.DescriptorProto.newBuilder().setName(name);
+        if (fields == null) {
+            return message.build();
+        }
+        int number = 1;
+        for (Field field : fields) {
+            DescriptorProtos.FieldDescriptorProto.Builder protoField = DescriptorProtos.FieldDescriptorProto.newBuilder()
+                    .setName(field.getName())
+                    .setNumber(number++)
+                    .setLabel(field.getMode() == Field.Mode.REPEATED
+                            ? DescriptorProtos.FieldDescriptorProto.Label.LABEL_REPEATED
+                            : DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL);
+            DescriptorProtos.FieldDescriptorProto.Type type = toProtoType(field);
+            protoField.setType(type);
+            if (type == DescriptorProtos.FieldDescriptorProto.Type.TYPE_MESSAGE) {
+                String nestedName = field.getName() + NESTED_MESSAGE_SUFFIX;
+                message.addNestedType(toDescriptorProto(nestedName, field.getSubFields()));
+                protoField.setTypeName(nestedName);
+            }
+            message.addField(protoField);
+        }
+        return message.build();
+    }
+
+    /**
+     * Storage write api accepts int64 epoch micros for TIMESTAMP and the canonical string form for
+     * DATE, TIME, DATETIME, NUMERIC and GEOGRAPHY columns.
+     */
+    private static DescriptorProtos.FieldDescriptorProto.Type toProtoType(Field field) {
+        switch (field.getType().getStandardType()) {
+            case BOOL:
+                return DescriptorProtos.FieldDescriptorProto.Type.TYPE_BOOL;
+            case INT64:
+            case TIMESTAMP:
+                return DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT64;
+            case FLOAT64:
+                return DescriptorProtos.FieldDescriptorProto.Type.TYPE_DOUBLE;
+            case BYTES:
+                return DescriptorProtos.FieldDescriptorProto.Type.TYPE_BYTES;
+            case STRUCT:
+                return DescriptorProtos.FieldDescriptorProto.Type.TYPE_MESSAGE;
+            default:
+                return DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private DynamicMessage toMessage(Descriptors.Descriptor messageDescriptor, Map<String, Object> columns) {
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(messageDescriptor);
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            if (column.getValue() == null) {
+                continue;
+            }
+            Descriptors.FieldDescriptor fieldDescriptor = messageDescriptor.findFieldByName(column.getKey());
+            if (fieldDescriptor == null) {
+                throw new BQStorageRowConversionException(String.format("no such field: %s", column.getKey()), true);
+            }
+            if (fieldDescriptor.isRepeated() && column.getValue() instanceof Collection) {
+                for (Object element : (Collection<Object>) column.getValue()) {
+                    if (element != null) {
+                        builder.addRepeatedField(fieldDescriptor, toFieldValue(fieldDescriptor, element));
+                    }
+                }
+            } else if (fieldDescriptor.isRepeated()) {
+                builder.addRepeatedField(fieldDescriptor, toFieldValue(fieldDescriptor, column.getValue()));
+            } else {
+                builder.setField(fieldDescriptor, toFieldValue(fieldDescriptor, column.getValue()));
+            }
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object toFieldValue(Descriptors.FieldDescriptor fieldDescriptor, Object value) {
+        try {
+            switch (fieldDescriptor.getJavaType()) {
+                case MESSAGE:
+                    return toMessage(fieldDescriptor.getMessageType(), (Map<String, Object>) value);
+                case LONG:
+                    return timestampFields.contains(fieldDescriptor) ? toEpochMicros(value) : toLong(value);
+                case DOUBLE:
+                    return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+                case BOOLEAN:
+                    return value instanceof Boolean ? value : Boolean.parseBoolean(value.toString());
+                case BYTE_STRING:
+                    return toByteString(value);
+                default:
+                    return value.toString();
+            }
+        } catch (ClassCastException | IllegalArgumentException e) {
+            throw new BQStorageRowConversionException(String.format("invalid value for field %s: %s", fieldDescriptor.getName(), e.getMessage()), e);
+        }
+    }
+
+    private static long toEpochMicros(Object value) {
+        if (value instanceof DateTime) {
+            return ((DateTime) value).getValue() * MICROS_PER_MILLI;
+        }
+        if (value instanceof Number) {
+            // insertAll treats numeric timestamps as seconds since epoch
+            return Math.round(((Number) value).doubleValue() * MICROS_PER_SECOND);
+        }
+        return DateTime.parseRfc3339(value.toString()).getValue() * MICROS_PER_MILLI;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+    }
+
+    private static ByteString toByteString(Object value) {
+        if (value instanceof ByteString) {
+            return (ByteString) value;
+        }
+        if (value instanceof byte[]) {
+            return ByteString.copyFrom((byte[]) value);
+        }
+        // bytes columns are base64 encoded strings, same as the insertAll json payload
+        return ByteString.copyFrom(Base64.getDecoder().decode(value.toString()));
+    }
+}
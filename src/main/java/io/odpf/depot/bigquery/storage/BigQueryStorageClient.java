@@ -0,0 +1,175 @@
+package io.odpf.depot.bigquery.storage;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.bigquery.storage.v1.AppendRowsRequest;
+import com.google.cloud.bigquery.storage.v1.AppendRowsResponse;
+import com.google.cloud.bigquery.storage.v1.BigQueryWriteGrpc;
+import com.google.cloud.bigquery.storage.v1.ProtoRows;
+import com.google.cloud.bigquery.storage.v1.ProtoSchema;
+import com.google.protobuf.DescriptorProtos;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.auth.MoreCallCredentials;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.odpf.depot.config.BigQuerySinkConfig;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thin gRPC client for the bigquery storage write api.
+ * Rows are appended to the table's default stream over a single long-lived bidirectional AppendRows call,
+ * responses arrive in request order and complete the matching future.
+ * A broken connection fails all of its in-flight appends and the next append opens a new one.
+ */
+public class BigQueryStorageClient implements Closeable {
+    private static final String BIGQUERY_SCOPE = "https://www.googleapis.com/auth/bigquery";
+    private static final String DEFAULT_STREAM_FORMAT = "projects/%s/datasets/%s/tables/%s/_default";
+    private static final Metadata.Key<String> REQUEST_PARAMS_HEADER = Metadata.Key.of("x-goog-request-params", Metadata.ASCII_STRING_MARSHALLER);
+    private static final long CHANNEL_SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final ManagedChannel channel;
+    private final BigQueryWriteGrpc.BigQueryWriteStub stub;
+    @Getter
+    private final String streamName;
+    private Connection connection;
+
+    public BigQueryStorageClient(BigQuerySinkConfig config) throws IOException {
+        this(config, readCredentials(config.getBigQueryCredentialPath()));
+    }
+
+    /**
+     * @param credentials service account credentials, e.g. the ones shared by {@link io.odpf.depot.bigquery.BigQuerySinkResources}
+     */
+    public BigQueryStorageClient(BigQuerySinkConfig config, GoogleCredentials credentials) {
+        this(ManagedChannelBuilder.forTarget(config.getBigQueryStorageWriteEndpoint()).build(),
+                defaultStreamName(config),
+                credentials.createScoped(BIGQUERY_SCOPE));
+    }
+
+    public BigQueryStorageClient(ManagedChannel channel, String streamName) {
+        this(channel, streamName, null);
+    }
+
+    private BigQueryStorageClient(ManagedChannel channel, String streamName, GoogleCredentials credentials) {
+        this.channel = channel;
+        this.streamName = streamName;
+        Metadata headers = new Metadata();
+        headers.put(REQUEST_PARAMS_HEADER, "write_stream=" + urlEncode(streamName));
+        BigQueryWriteGrpc.BigQueryWriteStub writeStub = BigQueryWriteGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+        this.stub = credentials == null ? writeStub : writeStub.withCallCredentials(MoreCallCredentials.from(credentials));
+    }
+
+    public static String defaultStreamName(BigQuerySinkConfig config) {
+        return String.format(DEFAULT_STREAM_FORMAT, config.getGCloudProjectID(), config.getDatasetName(), config.getTableName());
+    }
+
+    /**
+     * Appends serialized rows. The writer schema is only sent when the connection is new or the schema changed.
+     */
+    public synchronized CompletableFuture<AppendRowsResponse> append(DescriptorProtos.DescriptorProto schema, ProtoRows rows) {
+        if (connection == null || connection.closed) {
+            connection = new Connection();
+            connection.requests = stub.appendRows(connection);
+        }
+        AppendRowsRequest.ProtoData.Builder data = AppendRowsRequest.ProtoData.newBuilder().setRows(rows);
+        if (!schema.equals(connection.schema)) {
+            data.setWriterSchema(ProtoSchema.newBuilder().setProtoDescriptor(schema));
+            connection.schema = schema;
+        }
+        CompletableFuture<AppendRowsResponse> future = new CompletableFuture<>();
+        connection.pending.add(future);
+        try {
+            connection.requests.onNext(AppendRowsRequest.newBuilder()
+                    .setWriteStream(streamName)
+                    .setProtoRows(data)
+                    .build());
+        } catch (RuntimeException e) {
+            connection.pending.remove(future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (connection != null && !connection.closed) {
+                connection.requests.onCompleted();
+            }
+        }
+        channel.shutdown();
+        try {
+            channel.awaitTermination(CHANNEL_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing storage write channel", e);
+        }
+    }
+
+    private static GoogleCredentials readCredentials(String credentialPath) throws IOException {
+        try (InputStream stream = new FileInputStream(credentialPath)) {
+            return GoogleCredentials.fromStream(stream);
+        }
+    }
+
+    private static String urlEncode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final class Connection implements StreamObserver<AppendRowsResponse> {
+        private final Deque<CompletableFuture<AppendRowsResponse>> pending = new ArrayDeque<>();
+        private StreamObserver<AppendRowsRequest> requests;
+        private DescriptorProtos.DescriptorProto schema;
+        private boolean closed;
+
+        @Override
+        public void onNext(AppendRowsResponse response) {
+            CompletableFuture<AppendRowsResponse> future;
+            synchronized (BigQueryStorageClient.this) {
+                future = pending.poll();
+            }
+            if (future != null) {
+                future.complete(response);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            failPending(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            failPending(new IllegalStateException("append rows stream was closed by the server"));
+        }
+
+        private void failPending(Throwable t) {
+            List<CompletableFuture<AppendRowsResponse>> failed;
+            synchronized (BigQueryStorageClient.this) {
+                closed = true;
+                failed = new ArrayList<>(pending);
+                pending.clear();
+            }
+            failed.forEach(future -> future.completeExceptionally(t));
+        }
+    }
+}
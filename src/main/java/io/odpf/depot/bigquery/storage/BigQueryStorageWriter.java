@@ -0,0 +1,212 @@
+package io.odpf.depot.bigquery.storage;
+
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.AppendRowsResponse;
+import com.google.cloud.bigquery.storage.v1.ProtoRows;
+import com.google.cloud.bigquery.storage.v1.RowError;
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
+import io.odpf.depot.bigquery.exception.BQStorageRowConversionException;
+import io.odpf.depot.bigquery.exception.BigQuerySinkException;
+import io.odpf.depot.bigquery.models.Record;
+import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.error.ErrorType;
+import io.odpf.depot.error.SampledErrorReporter;
+import io.odpf.depot.metrics.BigQueryMetrics;
+import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.StatsDMetric;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Writes {@link Record}s to the table default stream through the storage write api.
+ * Errors are returned keyed by the record index, the same shape {@link io.odpf.depot.bigquery.client.BigQueryResponseParser}
+ * produces for insertAll.
+ * A failed append is never partially committed, rows named in the row errors are reported as {@link ErrorType#SINK_4XX_ERROR},
+ * the rest of the request as {@link ErrorType#SINK_5XX_ERROR} so they can be resent as is.
+ * The default stream has no offsets, an append that timed out or was cancelled may still be committed, so its rows are
+ * reported as {@link ErrorType#SINK_UNKNOWN_ERROR} and never retried or spilled, a resend could duplicate them.
+ */
+public class BigQueryStorageWriter implements Closeable {
+    private static final long DEFAULT_APPEND_TIMEOUT_MS = 20000;
+
+    private final BigQueryStorageClient storageClient;
+    private final Supplier<Schema> tableSchemaSupplier;
+    private final Instrumentation instrumentation;
+    private final long appendTimeoutMs;
+    private final StatsDMetric operationTotalMetric;
+    private final StatsDMetric operationLatencyMetric;
+    private final Map<BigQueryMetrics.BigQueryErrorType, StatsDMetric> errorMetrics = new EnumMap<>(BigQueryMetrics.BigQueryErrorType.class);
+    private final SampledErrorReporter errorReporter;
+    private volatile BigQueryProtoRowSchema rowSchema;
+
+    public BigQueryStorageWriter(BigQueryStorageClient storageClient,
+                                 TableId tableId,
+                                 Supplier<Schema> tableSchemaSupplier,
+                                 long appendTimeoutMs,
+                                 BigQueryMetrics bigQueryMetrics,
+                                 Instrumentation instrumentation) {
+        this.storageClient = storageClient;
+        this.tableSchemaSupplier = tableSchemaSupplier;
+        this.appendTimeoutMs = appendTimeoutMs > 0 ? appendTimeoutMs : DEFAULT_APPEND_TIMEOUT_MS;
+        this.instrumentation = instrumentation;
+        this.errorReporter = new SampledErrorReporter(BigQueryStorageWriter.class, tableId.getDataset() + "." + tableId.getTable());
+        String[] metricTags = new String[]{
+                String.format(BigQueryMetrics.BIGQUERY_TABLE_TAG, tableId.getTable()),
+                String.format(BigQueryMetrics.BIGQUERY_DATASET_TAG, tableId.getDataset()),
+                String.format(BigQueryMetrics.BIGQUERY_API_TAG, BigQueryMetrics.BigQueryAPIType.TABLE_APPEND_ROWS)};
+        this.operationTotalMetric = instrumentation.metric(bigQueryMetrics.getBigqueryOperationTotalMetric(), metricTags);
+        this.operationLatencyMetric = instrumentation.metric(bigQueryMetrics.getBigqueryOperationLatencyMetric(), metricTags);
+        for (BigQueryMetrics.BigQueryErrorType errorType : BigQueryMetrics.BigQueryErrorType.values()) {
+            errorMetrics.put(errorType, instrumentation.metric(bigQueryMetrics.getBigqueryTotalErrorsMetrics(),
+                    String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, errorType)));
+        }
+    }
+
+    public Map<Long, ErrorInfo> write(List<Record> records) {
+        Map<Long, ErrorInfo> errors = new HashMap<>();
+        BigQueryProtoRowSchema schema = getRowSchema();
+        List<Record> appendedRecords = new ArrayList<>(records.size());
+        ProtoRows.Builder rows = ProtoRows.newBuilder();
+        for (Record record : records) {
+            try {
+                ByteString row;
+                try {
+                    row = schema.serialize(record.getColumns());
+                } catch (BQStorageRowConversionException e) {
+                    if (!e.isUnknownColumn() || schema != rowSchema) {
+                        throw e;
+                    }
+                    schema = refreshRowSchema();
+                    row = schema.serialize(record.getColumns());
+                }
+                rows.addSerializedRows(row);
+                appendedRecords.add(record);
+            } catch (BQStorageRowConversionException e) {
+                if (errorReporter.record("row_conversion")) {
+                    instrumentation.logError("Error while converting record for storage write api. Error: {}, MetaData: {}", e.getMessage(), record.getMetadata());
+                }
+                errors.put(record.getIndex(), new ErrorInfo(e, ErrorType.SINK_4XX_ERROR));
+                countError(BigQueryMetrics.BigQueryErrorType.INVALID_SCHEMA_ERROR);
+            }
+        }
+        if (appendedRecords.isEmpty()) {
+            return errors;
+        }
+        Instant start = Instant.now();
+        try {
+            AppendRowsResponse response = storageClient.append(schema.getDescriptorProto(), rows.build())
+                    .get(appendTimeoutMs, TimeUnit.MILLISECONDS);
+            instrument(start);
+            if (response.hasError()) {
+                fillResponseErrors(appendedRecords, response, errors);
+            }
+        } catch (ExecutionException e) {
+            instrument(start);
+            fillTransportErrors(appendedRecords, Status.fromThrowable(e.getCause()), errors);
+        } catch (TimeoutException e) {
+            fillTransportErrors(appendedRecords, Status.DEADLINE_EXCEEDED.withCause(e), errors);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fillTransportErrors(appendedRecords, Status.CANCELLED.withCause(e), errors);
+        }
+        return errors;
+    }
+
+    private BigQueryProtoRowSchema getRowSchema() {
+        BigQueryProtoRowSchema schema = rowSchema;
+        return schema == null ? refreshRowSchema() : schema;
+    }
+
+    private synchronized BigQueryProtoRowSchema refreshRowSchema() {
+        Schema tableSchema = tableSchemaSupplier.get();
+        if (rowSchema == null || !rowSchema.getTableSchema().equals(tableSchema)) {
+            rowSchema = BigQueryProtoRowSchema.of(tableSchema);
+        }
+        return rowSchema;
+    }
+
+    private void fillResponseErrors(List<Record> appendedRecords, AppendRowsResponse response, Map<Long, ErrorInfo> errors) {
+        if (response.getRowErrorsCount() == 0) {
+            fillTransportErrors(appendedRecords, Status.fromCodeValue(response.getError().getCode())
+                    .withDescription(response.getError().getMessage()), errors);
+            return;
+        }
+        Map<Long, RowError> rowErrors = new HashMap<>();
+        response.getRowErrorsList().forEach(rowError -> rowErrors.put(rowError.getIndex(), rowError));
+        for (int i = 0; i < appendedRecords.size(); i++) {
+            Record record = appendedRecords.get(i);
+            RowError rowError = rowErrors.get((long) i);
+            if (rowError != null) {
+                if (errorReporter.record("row_error")) {
+                    instrumentation.logError("Error while bigquery append for message. Record: {}, Error: {}, MetaData: {}",
+                            record.getColumns(), rowError.getMessage(), record.getMetadata());
+                }
+                errors.put(record.getIndex(), new ErrorInfo(new BigQuerySinkException(rowError.getMessage()), ErrorType.SINK_4XX_ERROR));
+                countError(BigQueryMetrics.BigQueryErrorType.INVALID_SCHEMA_ERROR);
+            } else {
+                errors.put(record.getIndex(), new ErrorInfo(new BigQuerySinkException(response.getError().getMessage()), ErrorType.SINK_5XX_ERROR));
+                countError(BigQueryMetrics.BigQueryErrorType.STOPPED_ERROR);
+            }
+        }
+    }
+
+    private void fillTransportErrors(List<Record> appendedRecords, Status status, Map<Long, ErrorInfo> errors) {
+        ErrorType errorType = toErrorType(status.getCode());
+        instrumentation.logError("Error while bigquery append for {} records. Status: {}", appendedRecords.size(), status);
+        for (Record record : appendedRecords) {
+            errors.put(record.getIndex(), new ErrorInfo(new BigQuerySinkException(status.toString()), errorType));
+        }
+        BigQueryMetrics.BigQueryErrorType metricErrorType = errorType == ErrorType.SINK_5XX_ERROR
+                ? BigQueryMetrics.BigQueryErrorType.STOPPED_ERROR
+                : BigQueryMetrics.BigQueryErrorType.UNKNOWN_ERROR;
+        appendedRecords.forEach(record -> countError(metricErrorType));
+    }
+
+    private ErrorType toErrorType(Status.Code code) {
+        switch (code) {
+            case INVALID_ARGUMENT:
+            case NOT_FOUND:
+            case ALREADY_EXISTS:
+            case PERMISSION_DENIED:
+            case FAILED_PRECONDITION:
+            case OUT_OF_RANGE:
+            case UNAUTHENTICATED:
+                return ErrorType.SINK_4XX_ERROR;
+            case RESOURCE_EXHAUSTED:
+            case ABORTED:
+            case INTERNAL:
+            case UNAVAILABLE:
+                return ErrorType.SINK_5XX_ERROR;
+            default:
+                return ErrorType.SINK_UNKNOWN_ERROR;
+        }
+    }
+
+    private void countError(BigQueryMetrics.BigQueryErrorType errorType) {
+        errorMetrics.get(errorType).increment();
+    }
+
+    private void instrument(Instant start) {
+        operationTotalMetric.increment();
+        operationLatencyMetric.durationSince(start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        errorReporter.close();
+        storageClient.close();
+    }
+}
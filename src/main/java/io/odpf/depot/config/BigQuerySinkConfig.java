@@ -1,9 +1,13 @@
 package io.odpf.depot.config;
 
 import io.odpf.depot.common.TupleString;
+import io.odpf.depot.config.converter.BigQueryInsertIdGeneratorConverter;
+import io.odpf.depot.config.converter.BigQueryWriteModeConverter;
 import io.odpf.depot.config.converter.ConfToListConverter;
 import io.odpf.depot.config.converter.ConverterUtils;
 import io.odpf.depot.config.converter.LabelMapConverter;
+import io.odpf.depot.config.enums.BigQueryInsertIdGenerator;
+import io.odpf.depot.config.enums.BigQueryWriteMode;
 
 import java.util.List;
 import java.util.Map;
@@ -73,6 +77,125 @@ public interface BigQuerySinkConfig extends OdpfSinkConfig {
     @Separator(ConfToListConverter.ELEMENT_SEPARATOR)
     List<TupleString> getMetadataColumnsTypes();
 
+    @Key("SINK_BIGQUERY_WRITE_MODE")
+    @ConverterClass(BigQueryWriteModeConverter.class)
+    @DefaultValue("INSERT_ALL")
+    BigQueryWriteMode getBigQueryWriteMode();
+
+    @Key("SINK_BIGQUERY_STORAGE_WRITE_ENDPOINT")
+    @DefaultValue("bigquerystorage.googleapis.com:443")
+    String getBigQueryStorageWriteEndpoint();
+
+    @Key("SINK_BIGQUERY_CONVERSION_PARALLELISM")
+    @DefaultValue("1")
+    int getSinkBigqueryConversionParallelism();
+
+    @Key("SINK_BIGQUERY_CONVERSION_PARALLEL_MIN_BATCH_SIZE")
+    @DefaultValue("1000")
+    int getSinkBigqueryConversionParallelMinBatchSize();
+
+    @Key("SINK_BIGQUERY_INSERT_MAX_ROWS")
+    @DefaultValue("50000")
+    int getSinkBigqueryInsertMaxRows();
+
+    @Key("SINK_BIGQUERY_INSERT_MAX_REQUEST_BYTES")
+    @DefaultValue("10485760")
+    long getSinkBigqueryInsertMaxRequestBytes();
+
+    @Key("SINK_BIGQUERY_INSERT_CONCURRENCY")
+    @DefaultValue("1")
+    int getSinkBigqueryInsertConcurrency();
+
+    @Key("SINK_BIGQUERY_RETRY_MAX_ATTEMPTS")
+    @DefaultValue("0")
+    int getSinkBigqueryRetryMaxAttempts();
+
+    @Key("SINK_BIGQUERY_RETRY_BACKOFF_INITIAL_MS")
+    @DefaultValue("100")
+    long getSinkBigqueryRetryBackoffInitialMs();
+
+    @Key("SINK_BIGQUERY_RETRY_BACKOFF_MAX_MS")
+    @DefaultValue("5000")
+    long getSinkBigqueryRetryBackoffMaxMs();
+
+    @Key("SINK_BIGQUERY_RETRY_BUDGET_MS")
+    @DefaultValue("30000")
+    long getSinkBigqueryRetryBudgetMs();
+
+    @Key("SINK_BIGQUERY_ASYNC_MAX_IN_FLIGHT_BATCHES")
+    @DefaultValue("0")
+    int getSinkBigqueryAsyncMaxInFlightBatches();
+
+    @Key("SINK_BIGQUERY_SPILL_ENABLE")
+    @DefaultValue("false")
+    boolean isSinkBigquerySpillEnable();
+
+    @Key("SINK_BIGQUERY_SPILL_DIRECTORY")
+    @DefaultValue("/tmp/bigquery-sink-spill")
+    String getSinkBigquerySpillDirectory();
+
+    @Key("SINK_BIGQUERY_SPILL_SEGMENT_BYTES")
+    @DefaultValue("67108864")
+    int getSinkBigquerySpillSegmentBytes();
+
+    @Key("SINK_BIGQUERY_SPILL_REPLAY_INTERVAL_MS")
+    @DefaultValue("10000")
+    long getSinkBigquerySpillReplayIntervalMs();
+
+    @Key("SINK_BIGQUERY_CIRCUIT_BREAKER_ENABLE")
+    @DefaultValue("false")
+    boolean isSinkBigqueryCircuitBreakerEnable();
+
+    @Key("SINK_BIGQUERY_CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD")
+    @DefaultValue("50")
+    int getSinkBigqueryCircuitBreakerFailureRateThreshold();
+
+    @Key("SINK_BIGQUERY_CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD")
+    @DefaultValue("80")
+    int getSinkBigqueryCircuitBreakerSlowCallRateThreshold();
+
+    @Key("SINK_BIGQUERY_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS")
+    @DefaultValue("30000")
+    long getSinkBigqueryCircuitBreakerSlowCallDurationMs();
+
+    @Key("SINK_BIGQUERY_CIRCUIT_BREAKER_WINDOW_SIZE")
+    @DefaultValue("20")
+    int getSinkBigqueryCircuitBreakerWindowSize();
+
+    @Key("SINK_BIGQUERY_CIRCUIT_BREAKER_MINIMUM_CALLS")
+    @DefaultValue("10")
+    int getSinkBigqueryCircuitBreakerMinimumCalls();
+
+    @Key("SINK_BIGQUERY_CIRCUIT_BREAKER_OPEN_DURATION_MS")
+    @DefaultValue("30000")
+    long getSinkBigqueryCircuitBreakerOpenDurationMs();
+
+    @Key("SINK_BIGQUERY_CIRCUIT_BREAKER_HALF_OPEN_PROBES")
+    @DefaultValue("3")
+    int getSinkBigqueryCircuitBreakerHalfOpenProbes();
+
+    @Key("SINK_BIGQUERY_METADATA_CACHE_TTL_MS")
+    @DefaultValue("60000")
+    long getSinkBigqueryMetadataCacheTtlMs();
+
+    @Key("SINK_BIGQUERY_SCHEMA_REFRESH_ASYNC_ENABLE")
+    @DefaultValue("false")
+    boolean isSinkBigquerySchemaRefreshAsyncEnable();
+
+    @Key("SINK_BIGQUERY_SCHEMA_SNAPSHOT_PATH")
+    @DefaultValue("")
+    String getSinkBigquerySchemaSnapshotPath();
+
+    @Key("SINK_BIGQUERY_ROW_INSERT_ID_GENERATOR")
+    @ConverterClass(BigQueryInsertIdGeneratorConverter.class)
+    @DefaultValue("CUSTOM")
+    BigQueryInsertIdGenerator getSinkBigqueryRowInsertIdGenerator();
+
+    @Key("SINK_BIGQUERY_ROW_INSERT_ID_METADATA_KEYS")
+    @Separator(",")
+    @DefaultValue("message_topic,message_partition,message_offset")
+    List<String> getSinkBigqueryRowInsertIdMetadataKeys();
+
     // Json schema related configs
     @DefaultValue("false")
     @Key("SINK_BIGQUERY_ADD_EVENT_TIMESTAMP_ENABLE")
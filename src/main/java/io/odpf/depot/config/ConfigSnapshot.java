@@ -0,0 +1,105 @@
+package io.odpf.depot.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Config with the value of every getter resolved once.
+ * Owner config getters go through a dynamic proxy doing a property lookup and conversion on every call, the sinks read
+ * config for every message so they are given a snapshot instead. The snapshot is built by calling every getter of the
+ * config interface once, so new config keys are part of it without any change here. Values only change on an explicit
+ * {@link #reload(Class, Object)}.
+ */
+public final class ConfigSnapshot implements InvocationHandler {
+    private static final Object NULL_VALUE = new Object();
+
+    private final Object source;
+    private final Map<Method, Object> values = new HashMap<>();
+
+    private ConfigSnapshot(Class<?> type, Object source) {
+        this.source = source;
+        for (Method method : type.getMethods()) {
+            if (method.getParameterCount() == 0 && !method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                Object value = copyOf(invokeSource(method, null));
+                values.put(method, value == null ? NULL_VALUE : value);
+            }
+        }
+    }
+
+    /**
+     * @return the config itself when it already is a snapshot
+     */
+    public static <T> T of(Class<T> type, T config) {
+        if (isSnapshot(config)) {
+            return config;
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new ConfigSnapshot(type, config)));
+    }
+
+    /**
+     * Resolves the values again from the config the snapshot was taken of.
+     *
+     * @return a new snapshot, the given one keeps its values
+     */
+    public static <T> T reload(Class<T> type, T snapshot) {
+        if (!isSnapshot(snapshot)) {
+            return of(type, snapshot);
+        }
+        Object source = ((ConfigSnapshot) Proxy.getInvocationHandler(snapshot)).source;
+        return of(type, type.cast(source));
+    }
+
+    private static boolean isSnapshot(Object config) {
+        return Proxy.isProxyClass(config.getClass()) && Proxy.getInvocationHandler(config) instanceof ConfigSnapshot;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        Object value = values.get(method);
+        if (value != null) {
+            return value == NULL_VALUE ? null : value;
+        }
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "ConfigSnapshot(" + source + ")";
+            }
+        }
+        return invokeSource(method, args);
+    }
+
+    private Object invokeSource(Method method, Object[] args) {
+        try {
+            return method.invoke(source, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object copyOf(Object value) {
+        if (value instanceof List) {
+            return Collections.unmodifiableList(new ArrayList<>((List<?>) value));
+        }
+        if (value instanceof Map) {
+            return Collections.unmodifiableMap(new HashMap<>((Map<?, ?>) value));
+        }
+        return value;
+    }
+}
@@ -77,4 +77,36 @@ public interface OdpfSinkConfig extends Config {
     @Key("SINK_CONNECTOR_SCHEMA_PROTO_ALLOW_UNKNOWN_FIELDS_ENABLE")
     @DefaultValue("false")
     boolean getSinkConnectorSchemaProtoAllowUnknownFieldsEnable();
+
+    @Key("SINK_CONNECTOR_SCHEMA_JSON_PARSER_STREAMING_ENABLE")
+    @DefaultValue("false")
+    boolean isSinkConnectorSchemaJsonParserStreamingEnable();
+
+    @Key("SINK_LOG_ASYNC_ENABLE")
+    @DefaultValue("false")
+    boolean isSinkLogAsyncEnable();
+
+    @Key("SINK_LOG_BUFFER_CAPACITY")
+    @DefaultValue("8192")
+    int getSinkLogBufferCapacity();
+
+    @Key("SINK_LOG_FLUSH_BATCH_SIZE")
+    @DefaultValue("512")
+    int getSinkLogFlushBatchSize();
+
+    @Key("SINK_LOG_SAMPLE_RATE")
+    @DefaultValue("1.0")
+    double getSinkLogSampleRate();
+
+    @Key("SINK_LOG_OUTPUT_FILE_PATH")
+    @DefaultValue("")
+    String getSinkLogOutputFilePath();
+
+    @Key("SINK_LOG_OUTPUT_FILE_MAX_BYTES")
+    @DefaultValue("104857600")
+    long getSinkLogOutputFileMaxBytes();
+
+    @Key("SINK_LOG_OUTPUT_FILE_MAX_BACKUPS")
+    @DefaultValue("5")
+    int getSinkLogOutputFileMaxBackups();
 }
@@ -0,0 +1,13 @@
+package io.odpf.depot.config.converter;
+
+import io.odpf.depot.config.enums.BigQueryInsertIdGenerator;
+import org.aeonbits.owner.Converter;
+
+import java.lang.reflect.Method;
+
+public class BigQueryInsertIdGeneratorConverter implements Converter<BigQueryInsertIdGenerator> {
+    @Override
+    public BigQueryInsertIdGenerator convert(Method method, String input) {
+        return BigQueryInsertIdGenerator.valueOf(input.toUpperCase());
+    }
+}
@@ -0,0 +1,13 @@
+package io.odpf.depot.config.converter;
+
+import io.odpf.depot.config.enums.BigQueryWriteMode;
+import org.aeonbits.owner.Converter;
+
+import java.lang.reflect.Method;
+
+public class BigQueryWriteModeConverter implements Converter<BigQueryWriteMode> {
+    @Override
+    public BigQueryWriteMode convert(Method method, String input) {
+        return BigQueryWriteMode.valueOf(input.toUpperCase());
+    }
+}
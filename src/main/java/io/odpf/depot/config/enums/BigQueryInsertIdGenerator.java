@@ -0,0 +1,6 @@
+package io.odpf.depot.config.enums;
+
+public enum BigQueryInsertIdGenerator {
+    CUSTOM,
+    HASH
+}
@@ -0,0 +1,6 @@
+package io.odpf.depot.config.enums;
+
+public enum BigQueryWriteMode {
+    INSERT_ALL,
+    STORAGE_WRITE_API
+}
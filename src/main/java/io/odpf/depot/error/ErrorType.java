@@ -7,5 +7,6 @@ public enum ErrorType {
     SINK_4XX_ERROR,
     SINK_5XX_ERROR,
     SINK_UNKNOWN_ERROR,
+    SINK_CIRCUIT_OPEN_ERROR,
     DEFAULT_ERROR
 }
@@ -0,0 +1,147 @@
+package io.odpf.depot.error;
+
+import io.odpf.depot.utils.ThreadUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps per record errors from flooding the log.
+ * Every error is counted under its type, but only the first exemplars of a type in each interval are logged with
+ * their details. Once an interval is over, one summary line per type with the errors that were not logged is written by
+ * the summary timer or by the next error, whichever comes first, {@link #flush()} and {@link #close()} log it right
+ * away. The timer is only armed while an interval has errors that were not logged.
+ * A reporter is scoped to the sink or table it counts the errors of, the scope is part of every summary line.
+ */
+public class SampledErrorReporter implements Closeable {
+    public static final int DEFAULT_EXEMPLARS_PER_INTERVAL = 10;
+    public static final long DEFAULT_INTERVAL_MILLIS = 60_000;
+    private static final ScheduledExecutorService SUMMARY_TIMER =
+            Executors.newSingleThreadScheduledExecutor(ThreadUtils.daemonThreadFactory("sampled-error-summary"));
+
+    private final Logger logger;
+    private final String scope;
+    private final int exemplarsPerInterval;
+    private final long intervalMillis;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService summaryTimer;
+    private final AtomicBoolean summaryScheduled = new AtomicBoolean();
+    private final Map<String, ErrorCount> errorCounts = new ConcurrentHashMap<>();
+    private volatile long intervalStartMillis;
+
+    public SampledErrorReporter(Class<?> clazz) {
+        this(clazz, clazz.getSimpleName());
+    }
+
+    public SampledErrorReporter(Class<?> clazz, String scope) {
+        this(LoggerFactory.getLogger(clazz), scope, DEFAULT_EXEMPLARS_PER_INTERVAL, DEFAULT_INTERVAL_MILLIS, System::currentTimeMillis,
+                SUMMARY_TIMER);
+    }
+
+    /**
+     * Reporter without a summary timer, the summary is only written by the next error, {@link #flush()} or {@link #close()}.
+     */
+    public SampledErrorReporter(Logger logger, String scope, int exemplarsPerInterval, long intervalMillis, LongSupplier clock) {
+        this(logger, scope, exemplarsPerInterval, intervalMillis, clock, null);
+    }
+
+    /**
+     * @param summaryTimer writes the summary of an interval when it ends without another error, {@code null} to disable
+     */
+    public SampledErrorReporter(Logger logger, String scope, int exemplarsPerInterval, long intervalMillis, LongSupplier clock,
+                                ScheduledExecutorService summaryTimer) {
+        this.logger = logger;
+        this.scope = scope;
+        this.exemplarsPerInterval = Math.max(0, exemplarsPerInterval);
+        this.intervalMillis = intervalMillis;
+        this.clock = clock;
+        this.summaryTimer = summaryTimer;
+        this.intervalStartMillis = clock.getAsLong();
+    }
+
+    /**
+     * Counts one error of the type.
+     *
+     * @return whether the error is an exemplar of the interval, so its details should be logged
+     */
+    public boolean record(String errorType) {
+        long now = clock.getAsLong();
+        if (now - intervalStartMillis >= intervalMillis) {
+            summarize(now, false);
+        }
+        ErrorCount errorCount = errorCounts.computeIfAbsent(errorType, type -> new ErrorCount());
+        errorCount.total.incrementAndGet();
+        if (errorCount.interval.incrementAndGet() <= exemplarsPerInterval) {
+            return true;
+        }
+        scheduleSummary(now);
+        return false;
+    }
+
+    /**
+     * @return errors of the type counted since the reporter was created
+     */
+    public long getCount(String errorType) {
+        ErrorCount errorCount = errorCounts.get(errorType);
+        return errorCount == null ? 0 : errorCount.total.get();
+    }
+
+    /**
+     * Logs the summary of the current interval without waiting for it to end, and starts a new interval.
+     */
+    public void flush() {
+        summarize(clock.getAsLong(), true);
+    }
+
+    /**
+     * Flushes the errors not summarized yet, so they are not lost when the owner of the reporter goes away.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void scheduleSummary(long now) {
+        if (summaryTimer == null || !summaryScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        long delayMillis = Math.max(0, intervalStartMillis + intervalMillis - now);
+        summaryTimer.schedule(() -> {
+            summaryScheduled.set(false);
+            long time = clock.getAsLong();
+            if (!summarize(time, false)) {
+                scheduleSummary(time);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized boolean summarize(long now, boolean force) {
+        if (!force && now - intervalStartMillis < intervalMillis) {
+            return false;
+        }
+        long elapsedMillis = now - intervalStartMillis;
+        intervalStartMillis = now;
+        errorCounts.forEach((errorType, errorCount) -> {
+            long count = errorCount.interval.getAndSet(0);
+            if (count > exemplarsPerInterval) {
+                logger.warn("{}: {} errors of type {} in the last {} ms, {} were not logged",
+                        scope, count, errorType, elapsedMillis, count - exemplarsPerInterval);
+            }
+        });
+        return true;
+    }
+
+    private static final class ErrorCount {
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong interval = new AtomicLong();
+    }
+}
@@ -11,8 +11,18 @@ import com.google.protobuf.DynamicMessage;
  * On some use case that need zero data loss, for example data warehousing unknown fields error should be handled properly to prevent missing fields.
  */
 public class UnknownFieldsException extends DeserializerException {
+    private final transient DynamicMessage dynamicMessage;
 
     public UnknownFieldsException(DynamicMessage dynamicMessage) {
-        super(String.format("unknown fields found, message : %s", dynamicMessage));
+        super(null);
+        this.dynamicMessage = dynamicMessage;
+    }
+
+    /**
+     * Rendered on demand, printing the whole message is too costly for every rejected record.
+     */
+    @Override
+    public String getMessage() {
+        return String.format("unknown fields found, message : %s", dynamicMessage);
     }
 }
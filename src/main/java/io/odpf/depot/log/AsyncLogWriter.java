@@ -0,0 +1,120 @@
+package io.odpf.depot.log;
+
+import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.LogSinkMetrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers rendered lines in a bounded ring buffer and writes them from a dedicated thread.
+ * Producers never block: a line that does not fit in the buffer is dropped and counted.
+ * The writer drains up to a batch of lines at a time and flushes the output once per batch, a batch that fails to be
+ * written is counted as dropped and the writer keeps draining the next ones.
+ */
+public class AsyncLogWriter implements Closeable {
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final BlockingQueue<String> buffer;
+    private final LogOutput output;
+    private final int flushBatchSize;
+    private final Instrumentation instrumentation;
+    private final LogSinkMetrics logSinkMetrics;
+    private final LongAdder droppedLines = new LongAdder();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public AsyncLogWriter(LogOutput output, int bufferCapacity, int flushBatchSize,
+                          Instrumentation instrumentation, LogSinkMetrics logSinkMetrics) {
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferCapacity));
+        this.output = output;
+        this.flushBatchSize = Math.max(1, flushBatchSize);
+        this.instrumentation = instrumentation;
+        this.logSinkMetrics = logSinkMetrics;
+        this.writerThread = new Thread(this::drain, "log-sink-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * @return false when the line was dropped because the buffer is full or the writer is closed
+     */
+    public boolean offer(String line) {
+        if (running && buffer.offer(line)) {
+            return true;
+        }
+        droppedLines.increment();
+        return false;
+    }
+
+    /**
+     * @return lines dropped since the writer was created, including the ones that failed to be written
+     */
+    public long getDroppedCount() {
+        return droppedLines.sum();
+    }
+
+    /**
+     * Writes out the buffered lines and closes the output. Calling it again does nothing.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        output.close();
+    }
+
+    private void drain() {
+        List<String> batch = new ArrayList<>(flushBatchSize);
+        boolean interrupted = false;
+        while (running || !buffer.isEmpty()) {
+            try {
+                String first = buffer.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                interrupted = true;
+                running = false;
+                continue;
+            }
+            buffer.drainTo(batch, flushBatchSize - batch.size());
+            write(batch);
+            batch.clear();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<String> batch) {
+        Instant start = Instant.now();
+        try {
+            for (String line : batch) {
+                output.write(line);
+            }
+            output.flush();
+            instrumentation.captureHistogram(logSinkMetrics.getLogSinkFlushBatchSizeMetric(), (long) batch.size());
+            instrumentation.captureDurationSince(logSinkMetrics.getLogSinkFlushLatencyMetric(), start);
+        } catch (IOException | RuntimeException e) {
+            droppedLines.add(batch.size());
+            instrumentation.captureCount(logSinkMetrics.getLogSinkDroppedMessagesMetric(), (long) batch.size());
+            instrumentation.logError("Failed to write {} log lines: {}", batch.size(), e.getMessage());
+        }
+    }
+}
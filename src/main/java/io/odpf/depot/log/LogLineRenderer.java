@@ -0,0 +1,51 @@
+package io.odpf.depot.log;
+
+import com.google.protobuf.MessageOrBuilder;
+import com.google.protobuf.util.JsonFormat;
+import io.odpf.depot.message.ParsedOdpfMessage;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Renders a parsed message and its metadata as one compact json line, {@code {"data":...,"metadata":{...}}}.
+ * Protobuf messages are printed with a shared printer, json payloads are copied as they are unless they span lines.
+ */
+public class LogLineRenderer {
+    private static final JsonFormat.Printer PRINTER = JsonFormat.printer().omittingInsignificantWhitespace();
+    private static final int LINE_CAPACITY = 256;
+
+    public String render(ParsedOdpfMessage parsedOdpfMessage, Object payload, Map<String, Object> metadata) throws IOException {
+        StringBuilder line = new StringBuilder(LINE_CAPACITY);
+        line.append("{\"data\":");
+        appendData(line, parsedOdpfMessage, payload);
+        line.append(",\"metadata\":{");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            if (!first) {
+                line.append(',');
+            }
+            first = false;
+            line.append(JSONObject.quote(entry.getKey())).append(':').append(JSONObject.valueToString(entry.getValue()));
+        }
+        return line.append("}}").toString();
+    }
+
+    private void appendData(StringBuilder line, ParsedOdpfMessage parsedOdpfMessage, Object payload) throws IOException {
+        Object raw = parsedOdpfMessage.getRaw();
+        if (raw instanceof MessageOrBuilder) {
+            PRINTER.appendTo((MessageOrBuilder) raw, line);
+            return;
+        }
+        if (payload instanceof byte[]) {
+            String json = new String((byte[]) payload, StandardCharsets.UTF_8).trim();
+            if (json.indexOf('\n') < 0 && json.indexOf('\r') < 0) {
+                line.append(json);
+                return;
+            }
+        }
+        line.append(parsedOdpfMessage.toString());
+    }
+}
@@ -0,0 +1,13 @@
+package io.odpf.depot.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination of the lines written by {@link AsyncLogWriter}, only used from its writer thread.
+ */
+public interface LogOutput extends Closeable {
+    void write(String line) throws IOException;
+
+    void flush() throws IOException;
+}
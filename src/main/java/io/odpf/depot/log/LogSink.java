@@ -11,19 +11,34 @@ import io.odpf.depot.message.OdpfMessage;
 import io.odpf.depot.message.OdpfMessageParser;
 import io.odpf.depot.message.ParsedOdpfMessage;
 import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.LogSinkMetrics;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class LogSink implements OdpfSink {
     private final OdpfMessageParser odpfMessageParser;
     private final Instrumentation instrumentation;
     private final OdpfSinkConfig config;
+    private final AsyncLogWriter asyncLogWriter;
+    private final LogLineRenderer logLineRenderer = new LogLineRenderer();
+    private final LogSinkMetrics logSinkMetrics;
 
     public LogSink(OdpfSinkConfig config, OdpfMessageParser odpfMessageParser, Instrumentation instrumentation) {
+        this(config, odpfMessageParser, instrumentation, null);
+    }
+
+    /**
+     * @param asyncLogWriter when set, messages are sampled, rendered as json lines and handed to the writer
+     *                       instead of being logged one by one.
+     */
+    public LogSink(OdpfSinkConfig config, OdpfMessageParser odpfMessageParser, Instrumentation instrumentation, AsyncLogWriter asyncLogWriter) {
         this.odpfMessageParser = odpfMessageParser;
         this.instrumentation = instrumentation;
         this.config = config;
+        this.asyncLogWriter = asyncLogWriter;
+        this.logSinkMetrics = new LogSinkMetrics(config);
     }
 
     @Override
@@ -32,26 +47,48 @@ public class LogSink implements OdpfSink {
         SinkConnectorSchemaMessageMode mode = config.getSinkConnectorSchemaMessageMode();
         String schemaClass = mode == SinkConnectorSchemaMessageMode.LOG_MESSAGE
                 ? config.getSinkConnectorSchemaProtoMessageClass() : config.getSinkConnectorSchemaProtoKeyClass();
+        double sampleRate = asyncLogWriter == null ? 1 : config.getSinkLogSampleRate();
+        long sampledOut = 0;
+        long dropped = 0;
         for (int ii = 0; ii < messages.size(); ii++) {
             OdpfMessage message = messages.get(ii);
+            if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                sampledOut++;
+                continue;
+            }
             try {
                 ParsedOdpfMessage parsedOdpfMessage =
                         odpfMessageParser.parse(
                                 message,
                                 mode,
                                 schemaClass);
-                instrumentation.logInfo("\n================= DATA =======================\n{}"
-                                + "\n================= METADATA =======================\n{}\n",
-                        parsedOdpfMessage.toString(), message.getMetadataString());
+                if (asyncLogWriter == null) {
+                    instrumentation.logInfo("\n================= DATA =======================\n{}"
+                                    + "\n================= METADATA =======================\n{}\n",
+                            parsedOdpfMessage.toString(), message.getMetadataString());
+                    continue;
+                }
+                Object payload = mode == SinkConnectorSchemaMessageMode.LOG_MESSAGE ? message.getLogMessage() : message.getLogKey();
+                if (!asyncLogWriter.offer(logLineRenderer.render(parsedOdpfMessage, payload, message.getMetadata()))) {
+                    dropped++;
+                }
             } catch (IOException e) {
                 response.addErrors(ii, new ErrorInfo(e, ErrorType.DESERIALIZATION_ERROR));
             }
         }
+        if (sampledOut > 0) {
+            instrumentation.captureCount(logSinkMetrics.getLogSinkSampledOutMessagesMetric(), sampledOut);
+        }
+        if (dropped > 0) {
+            instrumentation.captureCount(logSinkMetrics.getLogSinkDroppedMessagesMetric(), dropped);
+        }
         return response;
     }
 
+    /**
+     * Leaves the async writer open, it is shared with the other sinks of the factory that owns it.
+     */
     @Override
     public void close() throws IOException {
-
     }
 }
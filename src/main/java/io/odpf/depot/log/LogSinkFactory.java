@@ -4,18 +4,29 @@ import com.timgroup.statsd.NoOpStatsDClient;
 import io.odpf.depot.message.OdpfMessageParserFactory;
 import io.odpf.depot.OdpfSink;
 import io.odpf.depot.config.OdpfSinkConfig;
+import io.odpf.depot.exception.ConfigurationException;
 import io.odpf.depot.message.OdpfMessageParser;
 import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.LogSinkMetrics;
 import io.odpf.depot.metrics.StatsDReporter;
 import org.aeonbits.owner.ConfigFactory;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Map;
 
-public class LogSinkFactory {
+/**
+ * Creates {@link LogSink}s sharing the parser and the async writer set up by {@link #init()}.
+ * The factory owns the async writer: closing a sink leaves it open, closing the factory writes out the buffer and
+ * closes the output once all of its sinks are closed.
+ */
+public class LogSinkFactory implements Closeable {
 
     private final StatsDReporter statsDReporter;
     private OdpfMessageParser odpfMessageParser;
     private final OdpfSinkConfig sinkConfig;
+    private AsyncLogWriter asyncLogWriter;
 
     public LogSinkFactory(Map<String, String> env, StatsDReporter statsDReporter) {
         this(ConfigFactory.create(OdpfSinkConfig.class, env), statsDReporter);
@@ -32,9 +43,43 @@ public class LogSinkFactory {
 
     public void init() {
         this.odpfMessageParser = OdpfMessageParserFactory.getParser(sinkConfig, statsDReporter);
+        if (sinkConfig.isSinkLogAsyncEnable()) {
+            this.asyncLogWriter = new AsyncLogWriter(
+                    createLogOutput(),
+                    sinkConfig.getSinkLogBufferCapacity(),
+                    sinkConfig.getSinkLogFlushBatchSize(),
+                    new Instrumentation(statsDReporter, AsyncLogWriter.class),
+                    new LogSinkMetrics(sinkConfig));
+        }
     }
 
+    /**
+     * Sinks created by the same factory share its async writer, so they all write to one output.
+     */
     public OdpfSink create() {
-        return new LogSink(sinkConfig, odpfMessageParser, new Instrumentation(statsDReporter, LogSink.class));
+        return new LogSink(sinkConfig, odpfMessageParser, new Instrumentation(statsDReporter, LogSink.class), asyncLogWriter);
+    }
+
+    /**
+     * Writes out the lines buffered by the async writer and closes its output.
+     */
+    @Override
+    public void close() throws IOException {
+        if (asyncLogWriter != null) {
+            asyncLogWriter.close();
+        }
+    }
+
+    private LogOutput createLogOutput() {
+        String filePath = sinkConfig.getSinkLogOutputFilePath();
+        if (filePath == null || filePath.isEmpty()) {
+            return new StdoutLogOutput();
+        }
+        try {
+            return new RollingFileLogOutput(Paths.get(filePath),
+                    sinkConfig.getSinkLogOutputFileMaxBytes(), sinkConfig.getSinkLogOutputFileMaxBackups());
+        } catch (IOException e) {
+            throw new ConfigurationException("Failed to open SINK_LOG_OUTPUT_FILE_PATH " + filePath + ": " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,83 @@
+package io.odpf.depot.log;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends lines to a file and rolls it once it would grow past the max bytes.
+ * The rolled file becomes {@code <path>.1}, older ones shift up to {@code <path>.<maxBackups>} and the oldest is dropped.
+ */
+public class RollingFileLogOutput implements LogOutput {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final long maxBytes;
+    private final int maxBackups;
+    private OutputStream stream;
+    private long writtenBytes;
+
+    public RollingFileLogOutput(Path path, long maxBytes, int maxBackups) throws IOException {
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.maxBackups = Math.max(0, maxBackups);
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open();
+    }
+
+    @Override
+    public void write(String line) throws IOException {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        if (writtenBytes > 0 && writtenBytes + bytes.length + 1 > maxBytes) {
+            roll();
+        }
+        stream.write(bytes);
+        stream.write('\n');
+        writtenBytes += bytes.length + 1;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        stream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    private void open() throws IOException {
+        stream = new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), BUFFER_SIZE);
+        writtenBytes = Files.size(path);
+    }
+
+    private void roll() throws IOException {
+        stream.close();
+        if (maxBackups == 0) {
+            Files.delete(path);
+        } else {
+            for (int i = maxBackups - 1; i >= 1; i--) {
+                Path backup = backup(i);
+                if (Files.exists(backup)) {
+                    Files.move(backup, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(path, backup(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path backup(int index) {
+        return Paths.get(path + "." + index);
+    }
+}
@@ -0,0 +1,33 @@
+package io.odpf.depot.log;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes lines to stdout through its own buffer, so a batch is one write instead of one per line.
+ */
+public class StdoutLogOutput implements LogOutput {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream stream = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), BUFFER_SIZE);
+
+    @Override
+    public void write(String line) throws IOException {
+        stream.write(line.getBytes(StandardCharsets.UTF_8));
+        stream.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        stream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.flush();
+    }
+}
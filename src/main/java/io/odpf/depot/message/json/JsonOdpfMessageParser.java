@@ -1,6 +1,13 @@
 package io.odpf.depot.message.json;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.odpf.depot.config.OdpfSinkConfig;
+import io.odpf.depot.error.SampledErrorReporter;
 import io.odpf.depot.exception.ConfigurationException;
 import io.odpf.depot.exception.EmptyMessageException;
 import io.odpf.depot.message.SinkConnectorSchemaMessageMode;
@@ -16,13 +23,18 @@ import org.json.JSONObject;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 
 @Slf4j
 public class JsonOdpfMessageParser implements OdpfMessageParser {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper(JSON_FACTORY);
 
     private final OdpfSinkConfig config;
     private final Instrumentation instrumentation;
     private final JsonParserMetrics jsonParserMetrics;
+    private final SampledErrorReporter errorReporter = new SampledErrorReporter(JsonOdpfMessageParser.class);
 
     public JsonOdpfMessageParser(OdpfSinkConfig config, Instrumentation instrumentation, JsonParserMetrics jsonParserMetrics) {
         this.instrumentation = instrumentation;
@@ -50,10 +62,17 @@ public class JsonOdpfMessageParser implements OdpfMessageParser {
         }
         try {
             if (payload == null || payload.length == 0) {
-                log.info("empty message found {}", message.getMetadataString());
+                if (errorReporter.record("empty_message")) {
+                    log.info("empty message found {}", message.getMetadataString());
+                }
                 throw new EmptyMessageException();
             }
             Instant instant = Instant.now();
+            if (config.isSinkConnectorSchemaJsonParserStreamingEnable()) {
+                Map<String, Object> columns = parseColumns(payload);
+                instrumentation.captureDurationSince(jsonParserMetrics.getJsonParseTimeTakenMetric(), instant);
+                return new JsonOdpfParsedMessage(columns);
+            }
             JSONObject jsonObject = new JSONObject(new String(payload));
             JSONObject jsonWithStringValues = new JSONObject();
             jsonObject.keySet()
@@ -74,6 +93,38 @@ public class JsonOdpfMessageParser implements OdpfMessageParser {
         }
     }
 
+    /**
+     * Reads the payload straight into the flat column map, with every value as its json text.
+     * Nulls are skipped and nested objects and duplicate keys are rejected, same as the {@link JSONObject} path.
+     * Numbers keep the text of the payload, so {@code 1e5} stays {@code 1e5} where the {@link JSONObject} path
+     * renders it through Double or BigDecimal.
+     */
+    private Map<String, Object> parseColumns(byte[] payload) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "json message is not an object");
+            }
+            Map<String, Object> columns = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_OBJECT) {
+                    throw new UnsupportedOperationException("nested json structure not supported yet");
+                }
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                columns.put(name, value == JsonToken.START_ARRAY ? OBJECT_MAPPER.readTree(parser).toString() : parser.getText());
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new JsonParseException(parser, "unexpected end of json message");
+            }
+            return columns;
+        } catch (JsonProcessingException ex) {
+            throw new IOException("invalid json error", ex);
+        }
+    }
+
     @Override
     public OdpfMessageSchema getSchema(String schemaClass) {
         return null;
@@ -10,18 +10,28 @@ import java.util.Map;
 
 public class JsonOdpfParsedMessage implements ParsedOdpfMessage {
     private final JSONObject jsonObject;
+    private final Map<String, Object> columns;
 
     public JsonOdpfParsedMessage(JSONObject jsonObject) {
         this.jsonObject = jsonObject;
+        this.columns = null;
+    }
+
+    /**
+     * @param columns flat column map read by the streaming parser, returned as is by {@link #getMapping}.
+     */
+    public JsonOdpfParsedMessage(Map<String, Object> columns) {
+        this.jsonObject = null;
+        this.columns = columns;
     }
 
     public String toString() {
-        return jsonObject.toString();
+        return columns != null ? new JSONObject(columns).toString() : jsonObject.toString();
     }
 
     @Override
     public Object getRaw() {
-        return jsonObject;
+        return columns != null ? columns : jsonObject;
     }
 
     @Override
@@ -31,6 +41,9 @@ public class JsonOdpfParsedMessage implements ParsedOdpfMessage {
 
     @Override
     public Map<String, Object> getMapping(OdpfMessageSchema schema) {
+        if (columns != null) {
+            return columns;
+        }
         if (jsonObject == null || jsonObject.isEmpty()) {
             return  Collections.emptyMap();
         }
@@ -2,9 +2,22 @@ package io.odpf.depot.message.proto;
 
 import com.google.protobuf.Descriptors;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+/**
+ * Looks up descriptors by class name or by proto type name.
+ * The index from proto type name to class name is built once per descriptor map and reused until the map changes.
+ */
 public class DescriptorCache {
+    private Map<String, Descriptors.Descriptor> indexedDescriptors;
+    private int indexedDescriptorsSize;
+    private Map<String, String> typeNameToPackageNameMap;
+
     public Descriptors.Descriptor fetch(Map<String, Descriptors.Descriptor> allDescriptors, Map<String, String> typeNameToPackageNameMap, String protoName) {
         if (allDescriptors.get(protoName) != null) {
             return allDescriptors.get(protoName);
@@ -15,4 +28,22 @@ public class DescriptorCache {
         }
         return allDescriptors.get(packageName);
     }
+
+    public synchronized Map<String, String> getTypeNameToPackageNameMap(Map<String, Descriptors.Descriptor> descriptors) {
+        if (descriptors != indexedDescriptors || descriptors.size() != indexedDescriptorsSize) {
+            typeNameToPackageNameMap = descriptors.entrySet().stream()
+                    .filter(distinctByFullName(t -> t.getValue().getFullName()))
+                    .collect(Collectors.toMap(
+                            (mapEntry) -> String.format(".%s", mapEntry.getValue().getFullName()),
+                            Map.Entry::getKey));
+            indexedDescriptors = descriptors;
+            indexedDescriptorsSize = descriptors.size();
+        }
+        return typeNameToPackageNameMap;
+    }
+
+    private <T> Predicate<T> distinctByFullName(Function<? super T, Object> keyExtractor) {
+        Set<Object> objects = new HashSet<>();
+        return t -> objects.add(keyExtractor.apply(t));
+    }
 }
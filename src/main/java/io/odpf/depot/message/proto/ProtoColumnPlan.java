@@ -0,0 +1,121 @@
+package io.odpf.depot.message.proto;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import io.odpf.depot.message.proto.converter.fields.NestedProtoField;
+import io.odpf.depot.message.proto.converter.fields.ProtoFieldConverter;
+import io.odpf.depot.message.proto.converter.fields.ProtoFieldFactory;
+import io.odpf.depot.utils.ProtoUtils;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Column mapping compiled against a message descriptor.
+ * Field numbers of the column mapping are resolved to field descriptors once, so mapping a message is a walk over
+ * an array of columns without any parsing or lookups.
+ */
+public final class ProtoColumnPlan {
+    private static final ProtoColumnPlan EMPTY = new ProtoColumnPlan(null, new Column[0]);
+
+    @Getter
+    private final Descriptors.Descriptor descriptor;
+    private final Column[] columns;
+
+    private ProtoColumnPlan(Descriptors.Descriptor descriptor, Column[] columns) {
+        this.descriptor = descriptor;
+        this.columns = columns;
+    }
+
+    public static ProtoColumnPlan compile(Descriptors.Descriptor descriptor, Properties columnMapping) {
+        if (descriptor == null || columnMapping == null || columnMapping.isEmpty()) {
+            return EMPTY;
+        }
+        List<Column> columns = new ArrayList<>(columnMapping.size());
+        columnMapping.forEach((key, value) -> {
+            String columnIndex = key.toString();
+            if (columnIndex.equals(Constants.Config.RECORD_NAME)) {
+                return;
+            }
+            Descriptors.FieldDescriptor fieldDescriptor = descriptor.findFieldByNumber(Integer.parseInt(columnIndex));
+            if (fieldDescriptor == null) {
+                return;
+            }
+            columns.add(toColumn(fieldDescriptor, value));
+        });
+        return new ProtoColumnPlan(descriptor, columns.toArray(new Column[0]));
+    }
+
+    private static Column toColumn(Descriptors.FieldDescriptor fieldDescriptor, Object mapping) {
+        ProtoFieldConverter converter = ProtoFieldFactory.getConverter(fieldDescriptor);
+        if (!(mapping instanceof Properties)) {
+            return new Column(fieldDescriptor, mapping.toString(), converter, null, false);
+        }
+        Properties nestedMapping = (Properties) mapping;
+        Object recordName = nestedMapping.get(Constants.Config.RECORD_NAME);
+        ProtoColumnPlan child = fieldDescriptor.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE
+                ? compile(fieldDescriptor.getMessageType(), nestedMapping)
+                : EMPTY;
+        boolean nested = !fieldDescriptor.isRepeated() && ProtoFieldFactory.getField(fieldDescriptor, null) instanceof NestedProtoField;
+        return new Column(fieldDescriptor, recordName == null ? null : recordName.toString(), converter, child, nested);
+    }
+
+    public Map<String, Object> map(DynamicMessage message) {
+        if (message == null || columns.length == 0) {
+            return new HashMap<>();
+        }
+        Map<String, Object> row = new HashMap<>(columns.length);
+        for (Column column : columns) {
+            if (ProtoUtils.isEmptyField(message, column.fieldDescriptor)) {
+                continue;
+            }
+            Object field = message.getField(column.fieldDescriptor);
+            if (column.nested) {
+                row.put(column.name, column.child.map((DynamicMessage) field));
+                continue;
+            }
+            Object fieldValue = column.converter.convert(field);
+            if (fieldValue instanceof List) {
+                addRepeatedFields(row, column, (List<?>) fieldValue);
+            } else {
+                row.put(column.name, fieldValue);
+            }
+        }
+        return row;
+    }
+
+    private void addRepeatedFields(Map<String, Object> row, Column column, List<?> fieldValue) {
+        if (fieldValue.isEmpty()) {
+            return;
+        }
+        List<Object> repeatedFields = new ArrayList<>(fieldValue.size());
+        for (Object f : fieldValue) {
+            if (f instanceof DynamicMessage && column.child != null) {
+                repeatedFields.add(column.child.map((DynamicMessage) f));
+            } else {
+                repeatedFields.add(f);
+            }
+        }
+        row.put(column.name, repeatedFields);
+    }
+
+    private static final class Column {
+        private final Descriptors.FieldDescriptor fieldDescriptor;
+        private final String name;
+        private final ProtoFieldConverter converter;
+        private final ProtoColumnPlan child;
+        private final boolean nested;
+
+        private Column(Descriptors.FieldDescriptor fieldDescriptor, String name, ProtoFieldConverter converter, ProtoColumnPlan child, boolean nested) {
+            this.fieldDescriptor = fieldDescriptor;
+            this.name = name;
+            this.converter = converter;
+            this.child = child;
+            this.nested = nested;
+        }
+    }
+}
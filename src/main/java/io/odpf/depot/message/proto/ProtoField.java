@@ -2,11 +2,13 @@ package io.odpf.depot.message.proto;
 
 import com.google.protobuf.DescriptorProtos;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-public class ProtoField {
+public class ProtoField implements Serializable {
+    private static final long serialVersionUID = 1L;
     private String name;
     private String typeName;
     private DescriptorProtos.FieldDescriptorProto.Type type;
@@ -1,8 +1,13 @@
 package io.odpf.depot.message.proto;
 
+import com.google.protobuf.DescriptorProtos;
 import com.google.protobuf.Descriptors;
 import io.odpf.depot.exception.ProtoNotFoundException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ProtoFieldParser {
@@ -13,30 +18,47 @@ public class ProtoFieldParser {
     private static final int MAX_NESTED_SCHEMA_LEVEL = 15;
     private final DescriptorCache descriptorCache = new DescriptorCache();
 
+    /**
+     * Fields of a message type are parsed once per nesting level in a call and shared by every field of that type,
+     * so a type used in many places of a large schema is not walked again for each of them.
+     * The parsed nested fields are read only.
+     */
     public ProtoField parseFields(ProtoField protoField, String protoSchema, Map<String, Descriptors.Descriptor> allDescriptors,
                                   Map<String, String> typeNameToPackageNameMap) {
-        return parseFields(protoField, protoSchema, allDescriptors, typeNameToPackageNameMap, 1);
+        Map<String, List<ProtoField>> parsedTypes = new HashMap<>();
+        parseFields(protoSchema, allDescriptors, typeNameToPackageNameMap, 1, parsedTypes).forEach(protoField::addField);
+        return protoField;
     }
 
-    private ProtoField parseFields(ProtoField protoField, String protoSchema, Map<String, Descriptors.Descriptor> allDescriptors,
-                                   Map<String, String> typeNameToPackageNameMap, int level) {
-
+    private List<ProtoField> parseFields(String protoSchema, Map<String, Descriptors.Descriptor> allDescriptors,
+                                         Map<String, String> typeNameToPackageNameMap, int level, Map<String, List<ProtoField>> parsedTypes) {
+        String parsedTypeKey = protoSchema + "@" + level;
+        List<ProtoField> parsedFields = parsedTypes.get(parsedTypeKey);
+        if (parsedFields != null) {
+            return parsedFields;
+        }
         Descriptors.Descriptor currentProto = descriptorCache.fetch(allDescriptors, typeNameToPackageNameMap, protoSchema);
         if (currentProto == null) {
             throw new ProtoNotFoundException("No Proto found for class " + protoSchema);
         }
+        List<ProtoField> fields = new ArrayList<>();
         for (Descriptors.FieldDescriptor field : currentProto.getFields()) {
-            ProtoField fieldModel = new ProtoField(field.toProto());
+            DescriptorProtos.FieldDescriptorProto fieldProto = field.toProto();
+            ProtoField fieldModel = new ProtoField(fieldProto);
             if (fieldModel.isNested()) {
                 if (protoSchema.substring(1).equals(currentProto.getFullName())) {
                     if (level >= MAX_NESTED_SCHEMA_LEVEL) {
                         continue;
                     }
                 }
-                fieldModel = parseFields(fieldModel, field.toProto().getTypeName(), allDescriptors, typeNameToPackageNameMap, level + 1);
+                List<ProtoField> nestedFields = parseFields(fieldProto.getTypeName(), allDescriptors, typeNameToPackageNameMap, level + 1, parsedTypes);
+                fieldModel = new ProtoField(fieldProto.getName(), fieldProto.getTypeName(), fieldProto.getType(), fieldProto.getLabel(),
+                        nestedFields, fieldProto.getNumber());
             }
-            protoField.addField(fieldModel);
+            fields.add(fieldModel);
         }
-        return protoField;
+        List<ProtoField> result = Collections.unmodifiableList(fields);
+        parsedTypes.put(parsedTypeKey, result);
+        return result;
     }
 }
@@ -11,38 +11,55 @@ import io.odpf.depot.message.SinkConnectorSchemaMessageMode;
 import io.odpf.depot.message.OdpfMessage;
 import io.odpf.depot.message.OdpfMessageSchema;
 import io.odpf.depot.config.OdpfSinkConfig;
+import io.odpf.depot.error.SampledErrorReporter;
+import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.ProtoParserMetrics;
 import io.odpf.depot.metrics.StatsDReporter;
 import io.odpf.depot.utils.StencilUtils;
+import io.odpf.stencil.SchemaUpdateListener;
 import io.odpf.stencil.StencilClientFactory;
 import io.odpf.stencil.client.StencilClient;
 import io.odpf.stencil.config.StencilConfig;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.util.HashSet;
+import java.time.Instant;
 import java.util.Map;
-import java.util.Set;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 @Slf4j
 public class ProtoOdpfMessageParser implements OdpfMessageParser {
-
     private final StencilClient stencilClient;
     private final ProtoFieldParser protoMappingParser = new ProtoFieldParser();
+    private final DescriptorCache descriptorCache = new DescriptorCache();
+    private final Instrumentation instrumentation;
+    private final ProtoParserMetrics protoParserMetrics;
+    private final SampledErrorReporter errorReporter = new SampledErrorReporter(ProtoOdpfMessageParser.class);
 
     public ProtoOdpfMessageParser(OdpfSinkConfig sinkConfig, StatsDReporter reporter, OdpfStencilUpdateListener protoUpdateListener) {
-        StencilConfig stencilConfig = StencilUtils.getStencilConfig(sinkConfig, reporter.getClient(), protoUpdateListener);
-        if (sinkConfig.isSchemaRegistryStencilEnable()) {
-            stencilClient = StencilClientFactory.getClient(sinkConfig.getSchemaRegistryStencilUrls(), stencilConfig);
-        } else {
-            stencilClient = StencilClientFactory.getClient();
-        }
+        this(sinkConfig, reporter, createStencilClient(sinkConfig, reporter, protoUpdateListener));
+    }
+
+    /**
+     * Parser on a stencil client that may be shared with other parsers.
+     */
+    public ProtoOdpfMessageParser(OdpfSinkConfig sinkConfig, StatsDReporter reporter, StencilClient stencilClient) {
+        this.instrumentation = new Instrumentation(reporter, ProtoOdpfMessageParser.class);
+        this.protoParserMetrics = new ProtoParserMetrics(sinkConfig);
+        this.stencilClient = stencilClient;
     }
 
     public ProtoOdpfMessageParser(StencilClient stencilClient) {
         this.stencilClient = stencilClient;
+        this.instrumentation = null;
+        this.protoParserMetrics = null;
+    }
+
+    public static StencilClient createStencilClient(OdpfSinkConfig sinkConfig, StatsDReporter reporter, SchemaUpdateListener updateListener) {
+        StencilConfig stencilConfig = StencilUtils.getStencilConfig(sinkConfig, reporter.getClient(), updateListener);
+        if (sinkConfig.isSchemaRegistryStencilEnable()) {
+            return StencilClientFactory.getClient(sinkConfig.getSchemaRegistryStencilUrls(), stencilConfig);
+        }
+        return StencilClientFactory.getClient();
     }
 
     public ParsedOdpfMessage parse(OdpfMessage message, SinkConnectorSchemaMessageMode type, String schemaClass) throws IOException {
@@ -61,11 +78,13 @@ public class ProtoOdpfMessageParser implements OdpfMessageParser {
                 throw new ConfigurationException("Schema type not supported");
         }
         if (payload == null || payload.length == 0) {
-            log.info("empty message found {}", message.getMetadataString());
+            if (errorReporter.record("empty_message")) {
+                log.info("empty message found {}", message.getMetadataString());
+            }
             throw new EmptyMessageException();
         }
         DynamicMessage dynamicMessage = stencilClient.parse(schemaClass, payload);
-        return new ProtoOdpfParsedMessage(dynamicMessage);
+        return new ProtoOdpfParsedMessage(dynamicMessage, errorReporter);
     }
 
     public Map<String, Descriptors.Descriptor> getDescriptorMap() {
@@ -74,29 +93,17 @@ public class ProtoOdpfMessageParser implements OdpfMessageParser {
 
     @Override
     public OdpfMessageSchema getSchema(String schemaClass) throws IOException {
-        ProtoField protoField = new ProtoField();
-        protoField = protoMappingParser.parseFields(protoField, schemaClass, getDescriptorMap(),
-                getTypeNameToPackageNameMap(getDescriptorMap()));
-        return new ProtoOdpfMessageSchema(protoField);
-    }
-
-    private Map<String, String> getTypeNameToPackageNameMap(Map<String, Descriptors.Descriptor> descriptors) {
-        return descriptors.entrySet().stream()
-                .filter(distinctByFullName(t -> t.getValue().getFullName()))
-                .collect(Collectors.toMap(
-                        (mapEntry) -> String.format(".%s", mapEntry.getValue().getFullName()),
-                        Map.Entry::getKey));
-    }
-
-    private <T> Predicate<T> distinctByFullName(Function<? super T, Object> keyExtractor) {
-        Set<Object> objects = new HashSet<>();
-        return t -> objects.add(keyExtractor.apply(t));
+        return getSchema(schemaClass, getDescriptorMap());
     }
 
     public OdpfMessageSchema getSchema(String schemaClass, Map<String, Descriptors.Descriptor> newDescriptors) throws IOException {
+        Instant start = Instant.now();
         ProtoField protoField = new ProtoField();
         protoField = protoMappingParser.parseFields(protoField, schemaClass, newDescriptors,
-                getTypeNameToPackageNameMap(newDescriptors));
+                descriptorCache.getTypeNameToPackageNameMap(newDescriptors));
+        if (instrumentation != null) {
+            instrumentation.captureDurationSince(protoParserMetrics.getProtoSchemaBuildTimeTakenMetric(), start);
+        }
         return new ProtoOdpfMessageSchema(protoField);
     }
 }
@@ -1,6 +1,7 @@
 package io.odpf.depot.message.proto;
 
 import com.google.gson.Gson;
+import com.google.protobuf.Descriptors;
 import com.google.gson.reflect.TypeToken;
 import io.odpf.depot.message.OdpfMessageSchema;
 import lombok.Getter;
@@ -16,6 +17,7 @@ public class ProtoOdpfMessageSchema implements OdpfMessageSchema {
     private final ProtoField protoField;
     private static final Gson GSON = new Gson();
     private final Properties properties;
+    private volatile ProtoColumnPlan columnPlan;
 
     public ProtoOdpfMessageSchema(ProtoField protoField) throws IOException {
         this(protoField, createProperties(protoField));
@@ -31,6 +33,19 @@ public class ProtoOdpfMessageSchema implements OdpfMessageSchema {
         return this.properties;
     }
 
+    /**
+     * Column mapping compiled for the given message descriptor. The plan is compiled once and reused as long as
+     * messages are parsed with the same descriptor, a schema update creates a new schema instance.
+     */
+    public ProtoColumnPlan getColumnPlan(Descriptors.Descriptor descriptor) {
+        ProtoColumnPlan plan = columnPlan;
+        if (plan == null || plan.getDescriptor() != descriptor) {
+            plan = ProtoColumnPlan.compile(descriptor, properties);
+            columnPlan = plan;
+        }
+        return plan;
+    }
+
     private static Properties createProperties(ProtoField protoField) throws IOException {
         String protoMappingString = ProtoMapper.generateColumnMappings(protoField.getFields());
         Type type = new TypeToken<Map<String, Object>>() {
@@ -15,12 +15,16 @@ public class ByteProtoField implements ProtoField {
 
     @Override
     public Object getValue() {
+        return convert(fieldValue);
+    }
+
+    static Object convert(Object fieldValue) {
         ByteString byteString = (ByteString) fieldValue;
         byte[] bytes = byteString.toStringUtf8().getBytes();
         return base64Encode(bytes);
     }
 
-    private String base64Encode(byte[] bytes) {
+    private static String base64Encode(byte[] bytes) {
         return new String(Base64.getEncoder().encode(bytes));
     }
 
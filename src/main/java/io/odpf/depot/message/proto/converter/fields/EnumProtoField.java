@@ -13,9 +13,13 @@ public class EnumProtoField implements ProtoField {
 
     @Override
     public Object getValue() {
-        if (descriptor.isRepeated()) {
+        return convert(fieldValue);
+    }
+
+    static Object convert(Object fieldValue) {
+        if (fieldValue instanceof List) {
             List<Descriptors.EnumValueDescriptor> enumValues = ((List<Descriptors.EnumValueDescriptor>) (fieldValue));
-            List<String> enumStrValues = new ArrayList<>();
+            List<String> enumStrValues = new ArrayList<>(enumValues.size());
             for (Descriptors.EnumValueDescriptor enumVal : enumValues) {
                 enumStrValues.add(enumVal.toString());
             }
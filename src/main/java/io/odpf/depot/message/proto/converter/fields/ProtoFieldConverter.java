@@ -0,0 +1,10 @@
+package io.odpf.depot.message.proto.converter.fields;
+
+/**
+ * Stateless conversion of a proto field value into its column value, resolved once per field descriptor
+ * by {@link ProtoFieldFactory#getConverter}.
+ */
+public interface ProtoFieldConverter {
+
+    Object convert(Object fieldValue);
+}
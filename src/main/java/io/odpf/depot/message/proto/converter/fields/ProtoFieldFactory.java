@@ -3,10 +3,19 @@ package io.odpf.depot.message.proto.converter.fields;
 import com.google.protobuf.Descriptors;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
 
 public class ProtoFieldFactory {
+    private static final ProtoFieldConverter TIMESTAMP_CONVERTER = TimestampProtoField::convert;
+    private static final ProtoFieldConverter ENUM_CONVERTER = EnumProtoField::convert;
+    private static final ProtoFieldConverter BYTE_CONVERTER = ByteProtoField::convert;
+    private static final ProtoFieldConverter STRUCT_CONVERTER = StructProtoField::convert;
+    private static final ProtoFieldConverter IDENTITY_CONVERTER = fieldValue -> fieldValue;
+    private static final Map<Descriptors.FieldDescriptor, ProtoFieldConverter> CONVERTERS = Collections.synchronizedMap(new WeakHashMap<>());
 
     public static ProtoField getField(Descriptors.FieldDescriptor descriptor, Object fieldValue) {
         List<ProtoField> protoFields = Arrays.asList(
@@ -23,4 +32,28 @@ public class ProtoFieldFactory {
         return first.orElseGet(() -> new DefaultProtoField(fieldValue));
     }
 
+    /**
+     * Converter giving the same value as {@code getField(descriptor, fieldValue).getValue()}.
+     * The field kind only depends on the descriptor, so it is matched once and cached per descriptor.
+     */
+    public static ProtoFieldConverter getConverter(Descriptors.FieldDescriptor descriptor) {
+        return CONVERTERS.computeIfAbsent(descriptor, ProtoFieldFactory::resolveConverter);
+    }
+
+    private static ProtoFieldConverter resolveConverter(Descriptors.FieldDescriptor descriptor) {
+        ProtoField protoField = getField(descriptor, descriptor.isRepeated() ? Collections.emptyList() : null);
+        if (protoField instanceof TimestampProtoField) {
+            return TIMESTAMP_CONVERTER;
+        }
+        if (protoField instanceof EnumProtoField) {
+            return ENUM_CONVERTER;
+        }
+        if (protoField instanceof ByteProtoField) {
+            return BYTE_CONVERTER;
+        }
+        if (protoField instanceof StructProtoField) {
+            return STRUCT_CONVERTER;
+        }
+        return IDENTITY_CONVERTER;
+    }
 }
@@ -12,14 +12,20 @@ import java.util.List;
 
 @AllArgsConstructor
 public class StructProtoField implements ProtoField {
+    private static final JsonFormat.Printer PRINTER = JsonFormat.printer().omittingInsignificantWhitespace();
+
     private final Descriptors.FieldDescriptor descriptor;
     private final Object fieldValue;
 
     @Override
     public Object getValue() {
+        return convert(fieldValue);
+    }
+
+    static Object convert(Object fieldValue) {
         try {
             if (fieldValue instanceof Collection<?>) {
-                List<String> structStrValues = new ArrayList<>();
+                List<String> structStrValues = new ArrayList<>(((Collection<?>) fieldValue).size());
                 for (Object field : (Collection<?>) fieldValue) {
                     structStrValues.add(getString(field));
                 }
@@ -31,10 +37,8 @@ public class StructProtoField implements ProtoField {
         }
     }
 
-    private String getString(Object field) throws InvalidProtocolBufferException {
-        return JsonFormat.printer()
-                .omittingInsignificantWhitespace()
-                .print((DynamicMessage) field);
+    private static String getString(Object field) throws InvalidProtocolBufferException {
+        return PRINTER.print((DynamicMessage) field);
     }
 
     @Override
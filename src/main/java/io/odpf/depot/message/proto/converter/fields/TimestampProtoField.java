@@ -17,8 +17,12 @@ public class TimestampProtoField implements ProtoField {
 
     @Override
     public Object getValue() {
+        return convert(fieldValue);
+    }
+
+    static Object convert(Object fieldValue) {
         if (fieldValue instanceof Collection<?>) {
-            List<DateTime> tsValues = new ArrayList<>();
+            List<DateTime> tsValues = new ArrayList<>(((Collection<?>) fieldValue).size());
             for (Object field : (Collection<?>) fieldValue) {
                 tsValues.add(getTime(field));
             }
@@ -28,12 +32,12 @@ public class TimestampProtoField implements ProtoField {
         return getTime(fieldValue);
     }
 
-    private DateTime getTime(Object field) {
+    private static DateTime getTime(Object field) {
         DynamicMessage dynamicField = (DynamicMessage) field;
         List<Descriptors.FieldDescriptor> descriptors = dynamicField.getDescriptorForType().getFields();
-        List<Object> timeFields = new ArrayList<>();
-        descriptors.forEach(desc -> timeFields.add(dynamicField.getField(desc)));
-        Instant time = Instant.ofEpochSecond((long) timeFields.get(0), ((Integer) timeFields.get(1)).longValue());
+        long seconds = (long) dynamicField.getField(descriptors.get(0));
+        int nanos = (int) dynamicField.getField(descriptors.get(1));
+        Instant time = Instant.ofEpochSecond(seconds, nanos);
         return new DateTime(time.toEpochMilli());
     }
 
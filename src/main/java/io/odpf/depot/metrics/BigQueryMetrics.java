@@ -14,6 +14,7 @@ public class BigQueryMetrics extends SinkMetrics {
         DATASET_UPDATE,
         DATASET_CREATE,
         TABLE_INSERT_ALL,
+        TABLE_APPEND_ROWS,
     }
 
     public enum BigQueryErrorType {
@@ -23,11 +24,25 @@ public class BigQueryMetrics extends SinkMetrics {
         STOPPED_ERROR,
     }
 
+    public enum BigQuerySinkStage {
+        DESERIALIZE,
+        VALIDATE,
+        COLUMN_MAPPING,
+        METADATA_ENRICHMENT,
+        ROW_BUILDING,
+        REQUEST_SERIALIZATION,
+        NETWORK,
+        ERROR_HANDLING,
+    }
+
     public static final String BIGQUERY_SINK_PREFIX = "bigquery_";
     public static final String BIGQUERY_TABLE_TAG = "table=%s";
     public static final String BIGQUERY_DATASET_TAG = "dataset=%s";
     public static final String BIGQUERY_API_TAG = "api=%s";
     public static final String BIGQUERY_ERROR_TAG = "error=%s";
+    public static final String BIGQUERY_METADATA_TAG = "metadata=%s";
+    public static final String BIGQUERY_INIT_PHASE_TAG = "phase=%s";
+    public static final String BIGQUERY_STAGE_TAG = "stage=%s";
 
     public String getBigqueryOperationTotalMetric() {
         return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "operation_total";
@@ -40,4 +55,76 @@ public class BigQueryMetrics extends SinkMetrics {
     public String getBigqueryTotalErrorsMetrics() {
         return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "errors_total";
     }
+
+    public String getBigqueryRetryTotalMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "retry_total";
+    }
+
+    public String getBigqueryRetryRecordsTotalMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "retry_records_total";
+    }
+
+    public String getBigqueryRetryLatencyMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "retry_latency_milliseconds";
+    }
+
+    public String getBigquerySpillRecordsTotalMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "spill_records_total";
+    }
+
+    public String getBigquerySpillSizeBytesMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "spill_size_bytes";
+    }
+
+    public String getBigquerySpillAgeMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "spill_age_milliseconds";
+    }
+
+    public String getBigqueryReplayRecordsTotalMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "replay_records_total";
+    }
+
+    public String getBigqueryReplayRejectedRecordsTotalMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "replay_rejected_records_total";
+    }
+
+    public String getBigqueryReplayQuarantinedSegmentsTotalMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "replay_quarantined_segments_total";
+    }
+
+    public String getBigqueryReplayLatencyMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "replay_latency_milliseconds";
+    }
+
+    public String getBigqueryCircuitBreakerStateMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "circuit_breaker_state";
+    }
+
+    public String getBigqueryCircuitBreakerRejectedTotalMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "circuit_breaker_rejected_total";
+    }
+
+    public String getBigqueryMetadataCacheHitTotalMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "metadata_cache_hit_total";
+    }
+
+    public String getBigqueryMetadataCacheMissTotalMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "metadata_cache_miss_total";
+    }
+
+    public String getBigquerySinkInitLatencyMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "init_latency_milliseconds";
+    }
+
+    public String getBigqueryStageLatencyMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "stage_latency_milliseconds";
+    }
+
+    public String getBigqueryBatchSizeMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "batch_size";
+    }
+
+    public String getBigqueryBatchBytesMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + BIGQUERY_SINK_PREFIX + "batch_bytes";
+    }
 }
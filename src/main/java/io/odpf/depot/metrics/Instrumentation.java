@@ -91,6 +91,13 @@ public class Instrumentation implements Closeable {
         statsDReporter.captureDuration(metric, duration, tags);
     }
 
+    /**
+     * Pre-resolved handle for a metric emitted on a hot path, see {@link StatsDMetric}.
+     */
+    public StatsDMetric metric(String metric, String... tags) {
+        return statsDReporter.metric(metric, tags);
+    }
+
 
     // =================== ERROR ===================
 
@@ -0,0 +1,27 @@
+package io.odpf.depot.metrics;
+
+import io.odpf.depot.config.OdpfSinkConfig;
+
+public class LogSinkMetrics extends SinkMetrics {
+    public LogSinkMetrics(OdpfSinkConfig config) {
+        super(config);
+    }
+
+    public static final String LOG_SINK_PREFIX = "log_";
+
+    public String getLogSinkDroppedMessagesMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + LOG_SINK_PREFIX + "dropped_messages_total";
+    }
+
+    public String getLogSinkSampledOutMessagesMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + LOG_SINK_PREFIX + "sampled_out_messages_total";
+    }
+
+    public String getLogSinkFlushBatchSizeMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + LOG_SINK_PREFIX + "flush_batch_size";
+    }
+
+    public String getLogSinkFlushLatencyMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + LOG_SINK_PREFIX + "flush_latency_milliseconds";
+    }
+}
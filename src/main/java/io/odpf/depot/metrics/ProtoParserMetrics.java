@@ -0,0 +1,15 @@
+package io.odpf.depot.metrics;
+
+import io.odpf.depot.config.OdpfSinkConfig;
+
+public class ProtoParserMetrics extends SinkMetrics {
+    public ProtoParserMetrics(OdpfSinkConfig config) {
+        super(config);
+    }
+
+    public static final String PROTO_SCHEMA_PREFIX = "proto_schema_";
+
+    public String getProtoSchemaBuildTimeTakenMetric() {
+        return getApplicationPrefix() + SINK_PREFIX + PROTO_SCHEMA_PREFIX + "build_milliseconds";
+    }
+}
@@ -0,0 +1,47 @@
+package io.odpf.depot.metrics;
+
+import com.timgroup.statsd.StatsDClient;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Metric with its name and tags resolved once, created with {@link StatsDReporter#metric}.
+ * Emitting through it does not build any string, so hot paths can hold one per metric and tag combination.
+ */
+public class StatsDMetric {
+    private static final String[] NO_TAGS = new String[0];
+
+    private final StatsDClient client;
+    @Getter
+    private final String name;
+
+    StatsDMetric(StatsDClient client, String name) {
+        this.client = client;
+        this.name = name;
+    }
+
+    public void increment() {
+        client.count(name, 1L, NO_TAGS);
+    }
+
+    public void count(long delta) {
+        client.count(name, delta, NO_TAGS);
+    }
+
+    public void histogram(long value) {
+        client.time(name, value, NO_TAGS);
+    }
+
+    public void gauge(int value) {
+        client.gauge(name, value, NO_TAGS);
+    }
+
+    public void duration(long millis) {
+        client.recordExecutionTime(name, millis, NO_TAGS);
+    }
+
+    public void durationSince(Instant start) {
+        duration(System.currentTimeMillis() - start.toEpochMilli());
+    }
+}
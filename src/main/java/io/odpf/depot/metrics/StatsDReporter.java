@@ -8,13 +8,12 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class StatsDReporter implements Closeable {
 
     private final StatsDClient client;
     private final String globalTags;
+    private static final int TAG_CAPACITY = 32;
     private static final Logger LOGGER = LoggerFactory.getLogger(StatsDReporter.class);
 
     public StatsDReporter(StatsDClient client, String... globalTags) {
@@ -54,13 +53,20 @@ public class StatsDReporter implements Closeable {
         client.recordSetValue(withTags(metric, tags), eventName);
     }
 
-    private String withGlobalTags(String metric) {
-        return metric + "," + this.globalTags;
+    /**
+     * Handle for the metric with the global and the given tags already appended to its name.
+     */
+    public StatsDMetric metric(String metric, String... tags) {
+        return new StatsDMetric(client, withTags(metric, tags));
     }
 
     private String withTags(String metric, String... tags) {
-        return Stream.concat(Stream.of(withGlobalTags(metric)), Stream.of(tags))
-                .collect(Collectors.joining(","));
+        StringBuilder name = new StringBuilder(globalTags.length() + TAG_CAPACITY * (tags.length + 2))
+                .append(metric).append(',').append(globalTags);
+        for (String tag : tags) {
+            name.append(',').append(tag);
+        }
+        return name.toString();
     }
 
     @Override
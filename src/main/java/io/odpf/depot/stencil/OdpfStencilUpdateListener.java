@@ -6,9 +6,14 @@ import io.odpf.stencil.SchemaUpdateListener;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Map;
 
-public abstract class OdpfStencilUpdateListener implements SchemaUpdateListener {
+/**
+ * Applies schema updates of a sink, closed by the sink factory that created it.
+ */
+public abstract class OdpfStencilUpdateListener implements SchemaUpdateListener, Closeable {
     @Getter
     @Setter
     private OdpfMessageParser odpfMessageParser;
@@ -18,4 +23,9 @@ public abstract class OdpfStencilUpdateListener implements SchemaUpdateListener
     }
 
     public abstract void updateSchema();
+
+    @Override
+    public void close() throws IOException {
+        // nothing to release by default
+    }
 }
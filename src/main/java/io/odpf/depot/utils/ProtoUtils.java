@@ -1,6 +1,8 @@
 package io.odpf.depot.utils;
 
+import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
 
 import java.util.Collections;
 import java.util.LinkedList;
@@ -9,6 +11,24 @@ import java.util.Queue;
 import java.util.stream.Collectors;
 
 public class ProtoUtils {
+    /**
+     * Whether a field has no value to map. Same outcome as {@code message.getField(field).toString().isEmpty()}
+     * without rendering the value: empty repeated fields, unset or empty messages and empty strings.
+     */
+    public static boolean isEmptyField(Message message, Descriptors.FieldDescriptor field) {
+        if (field.isRepeated()) {
+            return message.getRepeatedFieldCount(field) == 0;
+        }
+        switch (field.getJavaType()) {
+            case MESSAGE:
+                return !message.hasField(field) || ((Message) message.getField(field)).getSerializedSize() == 0;
+            case STRING:
+                return ((String) message.getField(field)).isEmpty();
+            default:
+                return false;
+        }
+    }
+
     public static boolean hasUnknownField(DynamicMessage root) {
         List<DynamicMessage> dynamicMessageFields = collectNestedFields(root);
         List<DynamicMessage> messageWithUnknownFields = getMessageWithUnknownFields(dynamicMessageFields);
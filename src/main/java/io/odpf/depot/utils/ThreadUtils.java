@@ -0,0 +1,19 @@
+package io.odpf.depot.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ThreadUtils {
+    /**
+     * Daemon threads named {@code <prefix>-<n>}, so pools of the library never keep the jvm alive and show up by name
+     * in thread dumps.
+     */
+    public static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,196 @@
+package io.odpf.depot;
+
+import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.error.ErrorType;
+import io.odpf.depot.exception.OdpfSinkException;
+import io.odpf.depot.message.OdpfMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+public class BufferedOdpfSinkTest {
+
+    private static OdpfMessage message(String payload) {
+        return new OdpfMessage(null, payload.getBytes());
+    }
+
+    @Test
+    public void shouldCoalesceCallsUntilMaxRowsAndSplitErrorsPerCaller() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.failedPayloads.addAll(Arrays.asList("b", "d"));
+        BufferedOdpfSink bufferedSink = new BufferedOdpfSink(sink, 4, Long.MAX_VALUE, 60_000, mock(ScheduledExecutorService.class));
+
+        CompletableFuture<OdpfSinkResponse> first = bufferedSink.pushToSinkAsync(Arrays.asList(message("a"), message("b")));
+        CompletableFuture<OdpfSinkResponse> second = bufferedSink.pushToSinkAsync(Collections.singletonList(message("c")));
+        Assert.assertTrue(sink.batches.isEmpty());
+        Assert.assertFalse(first.isDone());
+        CompletableFuture<OdpfSinkResponse> third = bufferedSink.pushToSinkAsync(Collections.singletonList(message("d")));
+
+        Assert.assertEquals(1, sink.batches.size());
+        Assert.assertEquals(4, sink.batches.get(0).size());
+        Assert.assertEquals(Collections.singleton(1L), first.get().getErrors().keySet());
+        Assert.assertFalse(second.get().hasErrors());
+        Assert.assertEquals(Collections.singleton(0L), third.get().getErrors().keySet());
+    }
+
+    @Test
+    public void shouldFlushOnceMaxBytesAreBuffered() {
+        RecordingSink sink = new RecordingSink();
+        BufferedOdpfSink bufferedSink = new BufferedOdpfSink(sink, 1000, 10, 60_000, mock(ScheduledExecutorService.class));
+
+        bufferedSink.pushToSinkAsync(Collections.singletonList(message("12345")));
+        Assert.assertTrue(sink.batches.isEmpty());
+        bufferedSink.pushToSinkAsync(Collections.singletonList(message("67890")));
+
+        Assert.assertEquals(1, sink.batches.size());
+        Assert.assertEquals(2, sink.batches.get(0).size());
+    }
+
+    @Test
+    public void shouldFlushBufferAfterLinger() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        BufferedOdpfSink bufferedSink = new BufferedOdpfSink(sink, 1000, Long.MAX_VALUE, 50);
+
+        CompletableFuture<OdpfSinkResponse> response = bufferedSink.pushToSinkAsync(Collections.singletonList(message("a")));
+
+        Assert.assertFalse(response.get(5, TimeUnit.SECONDS).hasErrors());
+        Assert.assertEquals(1, sink.batches.size());
+        bufferedSink.close();
+    }
+
+    @Test
+    public void shouldFlushAfterLingerOnNamedDaemonThread() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        BufferedOdpfSink bufferedSink = new BufferedOdpfSink(sink, 1000, Long.MAX_VALUE, 50);
+
+        bufferedSink.pushToSinkAsync(Collections.singletonList(message("a"))).get(5, TimeUnit.SECONDS);
+        bufferedSink.close();
+
+        Assert.assertTrue(sink.thread.getName(), sink.thread.getName().startsWith("buffered-odpf-sink-"));
+        Assert.assertTrue(sink.thread.isDaemon());
+    }
+
+    @Test
+    public void shouldFlushBufferedMessagesOnClose() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        BufferedOdpfSink bufferedSink = new BufferedOdpfSink(sink, 1000, Long.MAX_VALUE, 60_000);
+
+        CompletableFuture<OdpfSinkResponse> response = bufferedSink.pushToSinkAsync(Collections.singletonList(message("a")));
+        bufferedSink.close();
+
+        Assert.assertTrue(response.isDone());
+        Assert.assertEquals(1, sink.batches.size());
+        Assert.assertTrue(sink.closed);
+        Assert.assertTrue(bufferedSink.pushToSinkAsync(Collections.singletonList(message("b"))).isCompletedExceptionally());
+    }
+
+    @Test
+    public void shouldFailEveryCallerWhenWrappedSinkFails() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.exception = new OdpfSinkException("bigquery is down", null);
+        BufferedOdpfSink bufferedSink = new BufferedOdpfSink(sink, 2, Long.MAX_VALUE, 60_000, mock(ScheduledExecutorService.class));
+
+        CompletableFuture<OdpfSinkResponse> first = bufferedSink.pushToSinkAsync(Collections.singletonList(message("a")));
+        try {
+            bufferedSink.pushToSink(Collections.singletonList(message("b")));
+            Assert.fail("expected the wrapped sink exception");
+        } catch (OdpfSinkException e) {
+            Assert.assertSame(sink.exception, e);
+        }
+        try {
+            first.get();
+            Assert.fail("expected the wrapped sink exception");
+        } catch (ExecutionException e) {
+            Assert.assertSame(sink.exception, e.getCause());
+        }
+    }
+
+    @Test
+    public void shouldWriteSynchronousCallRightAwayWhenNoAsynchronousCallerIsBuffered() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.failedPayloads.add("b");
+        BufferedOdpfSink bufferedSink = new BufferedOdpfSink(sink, 1000, Long.MAX_VALUE, 60_000, mock(ScheduledExecutorService.class));
+
+        OdpfSinkResponse response = bufferedSink.pushToSink(Arrays.asList(message("a"), message("b")));
+
+        Assert.assertEquals(1, sink.batches.size());
+        Assert.assertEquals(Collections.singleton(1L), response.getErrors().keySet());
+    }
+
+    @Test
+    public void shouldBufferACopyOfTheCallersMessages() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        BufferedOdpfSink bufferedSink = new BufferedOdpfSink(sink, 1000, Long.MAX_VALUE, 60_000, mock(ScheduledExecutorService.class));
+        List<OdpfMessage> messages = new ArrayList<>(Arrays.asList(message("a"), message("b")));
+
+        bufferedSink.pushToSinkAsync(messages);
+        messages.clear();
+        bufferedSink.close();
+
+        Assert.assertEquals(1, sink.batches.size());
+        Assert.assertEquals(2, sink.batches.get(0).size());
+    }
+
+    @Test
+    public void shouldFailEveryCallerWhenResponseCannotBeSplit() throws Exception {
+        OdpfSink sink = new OdpfSink() {
+            @Override
+            public OdpfSinkResponse pushToSink(List<OdpfMessage> messages) {
+                OdpfSinkResponse response = new OdpfSinkResponse();
+                response.addErrors(-1, new ErrorInfo(null, ErrorType.DEFAULT_ERROR));
+                return response;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        BufferedOdpfSink bufferedSink = new BufferedOdpfSink(sink, 2, Long.MAX_VALUE, 60_000, mock(ScheduledExecutorService.class));
+
+        CompletableFuture<OdpfSinkResponse> first = bufferedSink.pushToSinkAsync(Collections.singletonList(message("a")));
+        CompletableFuture<OdpfSinkResponse> second = bufferedSink.pushToSinkAsync(Collections.singletonList(message("b")));
+
+        Assert.assertTrue(first.isCompletedExceptionally());
+        Assert.assertTrue(second.isCompletedExceptionally());
+    }
+
+    private static class RecordingSink implements OdpfSink {
+        private final List<List<OdpfMessage>> batches = new ArrayList<>();
+        private final List<String> failedPayloads = new ArrayList<>();
+        private volatile Thread thread;
+        private OdpfSinkException exception;
+        private boolean closed;
+
+        @Override
+        public OdpfSinkResponse pushToSink(List<OdpfMessage> messages) throws OdpfSinkException {
+            batches.add(new ArrayList<>(messages));
+            thread = Thread.currentThread();
+            if (exception != null) {
+                throw exception;
+            }
+            OdpfSinkResponse response = new OdpfSinkResponse();
+            for (int i = 0; i < messages.size(); i++) {
+                if (failedPayloads.contains(new String((byte[]) messages.get(i).getLogMessage()))) {
+                    response.addErrors(i, new ErrorInfo(null, ErrorType.DEFAULT_ERROR));
+                }
+            }
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+        }
+    }
+}
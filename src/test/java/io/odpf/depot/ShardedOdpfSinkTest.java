@@ -0,0 +1,158 @@
+package io.odpf.depot;
+
+import io.odpf.depot.common.Tuple;
+import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.error.ErrorType;
+import io.odpf.depot.exception.OdpfSinkException;
+import io.odpf.depot.message.OdpfMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class ShardedOdpfSinkTest {
+
+    private static OdpfMessage message(int partition, long offset) {
+        return new OdpfMessage(null, ("offset-" + offset).getBytes(),
+                new Tuple<>("message_partition", partition), new Tuple<>("message_offset", offset));
+    }
+
+    @Test
+    public void shouldKeepOrderOfMessagesWithSameKeyInOneSink() throws Exception {
+        List<RecordingSink> sinks = Arrays.asList(new RecordingSink(null), new RecordingSink(null), new RecordingSink(null));
+        ShardedOdpfSink shardedSink = new ShardedOdpfSink(new ArrayList<>(sinks), ShardedOdpfSink.metadataKey("message_partition"),
+                Executors.newFixedThreadPool(3));
+        List<OdpfMessage> messages = new ArrayList<>();
+        for (long offset = 0; offset < 30; offset++) {
+            messages.add(message((int) (offset % 5), offset));
+        }
+
+        OdpfSinkResponse response = shardedSink.pushToSink(messages);
+        shardedSink.close();
+
+        Assert.assertFalse(response.hasErrors());
+        Set<Object> seenPartitions = new HashSet<>();
+        int total = 0;
+        for (RecordingSink sink : sinks) {
+            Assert.assertTrue(sink.closed);
+            Set<Object> partitions = sink.messages.stream().map(m -> m.getMetadata().get("message_partition")).collect(Collectors.toSet());
+            Assert.assertTrue(Collections.disjoint(seenPartitions, partitions));
+            seenPartitions.addAll(partitions);
+            for (Object partition : partitions) {
+                List<Long> offsets = sink.messages.stream()
+                        .filter(m -> partition.equals(m.getMetadata().get("message_partition")))
+                        .map(m -> (Long) m.getMetadata().get("message_offset"))
+                        .collect(Collectors.toList());
+                List<Long> sorted = new ArrayList<>(offsets);
+                Collections.sort(sorted);
+                Assert.assertEquals(sorted, offsets);
+                Assert.assertEquals(6, offsets.size());
+            }
+            total += sink.messages.size();
+        }
+        Assert.assertEquals(30, total);
+    }
+
+    @Test
+    public void shouldPushShardsConcurrentlyAndMergeErrorsToBatchIndexes() throws Exception {
+        CountDownLatch allShardsStarted = new CountDownLatch(2);
+        List<RecordingSink> sinks = Arrays.asList(new RecordingSink(allShardsStarted), new RecordingSink(allShardsStarted));
+        sinks.forEach(sink -> sink.failSecondMessage = true);
+        ShardedOdpfSink shardedSink = new ShardedOdpfSink(new ArrayList<>(sinks), ShardedOdpfSink.metadataKey("message_partition"),
+                Executors.newFixedThreadPool(2));
+        List<OdpfMessage> messages = Arrays.asList(message(0, 0), message(1, 1), message(0, 2), message(1, 3), message(0, 4));
+
+        OdpfSinkResponse response = shardedSink.pushToSink(messages);
+        shardedSink.close();
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(2L, 3L)), response.getErrors().keySet());
+    }
+
+    @Test
+    public void shouldCreateOneSinkPerShardAndRethrowSinkFailures() throws Exception {
+        List<RecordingSink> created = new ArrayList<>();
+        ShardedOdpfSink shardedSink = new ShardedOdpfSink(() -> {
+            RecordingSink sink = new RecordingSink(null);
+            sink.exception = new OdpfSinkException("bigquery is down", null);
+            created.add(sink);
+            return sink;
+        }, 4, ShardedOdpfSink.logKey());
+
+        try {
+            shardedSink.pushToSink(Arrays.asList(new OdpfMessage("a".getBytes(), "1".getBytes()), new OdpfMessage("b".getBytes(), "2".getBytes())));
+            Assert.fail("expected the sink exception");
+        } catch (OdpfSinkException e) {
+            Assert.assertEquals("bigquery is down", e.getMessage());
+        }
+        shardedSink.close();
+        Assert.assertEquals(4, created.size());
+    }
+
+    @Test
+    public void shouldPushShardsOnNamedDaemonThreads() throws Exception {
+        List<RecordingSink> created = new ArrayList<>();
+        ShardedOdpfSink shardedSink = new ShardedOdpfSink(() -> {
+            RecordingSink sink = new RecordingSink(null);
+            created.add(sink);
+            return sink;
+        }, 2, ShardedOdpfSink.metadataKey("message_partition"));
+
+        shardedSink.pushToSink(Arrays.asList(message(0, 0), message(1, 1)));
+        shardedSink.close();
+
+        Thread poolThread = created.get(0).thread;
+        Assert.assertTrue(poolThread.getName(), poolThread.getName().startsWith("sharded-odpf-sink-"));
+        Assert.assertTrue(poolThread.isDaemon());
+        Assert.assertSame(Thread.currentThread(), created.get(1).thread);
+    }
+
+    private static class RecordingSink implements OdpfSink {
+        private final List<OdpfMessage> messages = Collections.synchronizedList(new ArrayList<>());
+        private volatile Thread thread;
+        private final CountDownLatch allShardsStarted;
+        private OdpfSinkException exception;
+        private boolean failSecondMessage;
+        private boolean closed;
+
+        RecordingSink(CountDownLatch allShardsStarted) {
+            this.allShardsStarted = allShardsStarted;
+        }
+
+        @Override
+        public OdpfSinkResponse pushToSink(List<OdpfMessage> batch) throws OdpfSinkException {
+            if (allShardsStarted != null) {
+                allShardsStarted.countDown();
+                try {
+                    Assert.assertTrue("shards were not pushed concurrently", allShardsStarted.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new OdpfSinkException("interrupted", e);
+                }
+            }
+            thread = Thread.currentThread();
+            if (exception != null) {
+                throw exception;
+            }
+            messages.addAll(batch);
+            OdpfSinkResponse response = new OdpfSinkResponse();
+            if (failSecondMessage && batch.size() > 1) {
+                response.addErrors(1, new ErrorInfo(null, ErrorType.DEFAULT_ERROR));
+            }
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.odpf.depot.bigquery;
+
+import io.odpf.depot.config.OdpfSinkConfig;
+import io.odpf.depot.metrics.StatsDReporter;
+import io.odpf.stencil.SchemaUpdateListener;
+import io.odpf.stencil.client.StencilClient;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+public class BigQuerySinkResourcesTest {
+
+    private OdpfSinkConfig createConfig(String stencilUrls) {
+        Map<String, String> env = new HashMap<>();
+        env.put("SCHEMA_REGISTRY_STENCIL_ENABLE", "false");
+        env.put("SCHEMA_REGISTRY_STENCIL_URLS", stencilUrls);
+        return ConfigFactory.create(OdpfSinkConfig.class, env);
+    }
+
+    @Test
+    public void shouldShareStencilClientBetweenConfigsWithSameRegistrySettings() {
+        BigQuerySinkResources resources = new BigQuerySinkResources();
+        StatsDReporter statsDReporter = mock(StatsDReporter.class);
+
+        StencilClient first = resources.getStencilClient(createConfig("http://stencil/descriptors"), statsDReporter);
+        StencilClient second = resources.getStencilClient(createConfig("http://stencil/descriptors"), statsDReporter);
+
+        Assert.assertSame(first, second);
+    }
+
+    @Test
+    public void shouldCreateSeparateStencilClientsForDifferentRegistries() {
+        BigQuerySinkResources resources = new BigQuerySinkResources();
+        StatsDReporter statsDReporter = mock(StatsDReporter.class);
+
+        StencilClient first = resources.getStencilClient(createConfig("http://stencil/descriptors"), statsDReporter);
+        StencilClient second = resources.getStencilClient(createConfig("http://other-stencil/descriptors"), statsDReporter);
+
+        Assert.assertNotSame(first, second);
+    }
+
+    @Test
+    public void shouldRemoveStencilUpdateListenerOfClosedFactory() {
+        BigQuerySinkResources resources = new BigQuerySinkResources();
+        OdpfSinkConfig config = createConfig("http://stencil/descriptors");
+        SchemaUpdateListener listener = mock(SchemaUpdateListener.class);
+        resources.addStencilUpdateListener(config, listener);
+
+        Assert.assertTrue(resources.removeStencilUpdateListener(config, listener));
+        Assert.assertFalse(resources.removeStencilUpdateListener(config, listener));
+    }
+
+    @Test
+    public void shouldRunInitOnDaemonThreadsUntilClosed() throws Exception {
+        BigQuerySinkResources resources = new BigQuerySinkResources();
+        resources.getStencilClient(createConfig("http://stencil/descriptors"), mock(StatsDReporter.class));
+
+        Thread initThread = resources.getExecutor().submit(Thread::currentThread).get();
+        resources.close();
+
+        Assert.assertTrue(initThread.isDaemon());
+        Assert.assertTrue(initThread.getName().startsWith("bigquery-sink-init-"));
+        Assert.assertTrue(resources.getExecutor().isShutdown());
+    }
+}
@@ -4,17 +4,24 @@ import com.google.cloud.bigquery.BigQueryError;
 import com.google.cloud.bigquery.InsertAllRequest;
 import com.google.cloud.bigquery.InsertAllResponse;
 import com.google.cloud.bigquery.TableId;
+import com.timgroup.statsd.StatsDClient;
 import io.odpf.depot.metrics.BigQueryMetrics;
 import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.StatsDMetric;
+import io.odpf.depot.metrics.StatsDReporter;
 import io.odpf.depot.OdpfSinkResponse;
 import io.odpf.depot.bigquery.client.BigQueryClient;
+import io.odpf.depot.bigquery.client.BigQueryRequestSplitter;
+import io.odpf.depot.bigquery.client.BigQueryRetryPolicy;
 import io.odpf.depot.bigquery.client.BigQueryRow;
 import io.odpf.depot.bigquery.client.BigQueryRowWithInsertId;
 import io.odpf.depot.bigquery.handler.ErrorHandler;
 import io.odpf.depot.bigquery.converter.MessageRecordConverter;
 import io.odpf.depot.bigquery.converter.MessageRecordConverterCache;
+import io.odpf.depot.bigquery.exception.BQCircuitOpenException;
 import io.odpf.depot.bigquery.models.Record;
 import io.odpf.depot.bigquery.models.Records;
+import io.odpf.depot.bigquery.spill.SpillLog;
 import io.odpf.depot.error.ErrorInfo;
 import io.odpf.depot.error.ErrorType;
 import io.odpf.depot.message.OdpfMessage;
@@ -27,9 +34,16 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 
 public class BigQuerySinkTest {
@@ -56,9 +70,10 @@ public class BigQuerySinkTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
+        Mockito.when(instrumentation.metric(Mockito.any(), Mockito.any(String[].class))).thenReturn(Mockito.mock(StatsDMetric.class));
         this.converterCache.setMessageRecordConverter(converter);
-        this.sink = new BigQuerySink(client, converterCache, rowCreator, metrics, instrumentation, errorHandler);
         Mockito.when(client.getTableID()).thenReturn(tableId);
+        this.sink = new BigQuerySink(client, converterCache, rowCreator, metrics, instrumentation, errorHandler);
     }
 
     @Test
@@ -181,4 +196,220 @@ public class BigQuerySinkTest {
         Assert.assertEquals(ErrorType.INVALID_MESSAGE_ERROR, response.getErrors().get(3L).getErrorType());
         Assert.assertEquals(ErrorType.SINK_4XX_ERROR, response.getErrors().get(4L).getErrorType());
     }
+
+    @Test
+    public void shouldSplitValidRecordsIntoRequestsAndMapErrorsBackToMessages() {
+        BigQuerySink splittingSink = new BigQuerySink(client, converterCache, rowCreator, metrics, instrumentation, errorHandler, null, new BigQueryRequestSplitter(2, 1024), null, BigQueryRetryPolicy.disabled(), null, 0, null);
+        List<OdpfMessage> messages = new ArrayList<>();
+        List<Record> validRecords = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TestMetadata metadata = new TestMetadata("topic1", 1, 101 + i, Instant.now().toEpochMilli(), Instant.now().toEpochMilli());
+            OdpfMessage message = TestOdpfMessageBuilder.withMetadata(metadata).createConsumerRecord("order-" + i, "order-url-" + i, "order-details-" + i);
+            messages.add(message);
+            validRecords.add(new Record(message.getMetadata(), new HashMap<>(), i, null));
+        }
+        Mockito.when(converter.convert(Mockito.eq(messages))).thenReturn(new Records(validRecords, java.util.Collections.emptyList()));
+        InsertAllRequest.Builder builder = InsertAllRequest.newBuilder(tableId);
+        validRecords.subList(2, 4).forEach((Record m) -> builder.addRow(rowCreator.of(m)));
+        InsertAllResponse failedResponse = Mockito.mock(InsertAllResponse.class);
+        Map<Long, List<BigQueryError>> insertErrorsMap = new HashMap<>();
+        insertErrorsMap.put(1L, Collections.list(new BigQueryError("invalid", "", "no such field")));
+        Mockito.when(failedResponse.hasErrors()).thenReturn(true);
+        Mockito.when(failedResponse.getInsertErrors()).thenReturn(insertErrorsMap);
+        Mockito.when(insertAllResponse.hasErrors()).thenReturn(false);
+        Mockito.when(client.insertAll(Mockito.any())).thenReturn(insertAllResponse);
+        Mockito.when(client.insertAll(builder.build())).thenReturn(failedResponse);
+
+        OdpfSinkResponse response = splittingSink.pushToSink(messages);
+
+        Mockito.verify(client, Mockito.times(3)).insertAll(Mockito.any());
+        Mockito.verify(errorHandler, Mockito.times(1)).handle(insertErrorsMap, validRecords.subList(2, 4));
+        Assert.assertEquals(1, response.getErrors().size());
+        Assert.assertEquals(ErrorType.SINK_4XX_ERROR, response.getErrors().get(3L).getErrorType());
+    }
+
+    @Test
+    public void shouldResendOnlyRecordsWithTransientErrors() {
+        BigQuerySink retryingSink = new BigQuerySink(client, converterCache, rowCreator, metrics, instrumentation, errorHandler, null, new BigQueryRequestSplitter(), null, new BigQueryRetryPolicy(2, 0, 0, 1000), null, 0, null);
+        List<OdpfMessage> messages = new ArrayList<>();
+        List<Record> validRecords = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TestMetadata metadata = new TestMetadata("topic1", 1, 101 + i, Instant.now().toEpochMilli(), Instant.now().toEpochMilli());
+            OdpfMessage message = TestOdpfMessageBuilder.withMetadata(metadata).createConsumerRecord("order-" + i, "order-url-" + i, "order-details-" + i);
+            messages.add(message);
+            validRecords.add(new Record(message.getMetadata(), new HashMap<>(), i, null));
+        }
+        Mockito.when(converter.convert(Mockito.eq(messages))).thenReturn(new Records(validRecords, java.util.Collections.emptyList()));
+        InsertAllRequest.Builder builder = InsertAllRequest.newBuilder(tableId);
+        validRecords.forEach((Record m) -> builder.addRow(rowCreator.of(m)));
+        InsertAllRequest.Builder retryBuilder = InsertAllRequest.newBuilder(tableId);
+        retryBuilder.addRow(rowCreator.of(validRecords.get(1)));
+        InsertAllResponse failedResponse = Mockito.mock(InsertAllResponse.class);
+        Map<Long, List<BigQueryError>> insertErrorsMap = new HashMap<>();
+        insertErrorsMap.put(1L, Collections.list(new BigQueryError("stopped", "", "")));
+        Mockito.when(failedResponse.hasErrors()).thenReturn(true);
+        Mockito.when(failedResponse.getInsertErrors()).thenReturn(insertErrorsMap);
+        Mockito.when(insertAllResponse.hasErrors()).thenReturn(false);
+        Mockito.when(client.insertAll(builder.build())).thenReturn(failedResponse);
+        Mockito.when(client.insertAll(retryBuilder.build())).thenReturn(failedResponse, insertAllResponse);
+
+        OdpfSinkResponse response = retryingSink.pushToSink(messages);
+
+        Mockito.verify(client, Mockito.times(1)).insertAll(builder.build());
+        Mockito.verify(client, Mockito.times(2)).insertAll(retryBuilder.build());
+        Assert.assertEquals(0, response.getErrors().size());
+    }
+
+    @Test
+    public void shouldReturnTransientErrorsAfterRetriesAreUsedUp() {
+        BigQuerySink retryingSink = new BigQuerySink(client, converterCache, rowCreator, metrics, instrumentation, errorHandler, null, new BigQueryRequestSplitter(), null, new BigQueryRetryPolicy(2, 0, 0, 1000), null, 0, null);
+        TestMetadata metadata = new TestMetadata("topic1", 1, 101, Instant.now().toEpochMilli(), Instant.now().toEpochMilli());
+        OdpfMessage message = TestOdpfMessageBuilder.withMetadata(metadata).createConsumerRecord("order-1", "order-url-1", "order-details-1");
+        List<OdpfMessage> messages = Collections.list(message);
+        Record record = new Record(message.getMetadata(), new HashMap<>(), 0, null);
+        Mockito.when(converter.convert(Mockito.eq(messages))).thenReturn(new Records(Collections.list(record), java.util.Collections.emptyList()));
+        Map<Long, List<BigQueryError>> insertErrorsMap = new HashMap<>();
+        insertErrorsMap.put(0L, Collections.list(new BigQueryError("stopped", "", "")));
+        Mockito.when(insertAllResponse.hasErrors()).thenReturn(true);
+        Mockito.when(insertAllResponse.getInsertErrors()).thenReturn(insertErrorsMap);
+        Mockito.when(client.insertAll(Mockito.any())).thenReturn(insertAllResponse);
+        Mockito.when(metrics.getBigqueryRetryTotalMetric()).thenReturn("retry_total");
+
+        OdpfSinkResponse response = retryingSink.pushToSink(messages);
+
+        Mockito.verify(client, Mockito.times(3)).insertAll(Mockito.any());
+        Mockito.verify(instrumentation, Mockito.times(2)).incrementCounter(Mockito.eq("retry_total"), Mockito.any(String[].class));
+        Assert.assertEquals(1, response.getErrors().size());
+        Assert.assertEquals(ErrorType.SINK_5XX_ERROR, response.getErrors().get(0L).getErrorType());
+    }
+
+    @Test
+    public void shouldConvertNextBatchWhileEarlierBatchIsInFlight() throws Exception {
+        ExecutorService pipelineExecutor = Executors.newSingleThreadExecutor();
+        BigQuerySink asyncSink = new BigQuerySink(client, converterCache, rowCreator, metrics, instrumentation, errorHandler, null, new BigQueryRequestSplitter(), null, BigQueryRetryPolicy.disabled(), pipelineExecutor, 2, null);
+        TestMetadata metadata1 = new TestMetadata("topic1", 1, 101, Instant.now().toEpochMilli(), Instant.now().toEpochMilli());
+        TestMetadata metadata2 = new TestMetadata("topic1", 1, 102, Instant.now().toEpochMilli(), Instant.now().toEpochMilli());
+        OdpfMessage message1 = TestOdpfMessageBuilder.withMetadata(metadata1).createConsumerRecord("order-1", "order-url-1", "order-details-1");
+        OdpfMessage message2 = TestOdpfMessageBuilder.withMetadata(metadata2).createConsumerRecord("order-2", "order-url-2", "order-details-2");
+        List<OdpfMessage> batch1 = Collections.list(message1);
+        List<OdpfMessage> batch2 = Collections.list(message2);
+        Mockito.when(converter.convert(Mockito.eq(batch1))).thenReturn(new Records(Collections.list(new Record(message1.getMetadata(), new HashMap<>(), 0, null)), java.util.Collections.emptyList()));
+        Mockito.when(converter.convert(Mockito.eq(batch2))).thenReturn(new Records(Collections.list(new Record(message2.getMetadata(), new HashMap<>(), 0, null)), java.util.Collections.emptyList()));
+        CountDownLatch insertRelease = new CountDownLatch(1);
+        Mockito.when(insertAllResponse.hasErrors()).thenReturn(false);
+        Mockito.when(client.insertAll(Mockito.any())).thenAnswer(invocation -> {
+            insertRelease.await();
+            return insertAllResponse;
+        });
+
+        CompletableFuture<OdpfSinkResponse> future1 = asyncSink.pushToSinkAsync(batch1);
+        CompletableFuture<OdpfSinkResponse> future2 = asyncSink.pushToSinkAsync(batch2);
+
+        Mockito.verify(converter, Mockito.times(1)).convert(batch2);
+        Assert.assertFalse(future1.isDone());
+        insertRelease.countDown();
+        Assert.assertFalse(future1.get(10, TimeUnit.SECONDS).hasErrors());
+        Assert.assertFalse(future2.get(10, TimeUnit.SECONDS).hasErrors());
+        Mockito.verify(client, Mockito.times(2)).insertAll(Mockito.any());
+        asyncSink.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRethrowWriteFailureFromSynchronousPush() {
+        TestMetadata metadata = new TestMetadata("topic1", 1, 101, Instant.now().toEpochMilli(), Instant.now().toEpochMilli());
+        OdpfMessage message = TestOdpfMessageBuilder.withMetadata(metadata).createConsumerRecord("order-1", "order-url-1", "order-details-1");
+        List<OdpfMessage> messages = Collections.list(message);
+        Mockito.when(converter.convert(Mockito.eq(messages))).thenReturn(new Records(Collections.list(new Record(message.getMetadata(), new HashMap<>(), 0, null)), java.util.Collections.emptyList()));
+        Mockito.when(client.insertAll(Mockito.any())).thenThrow(new IllegalStateException("insert failed"));
+
+        sink.pushToSink(messages);
+    }
+
+    @Test
+    public void shouldSpillRecordsWithTransientErrorsInsteadOfReturningThem() throws Exception {
+        SpillLog spillLog = Mockito.mock(SpillLog.class);
+        BigQuerySink spillingSink = new BigQuerySink(client, converterCache, rowCreator, metrics, instrumentation, errorHandler, null, new BigQueryRequestSplitter(), null, BigQueryRetryPolicy.disabled(), null, 0, spillLog);
+        TestMetadata metadata1 = new TestMetadata("topic1", 1, 101, Instant.now().toEpochMilli(), Instant.now().toEpochMilli());
+        TestMetadata metadata2 = new TestMetadata("topic1", 1, 102, Instant.now().toEpochMilli(), Instant.now().toEpochMilli());
+        OdpfMessage message1 = TestOdpfMessageBuilder.withMetadata(metadata1).createConsumerRecord("order-1", "order-url-1", "order-details-1");
+        OdpfMessage message2 = TestOdpfMessageBuilder.withMetadata(metadata2).createConsumerRecord("order-2", "order-url-2", "order-details-2");
+        List<OdpfMessage> messages = Collections.list(message1, message2);
+        Record record1 = new Record(message1.getMetadata(), new HashMap<>(), 0, null);
+        Record record2 = new Record(message2.getMetadata(), new HashMap<>(), 1, null);
+        Mockito.when(converter.convert(Mockito.eq(messages))).thenReturn(new Records(Collections.list(record1, record2), java.util.Collections.emptyList()));
+        Map<Long, List<BigQueryError>> insertErrorsMap = new HashMap<>();
+        insertErrorsMap.put(0L, Collections.list(new BigQueryError("stopped", "", "")));
+        insertErrorsMap.put(1L, Collections.list(new BigQueryError("invalid", "", "no such field")));
+        Mockito.when(insertAllResponse.hasErrors()).thenReturn(true);
+        Mockito.when(insertAllResponse.getInsertErrors()).thenReturn(insertErrorsMap);
+        Mockito.when(client.insertAll(Mockito.any())).thenReturn(insertAllResponse);
+
+        OdpfSinkResponse response = spillingSink.pushToSink(messages);
+
+        Mockito.verify(spillLog, Mockito.times(1)).append(Collections.list(record1));
+        Assert.assertEquals(1, response.getErrors().size());
+        Assert.assertEquals(ErrorType.SINK_4XX_ERROR, response.getErrors().get(1L).getErrorType());
+    }
+
+    @Test
+    public void shouldFailBatchWithCircuitOpenErrorWhenInsertIsRejected() {
+        TestMetadata metadata = new TestMetadata("topic1", 1, 101, Instant.now().toEpochMilli(), Instant.now().toEpochMilli());
+        OdpfMessage message = TestOdpfMessageBuilder.withMetadata(metadata).createConsumerRecord("order-1", "order-url-1", "order-details-1");
+        List<OdpfMessage> messages = Collections.list(message);
+        Mockito.when(converter.convert(Mockito.eq(messages))).thenReturn(new Records(Collections.list(new Record(message.getMetadata(), new HashMap<>(), 0, null)), java.util.Collections.emptyList()));
+        Mockito.when(client.insertAll(Mockito.any())).thenThrow(new BQCircuitOpenException("open"));
+
+        OdpfSinkResponse response = sink.pushToSink(messages);
+
+        Assert.assertEquals(1, response.getErrors().size());
+        Assert.assertEquals(ErrorType.SINK_CIRCUIT_OPEN_ERROR, response.getErrors().get(0L).getErrorType());
+        Mockito.verify(errorHandler, Mockito.never()).handle(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void shouldCaptureStageLatenciesAndBatchSizes() {
+        TestMetadata metadata = new TestMetadata("topic1", 1, 101, Instant.now().toEpochMilli(), Instant.now().toEpochMilli());
+        OdpfMessage message = TestOdpfMessageBuilder.withMetadata(metadata).createConsumerRecord("order-1", "order-url-1", "order-details-1");
+        List<OdpfMessage> messages = Collections.list(message);
+        Record record = new Record(message.getMetadata(), new HashMap<>(), 0, null);
+        Mockito.when(converter.convert(Mockito.eq(messages))).thenReturn(new Records(Collections.list(record), java.util.Collections.emptyList()));
+        Mockito.when(client.insertAll(Mockito.any())).thenReturn(insertAllResponse);
+        Mockito.when(insertAllResponse.hasErrors()).thenReturn(false);
+        Mockito.when(metrics.getBigqueryStageLatencyMetric()).thenReturn("stage_latency");
+        Mockito.when(metrics.getBigqueryBatchSizeMetric()).thenReturn("batch_size");
+        Mockito.when(metrics.getBigqueryBatchBytesMetric()).thenReturn("batch_bytes");
+        StatsDClient statsDClient = Mockito.mock(StatsDClient.class);
+        Instrumentation statsDInstrumentation = new Instrumentation(new StatsDReporter(statsDClient, "env:test"), BigQuerySinkTest.class);
+        BigQuerySink measuredSink = new BigQuerySink(client, converterCache, rowCreator, metrics, statsDInstrumentation, errorHandler);
+
+        measuredSink.pushToSink(messages);
+
+        for (BigQueryMetrics.BigQuerySinkStage stage : BigQueryMetrics.BigQuerySinkStage.values()) {
+            Mockito.verify(statsDClient, Mockito.times(1)).recordExecutionTime(Mockito.eq("stage_latency,env=test,table=test_table,dataset=test_dataset,stage=" + stage), Mockito.anyLong());
+        }
+        Mockito.verify(statsDClient, Mockito.times(1)).time("batch_size,env=test,table=test_table,dataset=test_dataset", 1L);
+        Mockito.verify(statsDClient, Mockito.times(1)).time("batch_bytes,env=test,table=test_table,dataset=test_dataset", BigQueryRequestSplitter.estimateSize(record));
+    }
+
+    @Test
+    public void shouldNotShutDownConversionPoolSharedWithOtherSinksOnClose() throws Exception {
+        ForkJoinPool conversionPool = new ForkJoinPool(2);
+        converterCache.setConversionPool(conversionPool);
+        BigQuerySink first = new BigQuerySink(client, converterCache, rowCreator, metrics, instrumentation, errorHandler);
+
+        first.close();
+
+        Assert.assertFalse(conversionPool.isShutdown());
+        conversionPool.shutdown();
+    }
+
+    @Test
+    public void shouldNotCloseSpillLogSharedWithOtherSinksOnClose() throws Exception {
+        SpillLog spillLog = Mockito.mock(SpillLog.class);
+        BigQuerySink spillingSink = new BigQuerySink(client, converterCache, rowCreator, metrics, instrumentation, errorHandler, null, new BigQueryRequestSplitter(), null, BigQueryRetryPolicy.disabled(), null, 0, spillLog);
+
+        spillingSink.close();
+
+        Mockito.verify(spillLog, Mockito.never()).close();
+    }
 }
@@ -5,6 +5,7 @@ import com.google.cloud.bigquery.BigQueryException;
 import com.google.cloud.bigquery.Dataset;
 import com.google.cloud.bigquery.DatasetInfo;
 import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.InsertAllRequest;
 import com.google.cloud.bigquery.LegacySQLTypeName;
 import com.google.cloud.bigquery.Schema;
 import com.google.cloud.bigquery.StandardTableDefinition;
@@ -13,9 +14,14 @@ import com.google.cloud.bigquery.TableDefinition;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.TimePartitioning;
+import com.timgroup.statsd.StatsDClient;
+import io.odpf.depot.bigquery.exception.BQCircuitOpenException;
 import io.odpf.depot.metrics.BigQueryMetrics;
 import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.StatsDReporter;
 import io.odpf.depot.config.BigQuerySinkConfig;
+import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -48,11 +54,17 @@ public class BQClientTest {
     private BigQueryClient bqClient;
 
     @Mock
+    private StatsDClient statsDClient;
     private Instrumentation instrumentation;
 
     @Mock
     private BigQueryMetrics metrics;
 
+    @Before
+    public void setUp() {
+        instrumentation = new Instrumentation(new StatsDReporter(statsDClient), BQClientTest.class);
+    }
+
     @Test
     public void shouldIgnoreExceptionIfDatasetAlreadyExists() throws IOException {
         when(bqConfig.isTablePartitioningEnabled()).thenReturn(true);
@@ -395,6 +407,144 @@ public class BQClientTest {
         verify(bigquery, never()).update(tableInfo);
     }
 
+    @Test
+    public void shouldFailInsertsWithoutCallingBigqueryWhileCircuitIsOpen() {
+        when(bqConfig.getTableName()).thenReturn("bq-table");
+        when(bqConfig.getDatasetName()).thenReturn("bq-proto");
+        when(bqConfig.isSinkBigqueryCircuitBreakerEnable()).thenReturn(true);
+        when(bqConfig.getSinkBigqueryCircuitBreakerFailureRateThreshold()).thenReturn(50);
+        when(bqConfig.getSinkBigqueryCircuitBreakerSlowCallRateThreshold()).thenReturn(100);
+        when(bqConfig.getSinkBigqueryCircuitBreakerSlowCallDurationMs()).thenReturn(60000L);
+        when(bqConfig.getSinkBigqueryCircuitBreakerWindowSize()).thenReturn(2);
+        when(bqConfig.getSinkBigqueryCircuitBreakerMinimumCalls()).thenReturn(2);
+        when(bqConfig.getSinkBigqueryCircuitBreakerOpenDurationMs()).thenReturn(60000L);
+        when(bqConfig.getSinkBigqueryCircuitBreakerHalfOpenProbes()).thenReturn(1);
+        InsertAllRequest request = InsertAllRequest.newBuilder(TableId.of("bq-proto", "bq-table")).addRow(Collections.singletonMap("id", 1)).build();
+        when(bigquery.insertAll(request)).thenThrow(new BigQueryException(503, "unavailable"));
+        bqClient = new BigQueryClient(bigquery, bqConfig, metrics, instrumentation);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                bqClient.insertAll(request);
+                Assert.fail("expected insert to fail");
+            } catch (BigQueryException e) {
+                Assert.assertEquals(503, e.getCode());
+            }
+        }
+        try {
+            bqClient.insertAll(request);
+            Assert.fail("expected insert to be rejected");
+        } catch (BQCircuitOpenException e) {
+            verify(bigquery, times(2)).insertAll(request);
+        }
+    }
+
+    @Test
+    public void shouldReadSchemaFromCacheWithinTtl() {
+        when(bqConfig.getTableName()).thenReturn("bq-table");
+        when(bqConfig.getDatasetName()).thenReturn("bq-proto");
+        when(bqConfig.getSinkBigqueryMetadataCacheTtlMs()).thenReturn(60000L);
+        bqClient = new BigQueryClient(bigquery, bqConfig, metrics, instrumentation);
+        Schema schema = Schema.of(Field.of("test-1", LegacySQLTypeName.INTEGER));
+        when(bigquery.getTable(TableId.of("bq-proto", "bq-table"))).thenReturn(table);
+        when(table.getDefinition()).thenReturn(mockTableDefinition);
+        when(mockTableDefinition.getSchema()).thenReturn(schema);
+
+        Assert.assertEquals(schema, bqClient.getSchema());
+        Assert.assertEquals(schema, bqClient.getSchema());
+
+        verify(bigquery, times(1)).getTable(TableId.of("bq-proto", "bq-table"));
+    }
+
+    @Test
+    public void shouldReadFreshSchemaBypassingCache() {
+        when(bqConfig.getTableName()).thenReturn("bq-table");
+        when(bqConfig.getDatasetName()).thenReturn("bq-proto");
+        when(bqConfig.getSinkBigqueryMetadataCacheTtlMs()).thenReturn(60000L);
+        bqClient = new BigQueryClient(bigquery, bqConfig, metrics, instrumentation);
+        Schema schema = Schema.of(Field.of("test-1", LegacySQLTypeName.INTEGER));
+        Schema updatedSchema = Schema.of(Field.of("test-1", LegacySQLTypeName.INTEGER), Field.of("test-2", LegacySQLTypeName.STRING));
+        when(bigquery.getTable(TableId.of("bq-proto", "bq-table"))).thenReturn(table);
+        when(table.getDefinition()).thenReturn(mockTableDefinition);
+        when(mockTableDefinition.getSchema()).thenReturn(schema, updatedSchema);
+
+        Assert.assertEquals(schema, bqClient.getSchema());
+        Assert.assertEquals(updatedSchema, bqClient.getSchema(true));
+
+        verify(bigquery, times(2)).getTable(TableId.of("bq-proto", "bq-table"));
+    }
+
+    @Test
+    public void shouldServeSchemaFromPrefetchedMetadata() {
+        when(bqConfig.getTableName()).thenReturn("bq-table");
+        when(bqConfig.getDatasetName()).thenReturn("bq-proto");
+        when(bqConfig.getSinkBigqueryMetadataCacheTtlMs()).thenReturn(60000L);
+        bqClient = new BigQueryClient(bigquery, bqConfig, metrics, instrumentation);
+        Schema schema = Schema.of(Field.of("test-1", LegacySQLTypeName.INTEGER));
+        TableId tableId = TableId.of("bq-proto", "bq-table");
+        when(bigquery.getDataset(tableId.getDataset())).thenReturn(dataset);
+        when(bigquery.getTable(tableId)).thenReturn(table);
+        when(table.getDefinition()).thenReturn(mockTableDefinition);
+        when(mockTableDefinition.getSchema()).thenReturn(schema);
+
+        bqClient.prefetchMetadata();
+
+        Assert.assertEquals(schema, bqClient.getSchema());
+        verify(bigquery, times(1)).getDataset(tableId.getDataset());
+        verify(bigquery, times(1)).getTable(tableId);
+    }
+
+    @Test
+    public void shouldEmitOperationMetricsOnResolvedNames() {
+        when(bqConfig.getTableName()).thenReturn("bq-table");
+        when(bqConfig.getDatasetName()).thenReturn("bq-proto");
+        when(bqConfig.getBigQueryDatasetLocation()).thenReturn("US");
+        when(metrics.getBigqueryOperationTotalMetric()).thenReturn("operation_total");
+        bqClient = new BigQueryClient(bigquery, bqConfig, metrics, instrumentation);
+        TableId tableId = TableId.of("bq-proto", "bq-table");
+        when(bigquery.getDataset(tableId.getDataset())).thenReturn(dataset);
+        when(dataset.exists()).thenReturn(true);
+        when(dataset.getLocation()).thenReturn("US");
+        when(bigquery.getTable(tableId)).thenReturn(null);
+
+        bqClient.upsertTable(Collections.singletonList(Field.of("test-1", LegacySQLTypeName.INTEGER)));
+
+        verify(statsDClient).count("operation_total,,table=bq-table,dataset=bq-proto,api=TABLE_CREATE", 1L);
+    }
+
+    @Test
+    public void shouldReadSchemaAgainAfterUpdatingTable() {
+        when(bqConfig.isTablePartitioningEnabled()).thenReturn(false);
+        when(bqConfig.getTableName()).thenReturn("bq-table");
+        when(bqConfig.getDatasetName()).thenReturn("bq-proto");
+        when(bqConfig.getBigQueryDatasetLocation()).thenReturn("US");
+        when(bqConfig.getSinkBigqueryMetadataCacheTtlMs()).thenReturn(60000L);
+        bqClient = new BigQueryClient(bigquery, bqConfig, metrics, instrumentation);
+        ArrayList<Field> bqSchemaFields = new ArrayList<Field>() {{
+            add(Field.newBuilder("test-1", LegacySQLTypeName.INTEGER).setMode(Field.Mode.NULLABLE).build());
+        }};
+        ArrayList<Field> updatedBQSchemaFields = new ArrayList<>(bqSchemaFields);
+        updatedBQSchemaFields.add(Field.newBuilder("new-field", LegacySQLTypeName.INTEGER).setMode(Field.Mode.NULLABLE).build());
+        TableId tableId = TableId.of("bq-proto", "bq-table");
+        TableInfo tableInfo = TableInfo.newBuilder(tableId, getNonPartitionedTableDefinition(updatedBQSchemaFields)).build();
+        when(bigquery.getDataset(tableId.getDataset())).thenReturn(dataset);
+        when(dataset.exists()).thenReturn(true);
+        when(dataset.getLocation()).thenReturn("US");
+        when(table.exists()).thenReturn(true);
+        when(bigquery.getTable(tableId)).thenReturn(table);
+        when(table.getDefinition()).thenReturn(mockTableDefinition);
+        when(mockTableDefinition.getSchema()).thenReturn(getNonPartitionedTableDefinition(bqSchemaFields).getSchema());
+
+        bqClient.getSchema();
+        bqClient.upsertTable(updatedBQSchemaFields);
+        bqClient.upsertTable(updatedBQSchemaFields);
+        bqClient.getSchema();
+
+        verify(bigquery, times(2)).update(tableInfo);
+        verify(bigquery, times(1)).getDataset(tableId.getDataset());
+        verify(bigquery, times(4)).getTable(tableId);
+    }
+
     private TableDefinition getPartitionedTableDefinition(ArrayList<Field> bqSchemaFields) {
         TimePartitioning.Builder timePartitioningBuilder = TimePartitioning.newBuilder(TimePartitioning.Type.DAY);
         timePartitioningBuilder.setField(bqConfig.getTablePartitionKey())
@@ -0,0 +1,99 @@
+package io.odpf.depot.bigquery.client;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BigQueryCircuitBreakerTest {
+    private final AtomicLong now = new AtomicLong(0);
+    private final List<BigQueryCircuitBreaker.State> transitions = new ArrayList<>();
+    private final BigQueryCircuitBreaker circuitBreaker = new BigQueryCircuitBreaker(50, 80, 1000, 4, 4, 5000, 2, transitions::add, now::get);
+
+    @Test
+    public void shouldStayClosedBelowMinimumCalls() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.onFailure(10);
+        }
+
+        assertEquals(BigQueryCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void shouldOpenOnFailureRateAndRejectCalls() {
+        circuitBreaker.onSuccess(10);
+        circuitBreaker.onSuccess(10);
+        circuitBreaker.onFailure(10);
+        circuitBreaker.onFailure(10);
+
+        assertEquals(BigQueryCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void shouldOpenOnSlowCallRate() {
+        circuitBreaker.onSuccess(10);
+        circuitBreaker.onSuccess(2000);
+        circuitBreaker.onSuccess(2000);
+        circuitBreaker.onSuccess(2000);
+        circuitBreaker.onSuccess(2000);
+
+        assertEquals(BigQueryCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void shouldForgetCallsOutsideTheWindow() {
+        circuitBreaker.onFailure(10);
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onSuccess(10);
+        }
+        circuitBreaker.onFailure(10);
+
+        assertEquals(BigQueryCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void shouldCloseAfterSuccessfulProbes() {
+        openCircuit();
+        now.set(5000);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(BigQueryCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onSuccess(10);
+        circuitBreaker.onSuccess(10);
+
+        assertEquals(BigQueryCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(Arrays.asList(BigQueryCircuitBreaker.State.OPEN, BigQueryCircuitBreaker.State.HALF_OPEN, BigQueryCircuitBreaker.State.CLOSED), transitions);
+    }
+
+    @Test
+    public void shouldReopenWhenProbeFails() {
+        openCircuit();
+        now.set(5000);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(10);
+
+        assertEquals(BigQueryCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        now.set(9999);
+        assertFalse(circuitBreaker.tryAcquire());
+        now.set(10000);
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(10);
+        }
+        assertEquals(BigQueryCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+}
@@ -0,0 +1,112 @@
+package io.odpf.depot.bigquery.client;
+
+import io.odpf.depot.bigquery.models.Record;
+import io.odpf.depot.bigquery.models.RequestBatches;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BigQueryRequestSplitterTest {
+
+    @Test
+    public void shouldKeepSmallBatchInOneRequest() {
+        List<Record> records = records(10, "value");
+
+        List<List<Record>> batches = new BigQueryRequestSplitter().split(records);
+
+        assertEquals(1, batches.size());
+        assertEquals(records, batches.get(0));
+    }
+
+    @Test
+    public void shouldKeepBatchAboveRecommendedSizeInOneRequestByDefault() {
+        List<Record> records = records(5000, "value");
+
+        List<List<Record>> batches = new BigQueryRequestSplitter().split(records);
+
+        assertEquals(1, batches.size());
+        assertEquals(records, batches.get(0));
+    }
+
+    @Test
+    public void shouldSumEstimatedBytesOfAllBatchesWhileSplitting() {
+        List<Record> records = records(5, "value");
+
+        RequestBatches requests = new BigQueryRequestSplitter(2, BigQueryRequestSplitter.DEFAULT_MAX_BYTES).splitMeasuring(records);
+
+        assertEquals(3, requests.getBatches().size());
+        assertEquals(5 * BigQueryRequestSplitter.estimateSize(records.get(0)), requests.getEstimatedBytes());
+    }
+
+    @Test
+    public void shouldSplitByRowCountKeepingOrder() {
+        List<Record> records = records(5, "value");
+
+        List<List<Record>> batches = new BigQueryRequestSplitter(2, BigQueryRequestSplitter.DEFAULT_MAX_BYTES).split(records);
+
+        assertEquals(3, batches.size());
+        assertEquals(records.subList(0, 2), batches.get(0));
+        assertEquals(records.subList(2, 4), batches.get(1));
+        assertEquals(records.subList(4, 5), batches.get(2));
+    }
+
+    @Test
+    public void shouldSplitByEstimatedBytes() {
+        List<Record> records = records(4, String.join("", Collections.nCopies(100, "a")));
+        long rowBytes = BigQueryRequestSplitter.estimateSize(records.get(0));
+
+        List<List<Record>> batches = new BigQueryRequestSplitter(500, rowBytes * 2).split(records);
+
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(2, batches.get(1).size());
+    }
+
+    @Test
+    public void shouldSendOversizedRowAlone() {
+        List<Record> records = records(3, "value");
+        records.add(1, record(9, String.join("", Collections.nCopies(1000, "a"))));
+
+        List<List<Record>> batches = new BigQueryRequestSplitter(500, 200).split(records);
+
+        assertTrue(batches.stream().anyMatch(batch -> batch.size() == 1 && batch.get(0).getIndex() == 9));
+        assertEquals(4, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    public void shouldReturnSameListForSingleRecord() {
+        List<Record> records = records(1, "value");
+
+        assertSame(records, new BigQueryRequestSplitter(1, 1).split(records).get(0));
+    }
+
+    @Test
+    public void shouldFallBackToDefaultsForNonPositiveLimits() {
+        BigQueryRequestSplitter splitter = new BigQueryRequestSplitter(0, -1);
+
+        assertEquals(BigQueryRequestSplitter.DEFAULT_MAX_ROWS, splitter.getMaxRows());
+        assertEquals(BigQueryRequestSplitter.DEFAULT_MAX_BYTES, splitter.getMaxBytes());
+    }
+
+    private List<Record> records(int count, String value) {
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(record(i, value));
+        }
+        return records;
+    }
+
+    private Record record(long index, String value) {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("order_number", value);
+        return new Record(new HashMap<>(), columns, index, null);
+    }
+}
@@ -2,10 +2,12 @@ package io.odpf.depot.bigquery.client;
 
 import com.google.cloud.bigquery.BigQueryError;
 import com.google.cloud.bigquery.InsertAllResponse;
+import com.google.cloud.bigquery.TableId;
 import io.odpf.depot.bigquery.TestMetadata;
 import io.odpf.depot.bigquery.TestOdpfMessageBuilder;
 import io.odpf.depot.metrics.BigQueryMetrics;
 import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.StatsDMetric;
 import io.odpf.depot.bigquery.exception.BigQuerySinkException;
 import io.odpf.depot.bigquery.models.Record;
 import io.odpf.depot.error.ErrorInfo;
@@ -68,16 +70,27 @@ public class BigQueryResponseParserTest {
         Mockito.when(response.hasErrors()).thenReturn(true);
         Mockito.when(response.getInsertErrors()).thenReturn(insertErrorsMap);
         Mockito.when(metrics.getBigqueryTotalErrorsMetrics()).thenReturn("test");
-        Map<Long, ErrorInfo> errorInfoMap = BigQueryResponseParser.parseAndFillOdpfSinkResponse(records, response, metrics, instrumentation);
+        StatsDMetric unknownErrorMetric = errorMetric(BigQueryMetrics.BigQueryErrorType.UNKNOWN_ERROR);
+        StatsDMetric invalidSchemaErrorMetric = errorMetric(BigQueryMetrics.BigQueryErrorType.INVALID_SCHEMA_ERROR);
+        StatsDMetric oobErrorMetric = errorMetric(BigQueryMetrics.BigQueryErrorType.OOB_ERROR);
+        StatsDMetric stoppedErrorMetric = errorMetric(BigQueryMetrics.BigQueryErrorType.STOPPED_ERROR);
+        Map<Long, ErrorInfo> errorInfoMap = new BigQueryResponseParser(metrics, instrumentation, TableId.of("dataset", "table")).parseAndFillOdpfSinkResponse(records, response);
 
         Assert.assertEquals(new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_UNKNOWN_ERROR), errorInfoMap.get(0L));
         Assert.assertEquals(new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_4XX_ERROR), errorInfoMap.get(1L));
         Assert.assertEquals(new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_4XX_ERROR), errorInfoMap.get(2L));
         Assert.assertEquals(new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_5XX_ERROR), errorInfoMap.get(3L));
 
-        Mockito.verify(instrumentation, Mockito.times(1)).incrementCounter("test", String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, BigQueryMetrics.BigQueryErrorType.UNKNOWN_ERROR));
-        Mockito.verify(instrumentation, Mockito.times(1)).incrementCounter("test", String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, BigQueryMetrics.BigQueryErrorType.INVALID_SCHEMA_ERROR));
-        Mockito.verify(instrumentation, Mockito.times(1)).incrementCounter("test", String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, BigQueryMetrics.BigQueryErrorType.OOB_ERROR));
-        Mockito.verify(instrumentation, Mockito.times(1)).incrementCounter("test", String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, BigQueryMetrics.BigQueryErrorType.STOPPED_ERROR));
+        Mockito.verify(unknownErrorMetric, Mockito.times(1)).increment();
+        Mockito.verify(invalidSchemaErrorMetric, Mockito.times(1)).increment();
+        Mockito.verify(oobErrorMetric, Mockito.times(1)).increment();
+        Mockito.verify(stoppedErrorMetric, Mockito.times(1)).increment();
+        Mockito.verify(instrumentation, Mockito.never()).incrementCounter(Mockito.any(), Mockito.any(String[].class));
+    }
+
+    private StatsDMetric errorMetric(BigQueryMetrics.BigQueryErrorType errorType) {
+        StatsDMetric metric = Mockito.mock(StatsDMetric.class);
+        Mockito.when(instrumentation.metric("test", String.format(BigQueryMetrics.BIGQUERY_ERROR_TAG, errorType))).thenReturn(metric);
+        return metric;
     }
 }
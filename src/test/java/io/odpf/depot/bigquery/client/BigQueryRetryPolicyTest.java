@@ -0,0 +1,67 @@
+package io.odpf.depot.bigquery.client;
+
+import io.odpf.depot.bigquery.exception.BigQuerySinkException;
+import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.error.ErrorType;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BigQueryRetryPolicyTest {
+
+    @Test
+    public void shouldBeDisabledWithoutAttempts() {
+        assertFalse(BigQueryRetryPolicy.disabled().isEnabled());
+        assertFalse(new BigQueryRetryPolicy(0, 100, 1000, 1000).isEnabled());
+        assertTrue(new BigQueryRetryPolicy(1, 100, 1000, 1000).isEnabled());
+    }
+
+    @Test
+    public void shouldRetryOnlyTransientErrors() {
+        BigQueryRetryPolicy policy = new BigQueryRetryPolicy(1, 100, 1000, 1000);
+
+        assertTrue(policy.isRetryable(new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_5XX_ERROR)));
+        assertFalse(policy.isRetryable(new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_4XX_ERROR)));
+        assertFalse(policy.isRetryable(new ErrorInfo(new BigQuerySinkException(), ErrorType.SINK_UNKNOWN_ERROR)));
+        assertFalse(policy.isRetryable(null));
+    }
+
+    @Test
+    public void shouldGrowBackoffExponentiallyUpToMax() {
+        BigQueryRetryPolicy policy = new BigQueryRetryPolicy(10, 100, 1000, 10000);
+        Random noJitter = new Random() {
+            @Override
+            public double nextDouble() {
+                return 0;
+            }
+        };
+
+        assertEquals(50, policy.backoffMillis(1, noJitter));
+        assertEquals(100, policy.backoffMillis(2, noJitter));
+        assertEquals(200, policy.backoffMillis(3, noJitter));
+        assertEquals(500, policy.backoffMillis(5, noJitter));
+        assertEquals(500, policy.backoffMillis(100, noJitter));
+    }
+
+    @Test
+    public void shouldKeepJitterWithinHalfOfBackoff() {
+        BigQueryRetryPolicy policy = new BigQueryRetryPolicy(10, 100, 1000, 10000);
+        for (int i = 0; i < 100; i++) {
+            long backoff = policy.backoffMillis(2);
+            assertTrue(backoff >= 100 && backoff <= 200);
+        }
+    }
+
+    @Test
+    public void shouldStopRetryingWhenAttemptsOrBudgetAreUsedUp() {
+        BigQueryRetryPolicy policy = new BigQueryRetryPolicy(3, 100, 1000, 1000);
+
+        assertTrue(policy.canRetry(3, 500, 500));
+        assertFalse(policy.canRetry(4, 0, 0));
+        assertFalse(policy.canRetry(2, 800, 300));
+    }
+}
@@ -0,0 +1,60 @@
+package io.odpf.depot.bigquery.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class HashingInsertIdGeneratorTest {
+    private final HashingInsertIdGenerator generator =
+            new HashingInsertIdGenerator(Arrays.asList("message_topic", " message_partition", "message_offset"));
+
+    private Map<String, Object> metadata(String topic, int partition, long offset) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("message_topic", topic);
+        metadata.put("message_partition", partition);
+        metadata.put("message_offset", offset);
+        metadata.put("message_timestamp", System.nanoTime());
+        return metadata;
+    }
+
+    @Test
+    public void shouldCreateSameFixedLengthIdForSameMetadataKeys() {
+        String first = generator.apply(metadata("booking-log", 3, 1024L));
+        String second = generator.apply(metadata("booking-log", 3, 1024L));
+
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(32, first.length());
+        Assert.assertTrue(first.matches("[0-9a-f]{32}"));
+    }
+
+    @Test
+    public void shouldCreateDistinctIdsForDistinctMetadata() {
+        Set<String> ids = new HashSet<>();
+        for (int partition = 0; partition < 10; partition++) {
+            for (long offset = 0; offset < 1000; offset++) {
+                ids.add(generator.apply(metadata("booking-log", partition, offset)));
+            }
+        }
+        ids.add(generator.apply(metadata("booking-lo", 3, 1024L)));
+        ids.add(generator.apply(metadata("booking-log3", 0, 1024L)));
+        ids.add(generator.apply(new HashMap<>()));
+
+        Assert.assertEquals(10 * 1000 + 3, ids.size());
+    }
+
+    @Test
+    public void shouldTreatNumbersOfDifferentWidthAsSameValue() {
+        Map<String, Object> intOffset = metadata("booking-log", 3, 0);
+        intOffset.put("message_offset", 1024);
+
+        Assert.assertEquals(generator.apply(metadata("booking-log", 3, 1024L)), generator.apply(intOffset));
+        Map<String, Object> stringOffset = metadata("booking-log", 3, 0);
+        stringOffset.put("message_offset", "1024");
+        Assert.assertNotEquals(generator.apply(intOffset), generator.apply(stringOffset));
+    }
+}
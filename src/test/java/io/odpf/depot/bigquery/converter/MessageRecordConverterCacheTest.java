@@ -0,0 +1,38 @@
+package io.odpf.depot.bigquery.converter;
+
+import io.odpf.depot.bigquery.models.Record;
+import io.odpf.depot.bigquery.models.Records;
+import io.odpf.depot.message.OdpfMessage;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+
+public class MessageRecordConverterCacheTest {
+
+    @Test
+    public void shouldStampRecordsWithVersionOfConverterUsed() {
+        MessageRecordConverterCache converterCache = new MessageRecordConverterCache();
+        List<OdpfMessage> messages = Collections.singletonList(new OdpfMessage(null, null));
+        Records converted = new Records(Collections.singletonList(new Record(null, Collections.emptyMap(), 0, null)), Collections.emptyList());
+        MessageRecordConverter firstConverter = Mockito.mock(MessageRecordConverter.class);
+        MessageRecordConverter secondConverter = Mockito.mock(MessageRecordConverter.class);
+        Mockito.when(firstConverter.convert(messages)).thenReturn(converted);
+        Mockito.when(secondConverter.convert(messages)).thenReturn(converted);
+
+        Assert.assertEquals(0, converterCache.getSchemaVersion());
+        converterCache.setMessageRecordConverter(firstConverter);
+        Records firstRecords = converterCache.convert(messages);
+        converterCache.setMessageRecordConverter(secondConverter);
+        Records secondRecords = converterCache.convert(messages);
+
+        Assert.assertEquals(1, firstRecords.getSchemaVersion());
+        Assert.assertEquals(2, secondRecords.getSchemaVersion());
+        Assert.assertEquals(converted.getValidRecords(), secondRecords.getValidRecords());
+        Assert.assertSame(secondConverter, converterCache.getMessageRecordConverter());
+        Mockito.verify(firstConverter, Mockito.times(1)).convert(messages);
+        Mockito.verify(secondConverter, Mockito.times(1)).convert(messages);
+    }
+}
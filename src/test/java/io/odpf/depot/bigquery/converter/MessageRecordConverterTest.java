@@ -14,6 +14,7 @@ import io.odpf.depot.bigquery.models.Records;
 import io.odpf.depot.config.BigQuerySinkConfig;
 import io.odpf.depot.common.Tuple;
 import io.odpf.depot.error.ErrorType;
+import io.odpf.depot.error.SampledErrorReporter;
 import io.odpf.depot.bigquery.TestOdpfMessageBuilder;
 import io.odpf.depot.bigquery.TestMetadata;
 import io.odpf.stencil.client.ClassLoadStencilClient;
@@ -26,6 +27,7 @@ import org.mockito.Mockito;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
@@ -37,6 +39,7 @@ public class MessageRecordConverterTest {
     private ClassLoadStencilClient stencilClient;
     private Instant now;
     private OdpfMessageSchema schema;
+    private final SampledErrorReporter errorReporter = new SampledErrorReporter(MessageRecordConverterTest.class);
 
     @Before
     public void setUp() throws IOException {
@@ -246,7 +249,7 @@ public class MessageRecordConverterTest {
                         .addField(1, UnknownFieldSet.Field.getDefaultInstance())
                         .build())
                 .build();
-        ParsedOdpfMessage parsedOdpfMessage = new ProtoOdpfParsedMessage(dynamicMessage);
+        ParsedOdpfMessage parsedOdpfMessage = new ProtoOdpfParsedMessage(dynamicMessage, errorReporter);
         when(mockParser.parse(consumerRecord, SinkConnectorSchemaMessageMode.LOG_MESSAGE, "io.odpf.depot.TestMessage")).thenReturn(parsedOdpfMessage);
 
         recordConverter = new MessageRecordConverter(mockParser, ConfigFactory.create(BigQuerySinkConfig.class, System.getProperties()), schema);
@@ -274,7 +277,7 @@ public class MessageRecordConverterTest {
                         .addField(1, UnknownFieldSet.Field.getDefaultInstance())
                         .build())
                 .build();
-        ParsedOdpfMessage parsedOdpfMessage = new ProtoOdpfParsedMessage(dynamicMessage);
+        ParsedOdpfMessage parsedOdpfMessage = new ProtoOdpfParsedMessage(dynamicMessage, errorReporter);
         when(mockParser.parse(consumerRecord, SinkConnectorSchemaMessageMode.LOG_MESSAGE, "io.odpf.depot.TestMessage")).thenReturn(parsedOdpfMessage);
 
         recordConverter = new MessageRecordConverter(mockParser,
@@ -300,4 +303,47 @@ public class MessageRecordConverterTest {
         assertEquals(0, records.getInvalidRecords().size());
         assertEquals(record, records.getValidRecords().get(0));
     }
+
+    @Test
+    public void shouldConvertInParallelKeepingIndexAndOrder() throws IOException {
+        System.setProperty("SINK_BIGQUERY_CONVERSION_PARALLEL_MIN_BATCH_SIZE", "10");
+        BigQuerySinkConfig sinkConfig = ConfigFactory.create(BigQuerySinkConfig.class, System.getProperties());
+        System.clearProperty("SINK_BIGQUERY_CONVERSION_PARALLEL_MIN_BATCH_SIZE");
+        ProtoOdpfMessageParser protoOdpfMessageParser = new ProtoOdpfMessageParser(stencilClient);
+        List<OdpfMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            TestMetadata offset = new TestMetadata("topic1", 1, i, now.toEpochMilli(), now.toEpochMilli());
+            messages.add(i % 7 == 0
+                    ? TestOdpfMessageBuilder.withMetadata(offset).createEmptyValueConsumerRecord("order-" + i, "order-url-" + i)
+                    : TestOdpfMessageBuilder.withMetadata(offset).createConsumerRecord("order-" + i, "order-url-" + i, "order-details-" + i));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Records sequential = new MessageRecordConverter(protoOdpfMessageParser, sinkConfig, schema).convert(messages);
+            Records parallel = new MessageRecordConverter(protoOdpfMessageParser, sinkConfig, schema, pool).convert(messages);
+
+            assertEquals(sequential.getValidRecords(), parallel.getValidRecords());
+            assertEquals(sequential.getInvalidRecords().stream().map(Record::getIndex).collect(Collectors.toList()),
+                    parallel.getInvalidRecords().stream().map(Record::getIndex).collect(Collectors.toList()));
+            assertEquals(Arrays.asList(0L, 7L, 14L, 21L, 28L, 35L, 42L),
+                    parallel.getInvalidRecords().stream().map(Record::getIndex).collect(Collectors.toList()));
+            assertEquals(ErrorType.INVALID_MESSAGE_ERROR, parallel.getInvalidRecords().get(0).getErrorInfo().getErrorType());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldConvertSmallBatchOnCallerThread() {
+        ForkJoinPool pool = Mockito.mock(ForkJoinPool.class);
+        BigQuerySinkConfig sinkConfig = ConfigFactory.create(BigQuerySinkConfig.class, System.getProperties());
+        TestMetadata offset = new TestMetadata("topic1", 1, 101, now.toEpochMilli(), now.toEpochMilli());
+        OdpfMessage message = TestOdpfMessageBuilder.withMetadata(offset).createConsumerRecord("order-1", "order-url-1", "order-details-1");
+
+        Records records = new MessageRecordConverter(new ProtoOdpfMessageParser(stencilClient), sinkConfig, schema, pool)
+                .convert(Collections.singletonList(message));
+
+        assertEquals(1, records.getValidRecords().size());
+        verifyNoInteractions(pool);
+    }
 }
@@ -8,6 +8,7 @@ import com.google.cloud.bigquery.Schema;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.odpf.depot.bigquery.client.BigQueryClient;
+import io.odpf.depot.bigquery.json.BigqueryJsonKnownColumns;
 import io.odpf.depot.bigquery.models.Record;
 import io.odpf.depot.config.BigQuerySinkConfig;
 import io.odpf.depot.metrics.Instrumentation;
@@ -27,7 +28,9 @@ import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -55,7 +58,7 @@ public class JsonErrorHandlerTest {
 
     @Test
     public void shouldUpdateTableFieldsOnSchemaError() {
-        when(bigQueryClient.getSchema()).thenReturn(emptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(emptyTableSchema);
 
         BigQueryError bigQueryError = new BigQueryError("invalid", "first_name", "no such field: first_name");
         Map<Long, List<BigQueryError>> insertErrors = ImmutableMap.of(0L, Collections.singletonList(bigQueryError));
@@ -78,8 +81,6 @@ public class JsonErrorHandlerTest {
 
     @Test
     public void shouldNotUpdateTableWhenNoSchemaError() {
-        when(bigQueryClient.getSchema()).thenReturn(emptyTableSchema);
-
         BigQueryError serverError = new BigQueryError("otherresons", "planet eart", "server error");
         BigQueryError anotherError = new BigQueryError("otherresons", "planet eart", "server error");
         Map<Long, List<BigQueryError>> insertErrors = ImmutableMap.of(0L, asList(serverError, anotherError));
@@ -93,13 +94,14 @@ public class JsonErrorHandlerTest {
         JsonErrorHandler jsonErrorHandler = new JsonErrorHandler(bigQueryClient, bigQuerySinkConfig, instrumentation);
         jsonErrorHandler.handle(insertErrors, records);
 
+        verify(bigQueryClient, never()).getSchema();
         verify(bigQueryClient, never()).upsertTable(any());
 
     }
 
     @Test
     public void shouldUpdateTableFieldsForMultipleRecords() {
-        when(bigQueryClient.getSchema()).thenReturn(emptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(emptyTableSchema);
 
 
         BigQueryError firstNameNotFoundError = new BigQueryError("invalid", "first_name", "no such field: first_name");
@@ -135,7 +137,7 @@ public class JsonErrorHandlerTest {
 
     @Test
     public void shouldIngoreRecordsWhichHaveOtherErrors() {
-        when(bigQueryClient.getSchema()).thenReturn(emptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(emptyTableSchema);
 
         BigQueryError noSuchFieldError = new BigQueryError("invalid", "first_name", "no such field: first_name");
         BigQueryError otherError = new BigQueryError("otherresons", "planet eart", "server error");
@@ -165,7 +167,7 @@ public class JsonErrorHandlerTest {
 
     @Test
     public void shouldIngoreRecordsWithNoErrors() {
-        when(bigQueryClient.getSchema()).thenReturn(emptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(emptyTableSchema);
 
 
         BigQueryError noSuchFieldError = new BigQueryError("invalid", "first_name", "no such field: first_name");
@@ -193,7 +195,7 @@ public class JsonErrorHandlerTest {
 
     @Test
     public void shouldUpdateOnlyUniqueFields() {
-        when(bigQueryClient.getSchema()).thenReturn(emptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(emptyTableSchema);
 
 
         BigQueryError noSuchFieldError = new BigQueryError("invalid", "first_name", "no such field: first_name");
@@ -234,7 +236,7 @@ public class JsonErrorHandlerTest {
         Field firstName = Field.of("first_name", LegacySQLTypeName.STRING);
 
         Schema nonEmptyTableSchema = Schema.of(firstName, lastName);
-        when(bigQueryClient.getSchema()).thenReturn(nonEmptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(nonEmptyTableSchema);
 
         BigQueryError noSuchFieldError = new BigQueryError("invalid", "first_name", "no such field: first_name");
         Map<Long, List<BigQueryError>> errorInfoMap = ImmutableMap.of(
@@ -273,7 +275,7 @@ public class JsonErrorHandlerTest {
 
     @Test
     public void shouldUpsertTableWithPartitionKey() {
-        when(bigQueryClient.getSchema()).thenReturn(emptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(emptyTableSchema);
 
 
         BigQueryError noSuchFieldError = new BigQueryError("invalid", "first_name", "no such field: first_name");
@@ -312,7 +314,7 @@ public class JsonErrorHandlerTest {
 
     @Test
     public void shouldThrowExceptionWhenCastFieldsToStringNotTrue() {
-        when(bigQueryClient.getSchema()).thenReturn(emptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(emptyTableSchema);
 
         BigQueryError noSuchFieldError = new BigQueryError("invalid", "first_name", "no such field: first_name");
         Map<Long, List<BigQueryError>> errorInfoMap = ImmutableMap.of(0L, Collections.singletonList(noSuchFieldError));
@@ -337,7 +339,7 @@ public class JsonErrorHandlerTest {
         Field firstName = Field.of("first_name", LegacySQLTypeName.STRING);
 
         Schema nonEmptyTableSchema = Schema.of(firstName, lastName);
-        when(bigQueryClient.getSchema()).thenReturn(nonEmptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(nonEmptyTableSchema);
 
         BigQueryError noSuchFieldError = new BigQueryError("invalid", "first_name", "no such field: first_name");
         Map<Long, List<BigQueryError>> errorInfoMap = ImmutableMap.of(
@@ -399,7 +401,7 @@ public class JsonErrorHandlerTest {
         Field firstName = Field.of("first_name", LegacySQLTypeName.STRING);
 
         Schema nonEmptyTableSchema = Schema.of(firstName, lastName);
-        when(bigQueryClient.getSchema()).thenReturn(nonEmptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(nonEmptyTableSchema);
 
         BigQueryError noSuchFieldError = new BigQueryError("invalid", "first_name", "no such field: first_name");
         Map<Long, List<BigQueryError>> errorInfoMap = ImmutableMap.of(
@@ -464,7 +466,7 @@ public class JsonErrorHandlerTest {
         Field firstName = Field.of("first_name", LegacySQLTypeName.STRING);
 
         Schema nonEmptyTableSchema = Schema.of(firstName, lastName);
-        when(bigQueryClient.getSchema()).thenReturn(nonEmptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(nonEmptyTableSchema);
 
         BigQueryError noSuchFieldError = new BigQueryError("invalid", "first_name", "no such field: first_name");
         Map<Long, List<BigQueryError>> errorInfoMap = ImmutableMap.of(
@@ -521,7 +523,7 @@ public class JsonErrorHandlerTest {
         Field firstName = Field.of("first_name", LegacySQLTypeName.STRING);
 
         Schema nonEmptyTableSchema = Schema.of(firstName, lastName);
-        when(bigQueryClient.getSchema()).thenReturn(nonEmptyTableSchema);
+        when(bigQueryClient.getSchema(true)).thenReturn(nonEmptyTableSchema);
 
         BigQueryError noSuchFieldError = new BigQueryError("invalid", "first_name", "no such field: first_name");
         Map<Long, List<BigQueryError>> errorInfoMap = ImmutableMap.of(
@@ -557,5 +559,59 @@ public class JsonErrorHandlerTest {
         assertThrows(UnsupportedOperationException.class, () -> jsonErrorHandler.handle(errorInfoMap, validRecords));
         verify(bigQueryClient, never()).upsertTable(any());
     }
-}
 
+    @Test
+    public void shouldAddNewFieldsInSingleUpdateBeforeInsert() {
+        Field firstName = Field.of("first_name", LegacySQLTypeName.STRING);
+        when(bigQueryClient.getSchema(true)).thenReturn(Schema.of(firstName));
+        BigqueryJsonKnownColumns knownColumns = new BigqueryJsonKnownColumns();
+        knownColumns.reset(Collections.singletonList(firstName));
+
+        List<Record> records = asList(
+                Record.builder().columns(ImmutableMap.of("first_name", "john doe", "last_name", "carmack")).build(),
+                Record.builder().columns(ImmutableMap.of("first_name", "john doe", "address", "planet earth")).build());
+
+        JsonErrorHandler jsonErrorHandler = new JsonErrorHandler(bigQueryClient, bigQuerySinkConfig, instrumentation, knownColumns);
+        jsonErrorHandler.beforeInsert(records);
+        jsonErrorHandler.beforeInsert(records);
+
+        verify(bigQueryClient, times(1)).upsertTable(fieldsArgumentCaptor.capture());
+        assertThat(fieldsArgumentCaptor.getValue(), containsInAnyOrder(
+                firstName,
+                Field.of("last_name", LegacySQLTypeName.STRING),
+                Field.of("address", LegacySQLTypeName.STRING)));
+        assertTrue(knownColumns.contains("last_name"));
+        assertTrue(knownColumns.contains("address"));
+    }
+
+    @Test
+    public void shouldNotCallBigqueryBeforeInsertWhenAllFieldsAreKnown() {
+        BigqueryJsonKnownColumns knownColumns = new BigqueryJsonKnownColumns();
+        knownColumns.reset(asList(Field.of("first_name", LegacySQLTypeName.STRING), Field.of("last_name", LegacySQLTypeName.STRING)));
+        List<Record> records = Collections.singletonList(
+                Record.builder().columns(ImmutableMap.of("first_name", "john doe", "last_name", "carmack")).build());
+
+        JsonErrorHandler jsonErrorHandler = new JsonErrorHandler(bigQueryClient, bigQuerySinkConfig, instrumentation, knownColumns);
+        jsonErrorHandler.beforeInsert(records);
+
+        verify(bigQueryClient, never()).getSchema();
+        verify(bigQueryClient, never()).upsertTable(any());
+    }
+
+    @Test
+    public void shouldOnlyRefreshKnownColumnsWhenFieldsWereAddedByAnotherWriter() {
+        Field firstName = Field.of("first_name", LegacySQLTypeName.STRING);
+        Field lastName = Field.of("last_name", LegacySQLTypeName.STRING);
+        when(bigQueryClient.getSchema(true)).thenReturn(Schema.of(firstName, lastName));
+        BigqueryJsonKnownColumns knownColumns = new BigqueryJsonKnownColumns();
+        knownColumns.reset(Collections.singletonList(firstName));
+        List<Record> records = Collections.singletonList(
+                Record.builder().columns(ImmutableMap.of("first_name", "john doe", "last_name", "carmack")).build());
+
+        JsonErrorHandler jsonErrorHandler = new JsonErrorHandler(bigQueryClient, bigQuerySinkConfig, instrumentation, knownColumns);
+        jsonErrorHandler.beforeInsert(records);
+
+        verify(bigQueryClient, never()).upsertTable(any());
+        assertTrue(knownColumns.contains("last_name"));
+    }
+}
@@ -20,7 +20,9 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -67,6 +69,20 @@ public class BigqueryJsonUpdateListenerTest {
         verify(mockBqClient, times(1)).upsertTable(bqSchemaFields);
     }
 
+    @Test
+    public void shouldSeedKnownColumnsWithTableColumns() {
+        BigQuerySinkConfig config = ConfigFactory.create(BigQuerySinkConfig.class, ImmutableMap.of(
+                "SINK_BIGQUERY_DEFAULT_COLUMNS", "event_timestamp=timestamp"));
+        when(mockBqClient.getSchema()).thenReturn(Schema.of(Field.of("first_name", LegacySQLTypeName.STRING)));
+        BigqueryJsonKnownColumns knownColumns = new BigqueryJsonKnownColumns();
+        knownColumns.reset(Collections.singletonList(Field.of("dropped", LegacySQLTypeName.STRING)));
+        BigqueryJsonUpdateListener bigqueryJsonUpdateListener = new BigqueryJsonUpdateListener(config, converterCache, mockBqClient, instrumentation, knownColumns);
+        bigqueryJsonUpdateListener.updateSchema();
+        assertTrue(knownColumns.contains("event_timestamp"));
+        assertTrue(knownColumns.contains("first_name"));
+        assertFalse(knownColumns.contains("dropped"));
+    }
+
     @Test
     public void shouldCreateTableWithDefaultColumnsAndMetadataFields() {
         BigQuerySinkConfig config = ConfigFactory.create(BigQuerySinkConfig.class, ImmutableMap.of(
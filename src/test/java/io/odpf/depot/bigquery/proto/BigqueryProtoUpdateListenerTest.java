@@ -2,6 +2,7 @@ package io.odpf.depot.bigquery.proto;
 
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.cloud.bigquery.BigQueryException;
 import com.google.cloud.bigquery.Field;
 import com.google.cloud.bigquery.LegacySQLTypeName;
 import com.google.protobuf.Descriptors.Descriptor;
@@ -22,17 +23,22 @@ import io.odpf.stencil.client.StencilClient;
 import org.aeonbits.owner.ConfigFactory;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.*;
 
@@ -47,6 +53,9 @@ public class BigqueryProtoUpdateListenerTest {
 
     private MessageRecordConverterCache converterWrapper;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Before
     public void setUp() throws InvalidProtocolBufferException {
         System.setProperty("SINK_CONNECTOR_SCHEMA_PROTO_MESSAGE_CLASS", "io.odpf.depot.TestKeyBQ");
@@ -287,6 +296,145 @@ public class BigqueryProtoUpdateListenerTest {
         System.setProperty("SINK_BIGQUERY_METADATA_NAMESPACE", "");
     }
 
+    @Test
+    public void shouldSwapConverterOnlyAfterTableIsUpdatedInBackgroundWhenAsyncRefreshIsEnabled() throws Exception {
+        config = ConfigFactory.create(BigQuerySinkConfig.class, Collections.singletonMap("SINK_BIGQUERY_SCHEMA_REFRESH_ASYNC_ENABLE", "true"), System.getProperties());
+        BigqueryProtoUpdateListener bigqueryProtoUpdateListener = new BigqueryProtoUpdateListener(config, bigQueryClient, converterWrapper);
+        HashMap<String, Descriptor> descriptorsMap = new HashMap<String, Descriptor>() {{
+            put(String.format("%s", TestKeyBQ.class.getName()), TestKeyBQ.getDescriptor());
+        }};
+        when(stencilClient.get(TestKeyBQ.class.getName())).thenReturn(descriptorsMap.get(TestKeyBQ.class.getName()));
+        CountDownLatch tableUpdate = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            tableUpdate.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(bigQueryClient).upsertTable(Mockito.any());
+        bigqueryProtoUpdateListener.setOdpfMessageParser(new ProtoOdpfMessageParser(stencilClient));
+
+        bigqueryProtoUpdateListener.onSchemaUpdate(descriptorsMap);
+
+        verify(bigQueryClient, timeout(5000)).upsertTable(Mockito.any());
+        Assert.assertEquals(0, converterWrapper.getSchemaVersion());
+        tableUpdate.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (converterWrapper.getSchemaVersion() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(1, converterWrapper.getSchemaVersion());
+        TestKeyBQ testKeyBQ = TestKeyBQ.newBuilder().setOrderNumber("order").setOrderUrl("test").build();
+        OdpfMessage testMessage = new OdpfMessage(
+                "".getBytes(),
+                testKeyBQ.toByteArray(),
+                new Tuple<>("topic", "topic"),
+                new Tuple<>("partition", 1),
+                new Tuple<>("offset", 1));
+        Records convert = converterWrapper.convert(Collections.singletonList(testMessage));
+        Assert.assertEquals(1, convert.getSchemaVersion());
+        Assert.assertEquals("order", convert.getValidRecords().get(0).getColumns().get("order_number"));
+        bigqueryProtoUpdateListener.close();
+    }
+
+    @Test
+    public void shouldKeepPreviousConverterWhenBackgroundTableUpdateFails() throws Exception {
+        config = ConfigFactory.create(BigQuerySinkConfig.class, Collections.singletonMap("SINK_BIGQUERY_SCHEMA_REFRESH_ASYNC_ENABLE", "true"), System.getProperties());
+        BigqueryProtoUpdateListener bigqueryProtoUpdateListener = new BigqueryProtoUpdateListener(config, bigQueryClient, converterWrapper);
+        HashMap<String, Descriptor> descriptorsMap = new HashMap<String, Descriptor>() {{
+            put(String.format("%s", TestKeyBQ.class.getName()), TestKeyBQ.getDescriptor());
+        }};
+        doThrow(new BigQueryException(500, "backend error")).when(bigQueryClient).upsertTable(Mockito.any());
+        bigqueryProtoUpdateListener.setOdpfMessageParser(new ProtoOdpfMessageParser(stencilClient));
+
+        bigqueryProtoUpdateListener.onSchemaUpdate(descriptorsMap);
+
+        verify(bigQueryClient, timeout(5000)).upsertTable(Mockito.any());
+        bigqueryProtoUpdateListener.close();
+        Assert.assertNull(converterWrapper.getMessageRecordConverter());
+    }
+
+    @Test
+    public void shouldServeSchemaFromSnapshotAndUpdateTableInBackground() throws Exception {
+        File snapshot = new File(temporaryFolder.getRoot(), "schema.snapshot");
+        config = ConfigFactory.create(BigQuerySinkConfig.class, Collections.singletonMap("SINK_BIGQUERY_SCHEMA_SNAPSHOT_PATH", snapshot.getPath()), System.getProperties());
+        HashMap<String, Descriptor> descriptorsMap = new HashMap<String, Descriptor>() {{
+            put(String.format("%s", TestKeyBQ.class.getName()), TestKeyBQ.getDescriptor());
+        }};
+        when(stencilClient.get(TestKeyBQ.class.getName())).thenReturn(descriptorsMap.get(TestKeyBQ.class.getName()));
+        when(stencilClient.getAll()).thenReturn(descriptorsMap);
+        BigqueryProtoUpdateListener firstListener = new BigqueryProtoUpdateListener(config, bigQueryClient, converterWrapper);
+        firstListener.setOdpfMessageParser(new ProtoOdpfMessageParser(stencilClient));
+        firstListener.updateSchema();
+        firstListener.close();
+        Assert.assertTrue(snapshot.exists());
+
+        CountDownLatch tableUpdate = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            tableUpdate.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(bigQueryClient).upsertTable(Mockito.any());
+        MessageRecordConverterCache restartedConverterCache = new MessageRecordConverterCache();
+        BigqueryProtoUpdateListener restartedListener = new BigqueryProtoUpdateListener(config, bigQueryClient, restartedConverterCache);
+        restartedListener.setOdpfMessageParser(new ProtoOdpfMessageParser(stencilClient));
+        restartedListener.updateSchema();
+
+        Assert.assertEquals(1, restartedConverterCache.getSchemaVersion());
+        TestKeyBQ testKeyBQ = TestKeyBQ.newBuilder().setOrderNumber("order").setOrderUrl("test").build();
+        OdpfMessage testMessage = new OdpfMessage(
+                "".getBytes(),
+                testKeyBQ.toByteArray(),
+                new Tuple<>("topic", "topic"),
+                new Tuple<>("partition", 1),
+                new Tuple<>("offset", 1));
+        Records convert = restartedConverterCache.convert(Collections.singletonList(testMessage));
+        Assert.assertEquals("order", convert.getValidRecords().get(0).getColumns().get("order_number"));
+        Assert.assertEquals("test", convert.getValidRecords().get(0).getColumns().get("order_url"));
+
+        verify(bigQueryClient, timeout(5000).times(2)).prefetchMetadata();
+        tableUpdate.countDown();
+        verify(bigQueryClient, timeout(5000).times(2)).upsertTable(Mockito.any());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (restartedConverterCache.getSchemaVersion() == 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(2, restartedConverterCache.getSchemaVersion());
+        restartedListener.close();
+    }
+
+    @Test
+    public void shouldNotReplaceNewerSchemaWithSlowRefreshAfterSnapshot() throws Exception {
+        File snapshot = new File(temporaryFolder.getRoot(), "schema.snapshot");
+        config = ConfigFactory.create(BigQuerySinkConfig.class, Collections.singletonMap("SINK_BIGQUERY_SCHEMA_SNAPSHOT_PATH", snapshot.getPath()), System.getProperties());
+        HashMap<String, Descriptor> descriptorsMap = new HashMap<String, Descriptor>() {{
+            put(String.format("%s", TestKeyBQ.class.getName()), TestKeyBQ.getDescriptor());
+        }};
+        when(stencilClient.get(TestKeyBQ.class.getName())).thenReturn(descriptorsMap.get(TestKeyBQ.class.getName()));
+        when(stencilClient.getAll()).thenReturn(descriptorsMap);
+        BigqueryProtoUpdateListener firstListener = new BigqueryProtoUpdateListener(config, bigQueryClient, converterWrapper);
+        firstListener.setOdpfMessageParser(new ProtoOdpfMessageParser(stencilClient));
+        firstListener.updateSchema();
+        firstListener.close();
+
+        CountDownLatch backgroundRefresh = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith("bigquery-schema-refresh")) {
+                backgroundRefresh.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(bigQueryClient).upsertTable(Mockito.any());
+        MessageRecordConverterCache restartedConverterCache = new MessageRecordConverterCache();
+        BigqueryProtoUpdateListener restartedListener = new BigqueryProtoUpdateListener(config, bigQueryClient, restartedConverterCache);
+        restartedListener.setOdpfMessageParser(new ProtoOdpfMessageParser(stencilClient));
+        restartedListener.updateSchema();
+        verify(bigQueryClient, timeout(5000).times(2)).upsertTable(Mockito.any());
+
+        restartedListener.onSchemaUpdate(descriptorsMap);
+        Assert.assertEquals(2, restartedConverterCache.getSchemaVersion());
+        backgroundRefresh.countDown();
+        restartedListener.close();
+
+        verify(bigQueryClient, times(3)).upsertTable(Mockito.any());
+        Assert.assertEquals(2, restartedConverterCache.getSchemaVersion());
+    }
+
     @Test
     public void shouldThrowExceptionWhenMetadataNamespaceNameCollidesWithAnyFieldName() throws IOException {
         System.setProperty("SINK_BIGQUERY_METADATA_NAMESPACE", "order_number"); // set field name to an existing column name
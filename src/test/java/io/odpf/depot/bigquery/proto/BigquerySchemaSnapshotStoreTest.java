@@ -0,0 +1,64 @@
+package io.odpf.depot.bigquery.proto;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import io.odpf.depot.TestKeyBQ;
+import io.odpf.depot.TestMessageBQ;
+import io.odpf.depot.message.proto.ProtoField;
+import io.odpf.depot.message.proto.TestProtoUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Properties;
+
+public class BigquerySchemaSnapshotStoreTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldLoadSavedSnapshot() {
+        Path path = temporaryFolder.getRoot().toPath().resolve("schema.snapshot");
+        BigquerySchemaSnapshotStore store = new BigquerySchemaSnapshotStore(path);
+        ProtoField protoField = new ProtoField();
+        protoField.addField(TestProtoUtil.createProtoField("order_number", 1));
+        Properties columnMapping = new Properties();
+        columnMapping.put("1", "order_number");
+        String fingerprint = BigquerySchemaSnapshot.fingerprint(TestKeyBQ.getDescriptor(), "settings");
+
+        store.save(new BigquerySchemaSnapshot(fingerprint, protoField, columnMapping,
+                Collections.singletonList(Field.of("order_number", LegacySQLTypeName.STRING))));
+        Optional<BigquerySchemaSnapshot> snapshot = store.load();
+
+        Assert.assertTrue(snapshot.isPresent());
+        Assert.assertEquals(fingerprint, snapshot.get().getFingerprint());
+        Assert.assertEquals("order_number", snapshot.get().getProtoField().getFields().get(0).getName());
+        Assert.assertEquals(columnMapping, snapshot.get().getColumnMapping());
+        Assert.assertEquals(Collections.singletonList(Field.of("order_number", LegacySQLTypeName.STRING)), snapshot.get().getBqSchemaFields());
+    }
+
+    @Test
+    public void shouldReturnEmptyWhenSnapshotIsMissingOrUnreadable() throws IOException {
+        Path path = temporaryFolder.getRoot().toPath().resolve("schema.snapshot");
+        BigquerySchemaSnapshotStore store = new BigquerySchemaSnapshotStore(path);
+        Assert.assertFalse(store.load().isPresent());
+
+        Files.write(path, "not a snapshot".getBytes());
+        Assert.assertFalse(store.load().isPresent());
+    }
+
+    @Test
+    public void shouldChangeFingerprintWithDescriptorOrSettings() {
+        String fingerprint = BigquerySchemaSnapshot.fingerprint(TestKeyBQ.getDescriptor(), "settings");
+
+        Assert.assertEquals(fingerprint, BigquerySchemaSnapshot.fingerprint(TestKeyBQ.getDescriptor(), "settings"));
+        Assert.assertNotEquals(fingerprint, BigquerySchemaSnapshot.fingerprint(TestMessageBQ.getDescriptor(), "settings"));
+        Assert.assertNotEquals(fingerprint, BigquerySchemaSnapshot.fingerprint(TestKeyBQ.getDescriptor(), "other settings"));
+    }
+}
@@ -0,0 +1,153 @@
+package io.odpf.depot.bigquery.spill;
+
+import com.google.api.client.util.DateTime;
+import io.odpf.depot.bigquery.models.Record;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SpillLogTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadBackAppendedBatches() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot().toPath(), 1024 * 1024);
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("name", "john");
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("order_number", "order-1");
+        columns.put("discount", 10L);
+        columns.put("created_at", new DateTime(1000L));
+        columns.put("aliases", Arrays.asList("a", "b"));
+        columns.put("customer", nested);
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("message_offset", 101L);
+
+        spillLog.append(Collections.singletonList(new Record(metadata, columns, 7, null)));
+        spillLog.append(Arrays.asList(record("order-2"), record("order-3")));
+        SpillSegment segment = spillLog.readOldest();
+
+        assertEquals(2, segment.getBatches().size());
+        Record record = segment.getBatches().get(0).getRecords().get(0);
+        assertEquals(columns, record.getColumns());
+        assertEquals(metadata, record.getMetadata());
+        assertEquals(Arrays.asList("order-2", "order-3"), segment.getBatches().get(1).getRecords().stream()
+                .map(r -> r.getColumns().get("order_number")).collect(Collectors.toList()));
+        assertNotNull(spillLog.oldestEntryTime());
+    }
+
+    @Test
+    public void shouldRollSegmentsWhenFull() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot().toPath(), 512);
+
+        for (int i = 0; i < 5; i++) {
+            spillLog.append(Collections.singletonList(record("order-" + i)));
+        }
+
+        assertTrue(segmentFiles().size() > 1);
+        List<Object> orders = new ArrayList<>();
+        for (SpillSegment segment = spillLog.readOldest(); segment != null; segment = spillLog.readOldest()) {
+            segment.getBatches().forEach(batch -> batch.getRecords().forEach(r -> orders.add(r.getColumns().get("order_number"))));
+            spillLog.delete(segment.getSequence());
+        }
+        assertEquals(Arrays.asList("order-0", "order-1", "order-2", "order-3", "order-4"), orders);
+        assertEquals(0, spillLog.sizeBytes());
+        assertNull(spillLog.oldestEntryTime());
+        assertTrue(segmentFiles().isEmpty());
+    }
+
+    @Test
+    public void shouldRecoverSegmentsOfEarlierRun() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot().toPath(), 1024 * 1024);
+        spillLog.append(Collections.singletonList(record("order-1")));
+        long size = spillLog.sizeBytes();
+        spillLog.close();
+
+        SpillLog reopened = new SpillLog(folder.getRoot().toPath(), 1024 * 1024);
+        reopened.append(Collections.singletonList(record("order-2")));
+
+        assertEquals(size * 2, reopened.sizeBytes());
+        assertEquals("order-1", reopened.readOldest().getBatches().get(0).getRecords().get(0).getColumns().get("order_number"));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldNotOpenDirectoryOfAnotherOpenLog() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot().toPath(), 1024 * 1024);
+        try {
+            new SpillLog(folder.getRoot().toPath(), 1024 * 1024);
+        } finally {
+            spillLog.close();
+        }
+    }
+
+    @Test
+    public void shouldReleaseDirectoryOnClose() throws IOException {
+        new SpillLog(folder.getRoot().toPath(), 1024 * 1024).close();
+
+        SpillLog reopened = new SpillLog(folder.getRoot().toPath(), 1024 * 1024);
+
+        assertEquals(0, reopened.sizeBytes());
+        reopened.close();
+    }
+
+    @Test
+    public void shouldMoveUnreadableOldestSegmentAside() throws IOException {
+        SpillLog spillLog = new SpillLog(folder.getRoot().toPath(), 1024 * 1024);
+        spillLog.append(Collections.singletonList(record("order-1")));
+        spillLog.close();
+        Path segment = segmentFiles().get(0);
+        corruptFirstPayload(segment);
+        SpillLog reopened = new SpillLog(folder.getRoot().toPath(), 1024 * 1024);
+        reopened.append(Collections.singletonList(record("order-2")));
+
+        try {
+            reopened.readOldest();
+            fail("expected the corrupt segment to fail");
+        } catch (IOException e) {
+            Path quarantined = reopened.quarantineOldest();
+            assertEquals("quarantined-" + segment.getFileName(), quarantined.getFileName().toString());
+            assertTrue(Files.exists(quarantined));
+        }
+
+        assertEquals("order-2", reopened.readOldest().getBatches().get(0).getRecords().get(0).getColumns().get("order_number"));
+        assertEquals(1, segmentFiles().size());
+        reopened.close();
+    }
+
+    static void corruptFirstPayload(Path segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        Arrays.fill(bytes, Integer.BYTES + Long.BYTES, Integer.BYTES + Long.BYTES + 4, (byte) 0);
+        Files.write(segment, bytes);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-")).collect(Collectors.toList());
+        }
+    }
+
+    private Record record(String orderNumber) {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("order_number", orderNumber);
+        return new Record(new HashMap<>(), columns, 0, null);
+    }
+}
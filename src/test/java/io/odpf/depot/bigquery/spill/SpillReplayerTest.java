@@ -0,0 +1,166 @@
+package io.odpf.depot.bigquery.spill;
+
+import com.google.cloud.bigquery.BigQueryError;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.InsertAllRequest;
+import com.google.cloud.bigquery.InsertAllResponse;
+import com.google.cloud.bigquery.TableId;
+import io.odpf.depot.bigquery.client.BigQueryClient;
+import io.odpf.depot.bigquery.client.BigQueryRowWithoutInsertId;
+import io.odpf.depot.bigquery.models.Record;
+import io.odpf.depot.metrics.BigQueryMetrics;
+import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.StatsDMetric;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpillReplayerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    @Mock
+    private BigQueryClient client;
+    @Mock
+    private BigQueryMetrics metrics;
+    @Mock
+    private Instrumentation instrumentation;
+    @Mock
+    private InsertAllResponse okResponse;
+    private SpillLog spillLog;
+    private SpillReplayer replayer;
+
+    @Before
+    public void setUp() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(instrumentation.metric(Mockito.any(), Mockito.any(String[].class))).thenReturn(Mockito.mock(StatsDMetric.class));
+        Mockito.when(client.getTableID()).thenReturn(TableId.of("test_dataset", "test_table"));
+        Mockito.when(okResponse.hasErrors()).thenReturn(false);
+        spillLog = new SpillLog(folder.getRoot().toPath(), 1024 * 1024);
+        replayer = new SpillReplayer(spillLog, client, new BigQueryRowWithoutInsertId(), metrics, instrumentation, 1000);
+    }
+
+    @Test
+    public void shouldReplaySpilledBatchesInOrderAndDeleteThem() throws IOException {
+        spillLog.append(Collections.singletonList(record("order-1")));
+        spillLog.append(Collections.singletonList(record("order-2")));
+        Mockito.when(client.insertAll(Mockito.any())).thenReturn(okResponse);
+
+        replayer.run();
+
+        ArgumentCaptor<InsertAllRequest> requests = ArgumentCaptor.forClass(InsertAllRequest.class);
+        Mockito.verify(client, Mockito.times(2)).insertAll(requests.capture());
+        assertEquals("order-1", requests.getAllValues().get(0).getRows().get(0).getContent().get("order_number"));
+        assertEquals("order-2", requests.getAllValues().get(1).getRows().get(0).getContent().get("order_number"));
+        assertEquals(0, spillLog.sizeBytes());
+    }
+
+    @Test
+    public void shouldResumeFromFailedBatchOnNextRun() throws IOException {
+        spillLog.append(Collections.singletonList(record("order-1")));
+        spillLog.append(Collections.singletonList(record("order-2")));
+        Mockito.when(client.insertAll(Mockito.any()))
+                .thenReturn(okResponse)
+                .thenThrow(new BigQueryException(503, "unavailable"))
+                .thenReturn(okResponse);
+
+        replayer.run();
+        long sizeAfterFailure = spillLog.sizeBytes();
+        replayer.run();
+
+        Mockito.verify(client, Mockito.times(3)).insertAll(Mockito.any());
+        assertTrue(sizeAfterFailure > 0);
+        assertEquals(0, spillLog.sizeBytes());
+    }
+
+    @Test
+    public void shouldKeepBatchWithTransientRowErrors() throws IOException {
+        spillLog.append(Collections.singletonList(record("order-1")));
+        InsertAllResponse failedResponse = Mockito.mock(InsertAllResponse.class);
+        Map<Long, List<BigQueryError>> insertErrors = new HashMap<>();
+        insertErrors.put(0L, Collections.singletonList(new BigQueryError("stopped", "", "")));
+        Mockito.when(failedResponse.hasErrors()).thenReturn(true);
+        Mockito.when(failedResponse.getInsertErrors()).thenReturn(insertErrors);
+        Mockito.when(client.insertAll(Mockito.any())).thenReturn(failedResponse);
+
+        replayer.run();
+
+        assertTrue(spillLog.sizeBytes() > 0);
+    }
+
+    @Test
+    public void shouldDeadLetterRejectedRowsAndResendRowsStoppedByThem() throws IOException {
+        StatsDMetric rejectedRecordsMetric = Mockito.mock(StatsDMetric.class);
+        Mockito.when(metrics.getBigqueryReplayRejectedRecordsTotalMetric()).thenReturn("replay_rejected_records_total");
+        Mockito.when(instrumentation.metric("replay_rejected_records_total", "table=test_table", "dataset=test_dataset")).thenReturn(rejectedRecordsMetric);
+        SpillLog deadLetterLog = new SpillLog(folder.newFolder("dead-letter").toPath(), 1024 * 1024);
+        SpillReplayer deadLetteringReplayer = new SpillReplayer(spillLog, deadLetterLog, client, new BigQueryRowWithoutInsertId(), metrics, instrumentation, 1000);
+        spillLog.append(Arrays.asList(record("order-1"), record("order-2")));
+        InsertAllResponse failedResponse = Mockito.mock(InsertAllResponse.class);
+        Map<Long, List<BigQueryError>> insertErrors = new HashMap<>();
+        insertErrors.put(0L, Collections.singletonList(new BigQueryError("invalid", "", "no such field")));
+        insertErrors.put(1L, Collections.singletonList(new BigQueryError("stopped", "", "")));
+        Mockito.when(failedResponse.hasErrors()).thenReturn(true);
+        Mockito.when(failedResponse.getInsertErrors()).thenReturn(insertErrors);
+        Mockito.when(client.insertAll(Mockito.any())).thenReturn(failedResponse).thenReturn(okResponse);
+
+        deadLetteringReplayer.run();
+
+        ArgumentCaptor<InsertAllRequest> requests = ArgumentCaptor.forClass(InsertAllRequest.class);
+        Mockito.verify(client, Mockito.times(2)).insertAll(requests.capture());
+        assertEquals(1, requests.getAllValues().get(1).getRows().size());
+        assertEquals("order-2", requests.getAllValues().get(1).getRows().get(0).getContent().get("order_number"));
+        assertEquals(0, spillLog.sizeBytes());
+        assertEquals("order-1", deadLetterLog.readOldest().getBatches().get(0).getRecords().get(0).getColumns().get("order_number"));
+        Mockito.verify(rejectedRecordsMetric, Mockito.times(1)).count(1L);
+        deadLetterLog.close();
+    }
+
+    @Test
+    public void shouldQuarantineUnreadableSegmentAndReplayTheNextOnes() throws IOException {
+        spillLog.append(Collections.singletonList(record("order-1")));
+        spillLog.close();
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            SpillLogTest.corruptFirstPayload(files.filter(file -> file.getFileName().toString().startsWith("segment-")).findFirst().get());
+        }
+        SpillLog reopened = new SpillLog(folder.getRoot().toPath(), 1024 * 1024);
+        reopened.append(Collections.singletonList(record("order-2")));
+        StatsDMetric quarantinedSegmentsMetric = Mockito.mock(StatsDMetric.class);
+        Mockito.when(metrics.getBigqueryReplayQuarantinedSegmentsTotalMetric()).thenReturn("replay_quarantined_segments_total");
+        Mockito.when(instrumentation.metric("replay_quarantined_segments_total", "table=test_table", "dataset=test_dataset")).thenReturn(quarantinedSegmentsMetric);
+        SpillReplayer reopenedReplayer = new SpillReplayer(reopened, client, new BigQueryRowWithoutInsertId(), metrics, instrumentation, 1000);
+        Mockito.when(client.insertAll(Mockito.any())).thenReturn(okResponse);
+
+        reopenedReplayer.run();
+
+        ArgumentCaptor<InsertAllRequest> requests = ArgumentCaptor.forClass(InsertAllRequest.class);
+        Mockito.verify(client, Mockito.times(1)).insertAll(requests.capture());
+        assertEquals("order-2", requests.getValue().getRows().get(0).getContent().get("order_number"));
+        assertEquals(0, reopened.sizeBytes());
+        Mockito.verify(quarantinedSegmentsMetric, Mockito.times(1)).increment();
+        reopened.close();
+    }
+
+    private Record record(String orderNumber) {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("order_number", orderNumber);
+        return new Record(new HashMap<>(), columns, 0, null);
+    }
+}
@@ -0,0 +1,200 @@
+package io.odpf.depot.bigquery.storage;
+
+import com.google.api.client.util.DateTime;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.AppendRowsRequest;
+import com.google.cloud.bigquery.storage.v1.AppendRowsResponse;
+import com.google.cloud.bigquery.storage.v1.RowError;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import io.grpc.Status;
+import io.odpf.depot.bigquery.models.Record;
+import io.odpf.depot.error.ErrorInfo;
+import io.odpf.depot.error.ErrorType;
+import io.odpf.depot.metrics.BigQueryMetrics;
+import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.StatsDMetric;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BigQueryStorageWriterTest {
+    private static final String STREAM_NAME = "projects/p/datasets/test_dataset/tables/test_table/_default";
+    private final Schema schema = Schema.of(
+            Field.of("order_number", LegacySQLTypeName.STRING),
+            Field.of("discount", LegacySQLTypeName.INTEGER),
+            Field.of("created_at", LegacySQLTypeName.TIMESTAMP),
+            Field.newBuilder("aliases", LegacySQLTypeName.STRING).setMode(Field.Mode.REPEATED).build(),
+            Field.of("customer", LegacySQLTypeName.RECORD, Field.of("name", LegacySQLTypeName.STRING)));
+    private final AtomicReference<Schema> tableSchema = new AtomicReference<>(schema);
+    private FakeBigQueryWriteServer server;
+    private BigQueryStorageWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeBigQueryWriteServer();
+        BigQueryMetrics metrics = Mockito.mock(BigQueryMetrics.class);
+        Instrumentation instrumentation = Mockito.mock(Instrumentation.class);
+        Mockito.when(instrumentation.metric(Mockito.any(), Mockito.any(String[].class))).thenReturn(Mockito.mock(StatsDMetric.class));
+        writer = new BigQueryStorageWriter(
+                new BigQueryStorageClient(server.channel(), STREAM_NAME),
+                TableId.of("test_dataset", "test_table"),
+                tableSchema::get,
+                1000,
+                metrics,
+                instrumentation);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        writer.close();
+        server.close();
+    }
+
+    @Test
+    public void shouldAppendRecordsAsProtoRows() throws Exception {
+        Map<String, Object> customer = new HashMap<>();
+        customer.put("name", "john");
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("order_number", "order-1");
+        columns.put("discount", 10);
+        columns.put("created_at", new DateTime(1000L));
+        columns.put("aliases", Arrays.asList("a", "b"));
+        columns.put("customer", customer);
+
+        Map<Long, ErrorInfo> errors = writer.write(Collections.singletonList(new Record(new HashMap<>(), columns, 3, null)));
+
+        assertTrue(errors.isEmpty());
+        assertEquals(1, server.getRequests().size());
+        AppendRowsRequest request = server.getRequests().get(0);
+        assertEquals(STREAM_NAME, request.getWriteStream());
+        assertEquals(1, request.getProtoRows().getRows().getSerializedRowsCount());
+        Descriptors.Descriptor descriptor = toDescriptor(request.getProtoRows().getWriterSchema().getProtoDescriptor());
+        DynamicMessage row = DynamicMessage.parseFrom(descriptor, request.getProtoRows().getRows().getSerializedRows(0));
+        assertEquals("order-1", row.getField(descriptor.findFieldByName("order_number")));
+        assertEquals(10L, row.getField(descriptor.findFieldByName("discount")));
+        assertEquals(1000000L, row.getField(descriptor.findFieldByName("created_at")));
+        assertEquals(Arrays.asList("a", "b"), row.getField(descriptor.findFieldByName("aliases")));
+        DynamicMessage nested = (DynamicMessage) row.getField(descriptor.findFieldByName("customer"));
+        assertEquals("john", nested.getField(nested.getDescriptorForType().findFieldByName("name")));
+    }
+
+    @Test
+    public void shouldSendWriterSchemaOnlyWithFirstAppendOfConnection() {
+        writer.write(Collections.singletonList(record(0, "order-1")));
+        writer.write(Collections.singletonList(record(1, "order-2")));
+
+        assertEquals(2, server.getRequests().size());
+        assertTrue(server.getRequests().get(0).getProtoRows().hasWriterSchema());
+        assertFalse(server.getRequests().get(1).getProtoRows().hasWriterSchema());
+    }
+
+    @Test
+    public void shouldMapRowErrorsToRecordIndexes() {
+        server.respondWith(request -> AppendRowsResponse.newBuilder()
+                .setError(com.google.rpc.Status.newBuilder().setCode(Status.Code.INVALID_ARGUMENT.value()).setMessage("bad row"))
+                .addRowErrors(RowError.newBuilder().setIndex(1).setMessage("invalid value"))
+                .build());
+        List<Record> records = Arrays.asList(record(10, "order-1"), record(11, "order-2"), record(12, "order-3"));
+
+        Map<Long, ErrorInfo> errors = writer.write(records);
+
+        assertEquals(3, errors.size());
+        assertEquals(ErrorType.SINK_5XX_ERROR, errors.get(10L).getErrorType());
+        assertEquals(ErrorType.SINK_4XX_ERROR, errors.get(11L).getErrorType());
+        assertEquals(ErrorType.SINK_5XX_ERROR, errors.get(12L).getErrorType());
+    }
+
+    @Test
+    public void shouldFailAllRecordsWhenStreamBreaks() {
+        server.failStreamWith(Status.UNAVAILABLE);
+        List<Record> records = Arrays.asList(record(0, "order-1"), record(1, "order-2"));
+
+        Map<Long, ErrorInfo> errors = writer.write(records);
+
+        assertEquals(2, errors.size());
+        assertEquals(ErrorType.SINK_5XX_ERROR, errors.get(0L).getErrorType());
+        assertEquals(ErrorType.SINK_5XX_ERROR, errors.get(1L).getErrorType());
+    }
+
+    @Test
+    public void shouldNotRetryRecordsWhenAppendMayHaveBeenCommitted() {
+        server.failStreamWith(Status.DEADLINE_EXCEEDED);
+        List<Record> records = Arrays.asList(record(0, "order-1"), record(1, "order-2"));
+
+        Map<Long, ErrorInfo> errors = writer.write(records);
+
+        assertEquals(2, errors.size());
+        assertEquals(ErrorType.SINK_UNKNOWN_ERROR, errors.get(0L).getErrorType());
+        assertEquals(ErrorType.SINK_UNKNOWN_ERROR, errors.get(1L).getErrorType());
+    }
+
+    @Test
+    public void shouldReopenStreamAfterFailure() {
+        server.failStreamWith(Status.UNAVAILABLE);
+        writer.write(Collections.singletonList(record(0, "order-1")));
+        server.failStreamWith(null);
+
+        Map<Long, ErrorInfo> errors = writer.write(Collections.singletonList(record(0, "order-1")));
+
+        assertTrue(errors.isEmpty());
+        assertTrue(server.getRequests().get(1).getProtoRows().hasWriterSchema());
+    }
+
+    @Test
+    public void shouldRefreshTableSchemaOnUnknownColumn() {
+        writer.write(Collections.singletonList(record(0, "order-1")));
+        tableSchema.set(Schema.of(Field.of("order_number", LegacySQLTypeName.STRING), Field.of("new_column", LegacySQLTypeName.STRING)));
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("order_number", "order-2");
+        columns.put("new_column", "value");
+
+        Map<Long, ErrorInfo> errors = writer.write(Collections.singletonList(new Record(new HashMap<>(), columns, 0, null)));
+
+        assertTrue(errors.isEmpty());
+        assertTrue(server.getRequests().get(1).getProtoRows().hasWriterSchema());
+    }
+
+    @Test
+    public void shouldReturnInvalidRecordWhenColumnIsNotInTable() {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("unknown_column", "value");
+        List<Record> records = Arrays.asList(record(0, "order-1"), new Record(new HashMap<>(), columns, 1, null));
+
+        Map<Long, ErrorInfo> errors = writer.write(records);
+
+        assertEquals(1, errors.size());
+        assertEquals(ErrorType.SINK_4XX_ERROR, errors.get(1L).getErrorType());
+        assertEquals(1, server.getRequests().get(0).getProtoRows().getRows().getSerializedRowsCount());
+    }
+
+    private Record record(long index, String orderNumber) {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("order_number", orderNumber);
+        return new Record(new HashMap<>(), columns, index, null);
+    }
+
+    private Descriptors.Descriptor toDescriptor(DescriptorProtos.DescriptorProto descriptorProto) throws Descriptors.DescriptorValidationException {
+        DescriptorProtos.FileDescriptorProto fileProto = DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("row.proto")
+                .addMessageType(descriptorProto)
+                .build();
+        return Descriptors.FileDescriptor.buildFrom(fileProto, new Descriptors.FileDescriptor[0]).getMessageTypes().get(0);
+    }
+}
@@ -0,0 +1,78 @@
+package io.odpf.depot.bigquery.storage;
+
+import com.google.cloud.bigquery.storage.v1.AppendRowsRequest;
+import com.google.cloud.bigquery.storage.v1.AppendRowsResponse;
+import com.google.cloud.bigquery.storage.v1.BigQueryWriteGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * In-process fake of the storage write api, records every append request and answers with the configured responder.
+ */
+public class FakeBigQueryWriteServer extends BigQueryWriteGrpc.BigQueryWriteImplBase implements AutoCloseable {
+    private final List<AppendRowsRequest> requests = new CopyOnWriteArrayList<>();
+    private final String serverName = InProcessServerBuilder.generateName();
+    private final Server server;
+    private volatile Function<AppendRowsRequest, AppendRowsResponse> responder = request -> AppendRowsResponse.newBuilder()
+            .setAppendResult(AppendRowsResponse.AppendResult.getDefaultInstance())
+            .build();
+    private volatile Status streamError;
+
+    public FakeBigQueryWriteServer() throws IOException {
+        this.server = InProcessServerBuilder.forName(serverName).directExecutor().addService(this).build().start();
+    }
+
+    public ManagedChannel channel() {
+        return InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    }
+
+    public List<AppendRowsRequest> getRequests() {
+        return requests;
+    }
+
+    public void respondWith(Function<AppendRowsRequest, AppendRowsResponse> appendResponder) {
+        this.responder = appendResponder;
+    }
+
+    public void failStreamWith(Status status) {
+        this.streamError = status;
+    }
+
+    @Override
+    public StreamObserver<AppendRowsRequest> appendRows(StreamObserver<AppendRowsResponse> responseObserver) {
+        return new StreamObserver<AppendRowsRequest>() {
+            @Override
+            public void onNext(AppendRowsRequest request) {
+                requests.add(request);
+                if (streamError != null) {
+                    responseObserver.onError(streamError.asRuntimeException());
+                    return;
+                }
+                responseObserver.onNext(responder.apply(request));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        server.shutdownNow();
+    }
+}
@@ -0,0 +1,78 @@
+package io.odpf.depot.config;
+
+import io.odpf.depot.config.enums.BigQueryWriteMode;
+import io.odpf.stencil.cache.SchemaRefreshStrategy;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ConfigSnapshotTest {
+    private BigQuerySinkConfig createConfig(Map<String, String> env) {
+        return ConfigFactory.create(BigQuerySinkConfig.class, env);
+    }
+
+    @Test
+    public void shouldResolveSameValuesAsConfig() throws InvocationTargetException, IllegalAccessException {
+        Map<String, String> env = new HashMap<>();
+        env.put("SINK_BIGQUERY_GOOGLE_CLOUD_PROJECT_ID", "project");
+        env.put("SINK_BIGQUERY_TABLE_NAME", "table");
+        env.put("SINK_BIGQUERY_DATASET_NAME", "dataset");
+        env.put("SINK_BIGQUERY_TABLE_LABELS", "team=data");
+        env.put("SINK_BIGQUERY_METADATA_COLUMNS_TYPES", "topic=string,partition=integer");
+        env.put("SINK_BIGQUERY_WRITE_MODE", "storage_write_api");
+        BigQuerySinkConfig config = createConfig(env);
+
+        BigQuerySinkConfig snapshot = ConfigSnapshot.of(BigQuerySinkConfig.class, config);
+
+        for (Method method : BigQuerySinkConfig.class.getMethods()) {
+            if (method.getParameterCount() != 0 || method.isDefault()) {
+                continue;
+            }
+            Object expected = method.invoke(config);
+            Object actual = method.invoke(snapshot);
+            if (expected instanceof SchemaRefreshStrategy) {
+                // the converter creates a new strategy instance on every call
+                Assert.assertEquals(method.getName(), expected.getClass(), actual.getClass());
+            } else {
+                Assert.assertEquals(method.getName(), expected, actual);
+            }
+        }
+        Assert.assertEquals(BigQueryWriteMode.STORAGE_WRITE_API, snapshot.getBigQueryWriteMode());
+    }
+
+    @Test
+    public void shouldNotReadConfigAfterSnapshotIsTaken() {
+        BigQuerySinkConfig config = Mockito.mock(BigQuerySinkConfig.class);
+        Mockito.when(config.getTableName()).thenReturn("table");
+        BigQuerySinkConfig snapshot = ConfigSnapshot.of(BigQuerySinkConfig.class, config);
+        Mockito.clearInvocations(config);
+
+        Assert.assertEquals("table", snapshot.getTableName());
+        Assert.assertEquals("table", snapshot.getTableName());
+        Mockito.verifyNoInteractions(config);
+    }
+
+    @Test
+    public void shouldResolveValuesAgainOnReload() {
+        BigQuerySinkConfig config = Mockito.mock(BigQuerySinkConfig.class);
+        Mockito.when(config.getTableName()).thenReturn("table");
+        BigQuerySinkConfig snapshot = ConfigSnapshot.of(BigQuerySinkConfig.class, config);
+        Mockito.when(config.getTableName()).thenReturn("new_table");
+
+        Assert.assertEquals("table", snapshot.getTableName());
+        Assert.assertEquals("new_table", ConfigSnapshot.reload(BigQuerySinkConfig.class, snapshot).getTableName());
+    }
+
+    @Test
+    public void shouldNotWrapSnapshotAgain() {
+        BigQuerySinkConfig snapshot = ConfigSnapshot.of(BigQuerySinkConfig.class, createConfig(new HashMap<>()));
+
+        Assert.assertSame(snapshot, ConfigSnapshot.of(BigQuerySinkConfig.class, snapshot));
+    }
+}
@@ -0,0 +1,82 @@
+package io.odpf.depot.error;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+public class SampledErrorReporterTest {
+    private static final String SUMMARY = "{}: {} errors of type {} in the last {} ms, {} were not logged";
+    private final Logger logger = mock(Logger.class);
+    private final AtomicLong clock = new AtomicLong();
+    private final SampledErrorReporter reporter = new SampledErrorReporter(logger, "dataset.table", 2, 1000, clock::get);
+
+    @Test
+    public void shouldReportOnlyTheExemplarsOfEachTypeInAnInterval() {
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(i < 2, reporter.record("invalid_schema"));
+        }
+        Assert.assertTrue(reporter.record("stopped"));
+
+        Assert.assertEquals(5, reporter.getCount("invalid_schema"));
+        Assert.assertEquals(1, reporter.getCount("stopped"));
+        verifyNoInteractions(logger);
+    }
+
+    @Test
+    public void shouldSummarizeSuppressedErrorsAndLogExemplarsAgainInTheNextInterval() {
+        for (int i = 0; i < 5; i++) {
+            reporter.record("invalid_schema");
+        }
+        verifyNoInteractions(logger);
+
+        clock.set(1000);
+
+        Assert.assertTrue(reporter.record("invalid_schema"));
+        verify(logger, times(1)).warn(SUMMARY, "dataset.table", 5L, "invalid_schema", 1000L, 3L);
+        Assert.assertEquals(6, reporter.getCount("invalid_schema"));
+    }
+
+    @Test
+    public void shouldSummarizeSuppressedErrorsOnCloseBeforeTheIntervalEnds() {
+        for (int i = 0; i < 4; i++) {
+            reporter.record("invalid_schema");
+        }
+        reporter.record("stopped");
+        clock.set(300);
+
+        reporter.close();
+
+        verify(logger, times(1)).warn(SUMMARY, "dataset.table", 4L, "invalid_schema", 300L, 2L);
+        verifyNoMoreInteractions(logger);
+        reporter.flush();
+        verifyNoMoreInteractions(logger);
+    }
+
+    @Test
+    public void shouldSummarizeOnTimerWhenNoErrorFollowsTheInterval() {
+        ScheduledExecutorService summaryTimer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            SampledErrorReporter timedReporter = new SampledErrorReporter(logger, "dataset.table", 2, 1000, clock::get, summaryTimer);
+            for (int i = 0; i < 4; i++) {
+                timedReporter.record("invalid_schema");
+            }
+            clock.set(1000);
+
+            verify(logger, timeout(5000).times(1)).warn(SUMMARY, "dataset.table", 4L, "invalid_schema", 1000L, 2L);
+            verifyNoMoreInteractions(logger);
+        } finally {
+            summaryTimer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.odpf.depot.log;
+
+import io.odpf.depot.config.OdpfSinkConfig;
+import io.odpf.depot.metrics.Instrumentation;
+import io.odpf.depot.metrics.LogSinkMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.mock;
+
+public class AsyncLogWriterTest {
+    private final Instrumentation instrumentation = mock(Instrumentation.class);
+    private final LogSinkMetrics logSinkMetrics = new LogSinkMetrics(mock(OdpfSinkConfig.class));
+
+    @Test
+    public void shouldWriteBufferedLinesInBatchesAndFlushOnClose() throws IOException {
+        RecordingLogOutput output = new RecordingLogOutput(null);
+        AsyncLogWriter writer = new AsyncLogWriter(output, 16, 2, instrumentation, logSinkMetrics);
+
+        Assert.assertTrue(writer.offer("a"));
+        Assert.assertTrue(writer.offer("b"));
+        Assert.assertTrue(writer.offer("c"));
+        writer.close();
+
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), output.lines);
+        Assert.assertTrue(output.flushes >= 2);
+        Assert.assertTrue(output.closed);
+        Assert.assertEquals(0, writer.getDroppedCount());
+    }
+
+    @Test
+    public void shouldDropLinesWhenBufferIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingLogOutput output = new RecordingLogOutput(release);
+        AsyncLogWriter writer = new AsyncLogWriter(output, 1, 1, instrumentation, logSinkMetrics);
+
+        Assert.assertTrue(writer.offer("first"));
+        output.writing.await();
+        Assert.assertTrue(writer.offer("second"));
+        Assert.assertFalse(writer.offer("third"));
+        release.countDown();
+        writer.close();
+
+        Assert.assertEquals(Arrays.asList("first", "second"), output.lines);
+        Assert.assertEquals(1, writer.getDroppedCount());
+        Assert.assertFalse(writer.offer("after-close"));
+    }
+
+    @Test
+    public void shouldCountFailedBatchAsDroppedAndKeepWriting() throws IOException {
+        RecordingLogOutput output = new RecordingLogOutput(null);
+        output.failingLine = "bad";
+        AsyncLogWriter writer = new AsyncLogWriter(output, 16, 1, instrumentation, logSinkMetrics);
+
+        Assert.assertTrue(writer.offer("bad"));
+        Assert.assertTrue(writer.offer("good"));
+        writer.close();
+
+        Assert.assertEquals(Arrays.asList("good"), output.lines);
+        Assert.assertEquals(1, writer.getDroppedCount());
+        Assert.assertTrue(output.closed);
+    }
+
+    private static class RecordingLogOutput implements LogOutput {
+        private final List<String> lines = new ArrayList<>();
+        private final CountDownLatch release;
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private int flushes;
+        private boolean closed;
+        private String failingLine;
+
+        RecordingLogOutput(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void write(String line) throws IOException {
+            writing.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            if (line.equals(failingLine)) {
+                throw new IllegalStateException("cannot render " + line);
+            }
+            lines.add(line);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
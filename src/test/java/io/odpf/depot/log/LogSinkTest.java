@@ -1,5 +1,6 @@
 package io.odpf.depot.log;
 
+import io.odpf.depot.common.Tuple;
 import io.odpf.depot.message.json.JsonOdpfMessageParser;
 import io.odpf.depot.OdpfSinkResponse;
 import io.odpf.depot.config.OdpfSinkConfig;
@@ -10,13 +11,19 @@ import io.odpf.depot.message.OdpfMessage;
 import io.odpf.depot.message.OdpfMessageParser;
 import io.odpf.depot.metrics.Instrumentation;
 import io.odpf.depot.metrics.JsonParserMetrics;
+import io.odpf.depot.metrics.LogSinkMetrics;
 import org.aeonbits.owner.ConfigFactory;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +43,8 @@ public class LogSinkTest {
     private OdpfMessageParser odpfMessageParser;
     private Instrumentation instrumentation;
     private JsonParserMetrics jsonParserMetrics;
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Before
     public void setUp() throws Exception {
@@ -112,4 +121,55 @@ public class LogSinkTest {
         verify(instrumentation, times(1)).logInfo(eq(template), jsonStrCaptor.capture(), eq(Collections.emptyMap().toString()));
         assertEquals(validJsonFirstName, jsonStrCaptor.getValue().toString());
     }
+
+    @Test
+    public void shouldWriteJsonLinesThroughAsyncWriter() throws IOException {
+        HashMap<String, String> configMap = new HashMap<String, String>() {{
+            put("SINK_CONNECTOR_SCHEMA_MESSAGE_MODE", "log_message");
+            put("SINK_LOG_ASYNC_ENABLE", "true");
+        }};
+        OdpfSinkConfig odpfSinkConfig = ConfigFactory.create(OdpfSinkConfig.class, configMap);
+        OdpfMessageParser messageParser = new JsonOdpfMessageParser(odpfSinkConfig, instrumentation, jsonParserMetrics);
+        Path path = temporaryFolder.getRoot().toPath().resolve("messages.log");
+        AsyncLogWriter writer = new AsyncLogWriter(new RollingFileLogOutput(path, 1024, 1), 16, 4, instrumentation, new LogSinkMetrics(odpfSinkConfig));
+        LogSink logSink = new LogSink(odpfSinkConfig, messageParser, instrumentation, writer);
+        ArrayList<OdpfMessage> messages = new ArrayList<>();
+        messages.add(new OdpfMessage(null, "{\"first_name\":\"john\"}".getBytes(), new Tuple<>("message_offset", 1)));
+        messages.add(new OdpfMessage(null, "{\"last_name\"".getBytes()));
+        messages.add(new OdpfMessage(null, "{\n\"last_name\": \"doe\"\n}".getBytes(), new Tuple<>("message_topic", "logs")));
+
+        OdpfSinkResponse odpfSinkResponse = logSink.pushToSink(messages);
+        logSink.close();
+        assertTrue(writer.offer("{}"));
+        writer.close();
+
+        assertEquals(1, odpfSinkResponse.getErrors().size());
+        assertEquals(ErrorType.DESERIALIZATION_ERROR, odpfSinkResponse.getErrorsFor(1L).getErrorType());
+        assertEquals(Arrays.asList(
+                "{\"data\":{\"first_name\":\"john\"},\"metadata\":{\"message_offset\":1}}",
+                "{\"data\":{\"last_name\":\"doe\"},\"metadata\":{\"message_topic\":\"logs\"}}",
+                "{}"), Files.readAllLines(path));
+        verify(instrumentation, never()).logInfo(any(), any(), any());
+    }
+
+    @Test
+    public void shouldCountSampledOutMessagesWithoutParsingThem() throws IOException {
+        HashMap<String, String> configMap = new HashMap<String, String>() {{
+            put("SINK_CONNECTOR_SCHEMA_MESSAGE_MODE", "log_message");
+            put("SINK_LOG_SAMPLE_RATE", "0");
+        }};
+        OdpfSinkConfig odpfSinkConfig = ConfigFactory.create(OdpfSinkConfig.class, configMap);
+        AsyncLogWriter writer = mock(AsyncLogWriter.class);
+        LogSink logSink = new LogSink(odpfSinkConfig, odpfMessageParser, instrumentation, writer);
+        ArrayList<OdpfMessage> messages = new ArrayList<>();
+        messages.add(new OdpfMessage(null, "{}".getBytes()));
+        messages.add(new OdpfMessage(null, "{}".getBytes()));
+
+        OdpfSinkResponse odpfSinkResponse = logSink.pushToSink(messages);
+
+        assertEquals(Collections.emptyMap(), odpfSinkResponse.getErrors());
+        verify(odpfMessageParser, never()).parse(any(), any(), any());
+        verify(writer, never()).offer(any());
+        verify(instrumentation, times(1)).captureCount("application_sink_log_sampled_out_messages_total", 2L);
+    }
 }
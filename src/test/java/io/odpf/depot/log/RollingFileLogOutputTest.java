@@ -0,0 +1,47 @@
+package io.odpf.depot.log;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class RollingFileLogOutputTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldRollFileWhenItWouldGrowPastMaxBytes() throws IOException {
+        Path path = temporaryFolder.getRoot().toPath().resolve("logs").resolve("messages.log");
+        RollingFileLogOutput output = new RollingFileLogOutput(path, 10, 2);
+
+        output.write("line-1");
+        output.write("line-2");
+        output.write("line-3");
+        output.write("line-4");
+        output.close();
+
+        Assert.assertEquals(Collections.singletonList("line-4"), Files.readAllLines(path));
+        Assert.assertEquals(Collections.singletonList("line-3"), Files.readAllLines(Paths.get(path + ".1")));
+        Assert.assertEquals(Collections.singletonList("line-2"), Files.readAllLines(Paths.get(path + ".2")));
+        Assert.assertFalse(Files.exists(Paths.get(path + ".3")));
+    }
+
+    @Test
+    public void shouldAppendToExistingFile() throws IOException {
+        Path path = temporaryFolder.newFile("messages.log").toPath();
+        Files.write(path, "line-1\n".getBytes());
+        RollingFileLogOutput output = new RollingFileLogOutput(path, 1024, 1);
+
+        output.write("line-2");
+        output.close();
+
+        Assert.assertEquals(Arrays.asList("line-1", "line-2"), Files.readAllLines(path));
+    }
+}
@@ -12,6 +12,7 @@ import org.json.JSONObject;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
@@ -20,6 +21,7 @@ import static com.google.common.collect.ImmutableMap.of;
 import static io.odpf.depot.message.SinkConnectorSchemaMessageMode.LOG_KEY;
 import static io.odpf.depot.message.SinkConnectorSchemaMessageMode.LOG_MESSAGE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,7 +32,6 @@ import static org.mockito.Mockito.verify;
 
 
 public class JsonOdpfMessageParserTest {
-
     private final OdpfSinkConfig defaultConfig = ConfigFactory.create(OdpfSinkConfig.class, Collections.emptyMap());
     private final Instrumentation instrumentation = mock(Instrumentation.class);
     private final JsonParserMetrics jsonParserMetrics = new JsonParserMetrics(defaultConfig);
@@ -175,4 +176,81 @@ public class JsonOdpfMessageParserTest {
                 () -> jsonOdpfMessageParser.parse(jsonOdpfMessage, null, null));
         assertEquals("message mode not defined", ioException.getMessage());
     }
+
+    @Test
+    public void shouldMapSameColumnsWithStreamingParser() throws IOException {
+        OdpfSinkConfig streamingConfig = ConfigFactory.create(OdpfSinkConfig.class, of("SINK_CONNECTOR_SCHEMA_JSON_PARSER_STREAMING_ENABLE", "true"));
+        JsonOdpfMessageParser jsonObjectParser = new JsonOdpfMessageParser(defaultConfig, instrumentation, jsonParserMetrics);
+        JsonOdpfMessageParser streamingParser = new JsonOdpfMessageParser(streamingConfig, instrumentation, jsonParserMetrics);
+        String[] jsonCases = {
+                "{\"first_name\":\"john\"}",
+                "{\n"
+                        + "  \"idfv\": \"FE533F4A-F776-4BEF-98B7-6BD1DFC2972C\",\n"
+                        + "  \"is_lat\": true,\n"
+                        + "  \"contributor_2_af_prt\": null,\n"
+                        + "  \"sdk_version\": 6.310932397154218,\n"
+                        + "  \"whole_number\": 2,\n"
+                        + "  \"tags\": [\"a\", 1, true]\n"
+                        + "}",
+                "{}"
+        };
+
+        for (String json : jsonCases) {
+            OdpfMessage message = new OdpfMessage(null, json.getBytes());
+            Map<String, Object> expected = jsonObjectParser.parse(message, LOG_MESSAGE, null).getMapping(null);
+            Map<String, Object> actual = streamingParser.parse(message, LOG_MESSAGE, null).getMapping(null);
+            assertEquals(json, expected, actual);
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionForNestedJsonWithStreamingParser() {
+        OdpfSinkConfig streamingConfig = ConfigFactory.create(OdpfSinkConfig.class, of("SINK_CONNECTOR_SCHEMA_JSON_PARSER_STREAMING_ENABLE", "true"));
+        JsonOdpfMessageParser jsonOdpfMessageParser = new JsonOdpfMessageParser(streamingConfig, instrumentation, jsonParserMetrics);
+        OdpfMessage jsonOdpfMessage = new OdpfMessage(null, "{\"ip\": \"210.210.175.250\", \"event_value\": {\"fb_content_type\": \"product\"}}".getBytes());
+
+        UnsupportedOperationException exception = assertThrows(UnsupportedOperationException.class,
+                () -> jsonOdpfMessageParser.parse(jsonOdpfMessage, LOG_MESSAGE, null));
+        assertEquals("nested json structure not supported yet", exception.getMessage());
+    }
+
+    @Test
+    public void shouldThrowErrorForInvalidLogMessageWithStreamingParser() {
+        OdpfSinkConfig streamingConfig = ConfigFactory.create(OdpfSinkConfig.class, of("SINK_CONNECTOR_SCHEMA_JSON_PARSER_STREAMING_ENABLE", "true"));
+        JsonOdpfMessageParser jsonOdpfMessageParser = new JsonOdpfMessageParser(streamingConfig, instrumentation, jsonParserMetrics);
+
+        for (String invalidJson : new String[]{"{\"first_", "[1, 2]", "{\"a\": 1, \"a\": 2}"}) {
+            OdpfMessage jsonOdpfMessage = new OdpfMessage(null, invalidJson.getBytes());
+            IOException ioException = assertThrows(IOException.class,
+                    () -> jsonOdpfMessageParser.parse(jsonOdpfMessage, LOG_MESSAGE, null));
+            assertEquals("invalid json error", ioException.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldKeepNumberTextWithStreamingParserWhereJsonObjectRendersTheNumber() throws IOException {
+        OdpfSinkConfig streamingConfig = ConfigFactory.create(OdpfSinkConfig.class, of("SINK_CONNECTOR_SCHEMA_JSON_PARSER_STREAMING_ENABLE", "true"));
+        JsonOdpfMessageParser jsonObjectParser = new JsonOdpfMessageParser(defaultConfig, instrumentation, jsonParserMetrics);
+        JsonOdpfMessageParser streamingParser = new JsonOdpfMessageParser(streamingConfig, instrumentation, jsonParserMetrics);
+        OdpfMessage message = new OdpfMessage(null, "{\"amount\": 1e5}".getBytes());
+
+        Object rendered = jsonObjectParser.parse(message, LOG_MESSAGE, null).getMapping(null).get("amount");
+        Object verbatim = streamingParser.parse(message, LOG_MESSAGE, null).getMapping(null).get("amount");
+
+        assertEquals("1e5", verbatim);
+        assertNotEquals(verbatim, rendered);
+        assertEquals(0, new BigDecimal((String) verbatim).compareTo(new BigDecimal((String) rendered)));
+    }
+
+    @Test
+    public void shouldRejectDuplicateKeysWithBothParsers() {
+        OdpfSinkConfig streamingConfig = ConfigFactory.create(OdpfSinkConfig.class, of("SINK_CONNECTOR_SCHEMA_JSON_PARSER_STREAMING_ENABLE", "true"));
+        OdpfMessage message = new OdpfMessage(null, "{\"a\": 1, \"a\": 2}".getBytes());
+
+        for (OdpfSinkConfig config : new OdpfSinkConfig[]{defaultConfig, streamingConfig}) {
+            JsonOdpfMessageParser parser = new JsonOdpfMessageParser(config, instrumentation, jsonParserMetrics);
+            IOException ioException = assertThrows(IOException.class, () -> parser.parse(message, LOG_MESSAGE, null));
+            assertEquals("invalid json error", ioException.getMessage());
+        }
+    }
 }
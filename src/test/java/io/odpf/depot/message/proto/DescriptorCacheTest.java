@@ -0,0 +1,51 @@
+package io.odpf.depot.message.proto;
+
+import com.google.protobuf.Descriptors;
+import io.odpf.depot.TestMessage;
+import io.odpf.depot.TestNestedMessage;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class DescriptorCacheTest {
+    private final DescriptorCache descriptorCache = new DescriptorCache();
+
+    @Test
+    public void shouldIndexTypeNamesOncePerDescriptorMap() {
+        Map<String, Descriptors.Descriptor> descriptors = new HashMap<>();
+        descriptors.put("io.odpf.depot.TestMessage", TestMessage.getDescriptor());
+
+        Map<String, String> typeNameToPackageNameMap = descriptorCache.getTypeNameToPackageNameMap(descriptors);
+
+        assertEquals("io.odpf.depot.TestMessage", typeNameToPackageNameMap.get(".io.odpf.depot.TestMessage"));
+        assertSame(typeNameToPackageNameMap, descriptorCache.getTypeNameToPackageNameMap(descriptors));
+    }
+
+    @Test
+    public void shouldIndexTypeNamesAgainWhenDescriptorMapChanges() {
+        Map<String, Descriptors.Descriptor> descriptors = new HashMap<>();
+        descriptors.put("io.odpf.depot.TestMessage", TestMessage.getDescriptor());
+        Map<String, String> typeNameToPackageNameMap = descriptorCache.getTypeNameToPackageNameMap(descriptors);
+
+        descriptors.put("io.odpf.depot.TestNestedMessage", TestNestedMessage.getDescriptor());
+        Map<String, String> updatedTypeNameToPackageNameMap = descriptorCache.getTypeNameToPackageNameMap(descriptors);
+
+        assertNotSame(typeNameToPackageNameMap, updatedTypeNameToPackageNameMap);
+        assertEquals("io.odpf.depot.TestNestedMessage", updatedTypeNameToPackageNameMap.get(".io.odpf.depot.TestNestedMessage"));
+    }
+
+    @Test
+    public void shouldFetchDescriptorByTypeName() {
+        Map<String, Descriptors.Descriptor> descriptors = new HashMap<>();
+        descriptors.put("io.odpf.depot.TestMessage", TestMessage.getDescriptor());
+
+        Descriptors.Descriptor descriptor = descriptorCache.fetch(descriptors, descriptorCache.getTypeNameToPackageNameMap(descriptors), ".io.odpf.depot.TestMessage");
+
+        assertEquals(TestMessage.getDescriptor(), descriptor);
+    }
+}
@@ -0,0 +1,135 @@
+package io.odpf.depot.message.proto;
+
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.odpf.depot.TestMessageBQ;
+import io.odpf.depot.TestNestedMessageBQ;
+import io.odpf.depot.TestNestedRepeatedMessageBQ;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProtoColumnPlanTest {
+
+    private Properties messageMapping() {
+        Properties mapping = new Properties();
+        mapping.put("1", "order_number");
+        mapping.put("2", "order_url");
+        mapping.put("6", "discount");
+        mapping.put("12", "aliases");
+        mapping.put("99", "not_in_descriptor");
+        return mapping;
+    }
+
+    @Test
+    public void shouldMapColumnsOfCompiledFields() throws InvalidProtocolBufferException {
+        TestMessageBQ message = TestMessageBQ.newBuilder()
+                .setOrderNumber("order-1")
+                .setDiscount(10)
+                .addAliases("alias-1")
+                .build();
+        DynamicMessage dynamicMessage = DynamicMessage.parseFrom(TestMessageBQ.getDescriptor(), message.toByteArray());
+
+        Map<String, Object> row = ProtoColumnPlan.compile(TestMessageBQ.getDescriptor(), messageMapping()).map(dynamicMessage);
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("order_number", "order-1");
+        expected.put("discount", 10L);
+        expected.put("aliases", Arrays.asList("alias-1"));
+        assertEquals(expected, row);
+    }
+
+    @Test
+    public void shouldMapNestedAndRepeatedNestedMessages() throws InvalidProtocolBufferException {
+        Properties nestedMapping = messageMapping();
+        nestedMapping.put(Constants.Config.RECORD_NAME, "message");
+        Properties mapping = new Properties();
+        mapping.put("1", nestedMapping);
+        mapping.put("2", nestedMapping);
+        mapping.put("3", "number_field");
+        TestMessageBQ child = TestMessageBQ.newBuilder().setOrderNumber("order-1").build();
+        TestNestedRepeatedMessageBQ message = TestNestedRepeatedMessageBQ.newBuilder()
+                .setSingleMessage(child)
+                .addRepeatedMessage(child)
+                .addRepeatedMessage(child)
+                .setNumberField(5)
+                .build();
+        DynamicMessage dynamicMessage = DynamicMessage.parseFrom(TestNestedRepeatedMessageBQ.getDescriptor(), message.toByteArray());
+
+        Map<String, Object> row = ProtoColumnPlan.compile(TestNestedRepeatedMessageBQ.getDescriptor(), mapping).map(dynamicMessage);
+
+        assertEquals(5, row.get("number_field"));
+        List<?> repeated = (List<?>) row.get("message");
+        assertEquals(2, repeated.size());
+        assertEquals("order-1", ((Map<?, ?>) repeated.get(0)).get("order_number"));
+    }
+
+    @Test
+    public void shouldSkipUnsetNestedMessage() throws InvalidProtocolBufferException {
+        Properties nestedMapping = messageMapping();
+        nestedMapping.put(Constants.Config.RECORD_NAME, "single_message");
+        Properties mapping = new Properties();
+        mapping.put("1", "nested_id");
+        mapping.put("2", nestedMapping);
+        DynamicMessage dynamicMessage = DynamicMessage.parseFrom(TestNestedMessageBQ.getDescriptor(),
+                TestNestedMessageBQ.newBuilder().setNestedId("id").build().toByteArray());
+
+        Map<String, Object> row = ProtoColumnPlan.compile(TestNestedMessageBQ.getDescriptor(), mapping).map(dynamicMessage);
+
+        assertEquals("id", row.get("nested_id"));
+        assertFalse(row.containsKey("single_message"));
+    }
+
+    @Test
+    public void shouldReturnEmptyRowForEmptyMapping() throws InvalidProtocolBufferException {
+        DynamicMessage dynamicMessage = DynamicMessage.parseFrom(TestMessageBQ.getDescriptor(),
+                TestMessageBQ.newBuilder().setOrderNumber("order-1").build().toByteArray());
+
+        assertTrue(ProtoColumnPlan.compile(TestMessageBQ.getDescriptor(), new Properties()).map(dynamicMessage).isEmpty());
+    }
+
+    @Test
+    public void shouldReusePlanForSameDescriptor() throws IOException {
+        ProtoOdpfMessageSchema schema = new ProtoOdpfMessageSchema(null, messageMapping());
+
+        ProtoColumnPlan plan = schema.getColumnPlan(TestMessageBQ.getDescriptor());
+
+        assertSame(plan, schema.getColumnPlan(TestMessageBQ.getDescriptor()));
+        assertNotSame(plan, schema.getColumnPlan(TestNestedMessageBQ.getDescriptor()));
+    }
+
+    @Test
+    public void shouldSkipEmptyColumnsAndKeepDefaultScalars() throws InvalidProtocolBufferException {
+        Properties mapping = messageMapping();
+        mapping.put("5", "status");
+        mapping.put("7", "success");
+        mapping.put("10", "user_token");
+        mapping.put("15", "updated_at");
+        Properties dateMapping = new Properties();
+        dateMapping.put("1", "year");
+        dateMapping.put(Constants.Config.RECORD_NAME, "order_date");
+        mapping.put("14", dateMapping);
+        DynamicMessage dynamicMessage = DynamicMessage.parseFrom(TestMessageBQ.getDescriptor(),
+                TestMessageBQ.newBuilder().setOrderUrl("").build().toByteArray());
+
+        Map<String, Object> row = ProtoColumnPlan.compile(TestMessageBQ.getDescriptor(), mapping).map(dynamicMessage);
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("discount", 0L);
+        expected.put("status", "COMPLETED");
+        expected.put("success", false);
+        expected.put("user_token", "");
+        assertEquals(expected, row);
+    }
+}
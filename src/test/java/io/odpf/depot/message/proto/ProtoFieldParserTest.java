@@ -4,6 +4,7 @@ import com.google.protobuf.*;
 import com.google.type.Date;
 import io.odpf.depot.TestMessageBQ;
 import io.odpf.depot.TestNestedMessageBQ;
+import io.odpf.depot.TestNestedRepeatedMessage;
 import io.odpf.depot.TestRecursiveMessageBQ;
 import org.junit.Before;
 import org.junit.Test;
@@ -14,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class ProtoFieldParserTest {
     private ProtoFieldParser protoMappingParser;
@@ -117,6 +119,26 @@ public class ProtoFieldParserTest {
         assertTestMessage(protoField.getFields().get(1).getFields());
     }
 
+    @Test
+    public void shouldParseNestedTypeOnceAndShareItsFields() {
+        ArrayList<Descriptors.FileDescriptor> fileDescriptors = new ArrayList<>();
+        fileDescriptors.add(TestNestedRepeatedMessage.getDescriptor().getFile());
+        Map<String, Descriptors.Descriptor> descriptorMap = getDescriptors(fileDescriptors);
+        Map<String, String> typeNameToPackageNameMap = new HashMap<String, String>() {{
+            put(".io.odpf.depot.TestMessage", "io.odpf.depot.TestMessage");
+        }};
+
+        ProtoField protoField = protoMappingParser.parseFields(new ProtoField(), "io.odpf.depot.TestNestedRepeatedMessage", descriptorMap, typeNameToPackageNameMap);
+
+        ProtoField singleMessage = protoField.getFields().get(0);
+        ProtoField repeatedMessage = protoField.getFields().get(1);
+        assertField(singleMessage, "single_message", DescriptorProtos.FieldDescriptorProto.Type.TYPE_MESSAGE, DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL, 1);
+        assertField(repeatedMessage, "repeated_message", DescriptorProtos.FieldDescriptorProto.Type.TYPE_MESSAGE, DescriptorProtos.FieldDescriptorProto.Label.LABEL_REPEATED, 2);
+        assertEquals(3, singleMessage.getFields().size());
+        assertField(singleMessage.getFields().get(0), "order_number", DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING, DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL, 1);
+        assertSame(singleMessage.getFields(), repeatedMessage.getFields());
+    }
+
     private Map<String, Descriptors.Descriptor> getDescriptors(ArrayList<Descriptors.FileDescriptor> fileDescriptors) {
         Map<String, Descriptors.Descriptor> descriptorMap = new HashMap<>();
         fileDescriptors.forEach(fd -> {
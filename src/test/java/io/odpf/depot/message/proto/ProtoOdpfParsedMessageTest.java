@@ -12,6 +12,7 @@ import io.odpf.depot.TestKeyBQ;
 import io.odpf.depot.TestMessageBQ;
 import io.odpf.depot.TestNestedMessageBQ;
 import io.odpf.depot.TestNestedRepeatedMessageBQ;
+import io.odpf.depot.error.SampledErrorReporter;
 import io.odpf.depot.message.OdpfMessageSchema;
 import io.odpf.stencil.Parser;
 import io.odpf.stencil.StencilClientFactory;
@@ -43,6 +44,7 @@ public class ProtoOdpfParsedMessageTest {
     @Mock
     private StencilClient stencilClient;
     private Map<String, Descriptors.Descriptor> descriptorsMap;
+    private final SampledErrorReporter errorReporter = new SampledErrorReporter(ProtoOdpfParsedMessageTest.class);
 
     @Before
     public void setUp() throws IOException, Descriptors.DescriptorValidationException {
@@ -77,7 +79,7 @@ public class ProtoOdpfParsedMessageTest {
     @Test
     public void shouldReturnFieldsInProperties() throws IOException {
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(dynamicMessage).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(dynamicMessage, errorReporter).getMapping(odpfMessageSchema);
         assertEquals("order-1", fields.get("order_number"));
         assertEquals("order-url", fields.get("order_url"));
         assertEquals("order-details", fields.get("order_details"));
@@ -94,7 +96,7 @@ public class ProtoOdpfParsedMessageTest {
         TestMessageBQ message = TestProtoUtil.generateTestMessage(now);
         Parser messageProtoParser = StencilClientFactory.getClient().getParser(TestMessageBQ.class.getName());
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(messageProtoParser.parse(message.toByteArray())).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(messageProtoParser.parse(message.toByteArray()), errorReporter).getMapping(odpfMessageSchema);
         Map durationFields = (Map) fields.get("trip_duration");
         assertEquals("order-1", fields.get("order_number"));
         assertEquals((long) 1, durationFields.get("seconds"));
@@ -112,7 +114,7 @@ public class ProtoOdpfParsedMessageTest {
         Arrays.asList(nestedMessage1, nestedMessage2).forEach(msg -> {
             Map<String, Object> fields = null;
             try {
-                fields = new ProtoOdpfParsedMessage(protoParser.parse(msg.toByteArray()))
+                fields = new ProtoOdpfParsedMessage(protoParser.parse(msg.toByteArray()), errorReporter)
                         .getMapping(odpfMessageParser.getSchema("io.odpf.depot.TestNestedMessageBQ", descriptorsMap));
             } catch (IOException e) {
                 e.printStackTrace();
@@ -132,7 +134,7 @@ public class ProtoOdpfParsedMessageTest {
 
         Parser protoParser = StencilClientFactory.getClient().getParser(TestMessageBQ.class.getName());
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray())).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray()), errorReporter).getMapping(odpfMessageSchema);
 
         assertEquals(orderNumber, fields.get("order_number"));
         assertEquals(Arrays.asList("alias1", "alias2"), fields.get("aliases"));
@@ -151,7 +153,7 @@ public class ProtoOdpfParsedMessageTest {
 
         Parser protoParser = StencilClientFactory.getClient().getParser(TestNestedRepeatedMessageBQ.class.getName());
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestNestedRepeatedMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray())).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray()), errorReporter).getMapping(odpfMessageSchema);
 
         assertEquals(number, fields.get("number_field"));
         List repeatedMessagesMap = (List) fields.get("repeated_message");
@@ -168,7 +170,7 @@ public class ProtoOdpfParsedMessageTest {
 
         Parser protoParser = StencilClientFactory.getClient().getParser(TestNestedRepeatedMessageBQ.class.getName());
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestNestedRepeatedMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray())).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray()), errorReporter).getMapping(odpfMessageSchema);
 
         assertEquals(number, fields.get("number_field"));
         assertEquals(1, fields.size());
@@ -186,7 +188,7 @@ public class ProtoOdpfParsedMessageTest {
 
         Parser protoParser = StencilClientFactory.getClient().getParser(TestMessageBQ.class.getName());
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray())).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray()), errorReporter).getMapping(odpfMessageSchema);
 
         assertEquals(message.getOrderNumber(), fields.get("order_number"));
         assertEquals(message.getOrderUrl(), fields.get("order_url"));
@@ -219,7 +221,7 @@ public class ProtoOdpfParsedMessageTest {
 
         Parser protoParser = StencilClientFactory.getClient().getParser(TestMessageBQ.class.getName());
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray())).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray()), errorReporter).getMapping(odpfMessageSchema);
 
 
         assertEquals(message.getOrderNumber(), fields.get("order_number"));
@@ -246,7 +248,7 @@ public class ProtoOdpfParsedMessageTest {
     @Test()
     public void shouldReturnNullWhenIndexNotPresent() throws IOException {
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestNestedRepeatedMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(dynamicMessage).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(dynamicMessage, errorReporter).getMapping(odpfMessageSchema);
 
         assertNull(fields.get("single_message"));
     }
@@ -259,7 +261,7 @@ public class ProtoOdpfParsedMessageTest {
         dynamicMessage = protoParser.parse(testMessage.toByteArray());
 
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(dynamicMessage).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(dynamicMessage, errorReporter).getMapping(odpfMessageSchema);
 
         assertNull(fields.get("order_date"));
     }
@@ -275,7 +277,7 @@ public class ProtoOdpfParsedMessageTest {
         Parser protoParser = StencilClientFactory.getClient().getParser(TestMessageBQ.class.getName());
 
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray())).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray()), errorReporter).getMapping(odpfMessageSchema);
 
         assertEquals(Arrays.asList(new DateTime(now.toEpochMilli()), new DateTime(now.toEpochMilli())), fields.get("updated_at"));
     }
@@ -290,7 +292,7 @@ public class ProtoOdpfParsedMessageTest {
         Parser protoParser = StencilClientFactory.getClient().getParser(TestMessageBQ.class.getName());
 
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray())).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray()), errorReporter).getMapping(odpfMessageSchema);
 
         assertEquals("{\"name\":\"John\",\"age\":\"50\"}", fields.get("properties"));
     }
@@ -308,7 +310,7 @@ public class ProtoOdpfParsedMessageTest {
 
         Parser protoParser = StencilClientFactory.getClient().getParser(TestMessageBQ.class.getName());
         OdpfMessageSchema odpfMessageSchema = odpfMessageParser.getSchema("io.odpf.depot.TestMessageBQ", descriptorsMap);
-        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray())).getMapping(odpfMessageSchema);
+        Map<String, Object> fields = new ProtoOdpfParsedMessage(protoParser.parse(message.toByteArray()), errorReporter).getMapping(odpfMessageSchema);
 
         assertEquals(Arrays.asList("{\"name\":\"John\",\"age\":\"50\"}", "{\"name\":\"John\",\"age\":\"60\"}"), fields.get("attributes"));
     }
@@ -0,0 +1,63 @@
+package io.odpf.depot.message.proto.converter.fields;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.Value;
+import io.odpf.depot.StatusBQ;
+import io.odpf.depot.TestMessageBQ;
+import io.odpf.depot.TestNestedMessageBQ;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProtoFieldFactoryTest {
+    @Test
+    public void shouldConvertSameAsMatchedProtoField() throws InvalidProtocolBufferException {
+        Timestamp timestamp = Timestamp.newBuilder().setSeconds(1600000000).setNanos(1000000).build();
+        Struct struct = Struct.newBuilder().putFields("name", Value.newBuilder().setStringValue("John").build()).build();
+        TestMessageBQ message = TestMessageBQ.newBuilder()
+                .setOrderNumber("order-1")
+                .setCreatedAt(timestamp)
+                .setStatus(StatusBQ.COMPLETED)
+                .setDiscount(10)
+                .putCurrentState("state", "active")
+                .setUserToken(ByteString.copyFromUtf8("token"))
+                .addAliases("alias")
+                .setProperties(struct)
+                .addUpdatedAt(timestamp)
+                .addAttributes(struct)
+                .build();
+        DynamicMessage dynamicMessage = DynamicMessage.parseFrom(TestMessageBQ.getDescriptor(), message.toByteArray());
+
+        for (Descriptors.FieldDescriptor fieldDescriptor : TestMessageBQ.getDescriptor().getFields()) {
+            Object fieldValue = dynamicMessage.getField(fieldDescriptor);
+            assertEquals(fieldDescriptor.getName(),
+                    ProtoFieldFactory.getField(fieldDescriptor, fieldValue).getValue(),
+                    ProtoFieldFactory.getConverter(fieldDescriptor).convert(fieldValue));
+        }
+    }
+
+    @Test
+    public void shouldCacheConverterPerFieldDescriptor() {
+        Descriptors.FieldDescriptor createdAt = TestMessageBQ.getDescriptor().findFieldByName("created_at");
+        Descriptors.FieldDescriptor updatedAt = TestMessageBQ.getDescriptor().findFieldByName("updated_at");
+
+        assertSame(ProtoFieldFactory.getConverter(createdAt), ProtoFieldFactory.getConverter(createdAt));
+        assertSame(ProtoFieldFactory.getConverter(createdAt), ProtoFieldFactory.getConverter(updatedAt));
+    }
+
+    @Test
+    public void shouldReturnNestedMessageAsIs() {
+        Descriptors.FieldDescriptor singleMessage = TestNestedMessageBQ.getDescriptor().findFieldByName("single_message");
+        TestMessageBQ message = TestMessageBQ.newBuilder().setOrderNumber("order-1").build();
+
+        assertTrue(ProtoFieldFactory.getField(singleMessage, message) instanceof NestedProtoField);
+        assertSame(message, ProtoFieldFactory.getConverter(singleMessage).convert(message));
+    }
+}
@@ -0,0 +1,23 @@
+package io.odpf.depot.metrics;
+
+import com.timgroup.statsd.StatsDClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class StatsDMetricTest {
+    @Test
+    public void shouldResolveNameWithGlobalAndMetricTags() {
+        StatsDClient client = mock(StatsDClient.class);
+        StatsDMetric metric = new StatsDReporter(client, "env:test").metric("operation_total", "table=t", "dataset=d");
+
+        metric.increment();
+        metric.duration(10L);
+
+        Assert.assertEquals("operation_total,env=test,table=t,dataset=d", metric.getName());
+        verify(client).count("operation_total,env=test,table=t,dataset=d", 1L);
+        verify(client).recordExecutionTime("operation_total,env=test,table=t,dataset=d", 10L);
+    }
+}
@@ -1,12 +1,23 @@
 package io.odpf.depot.utils;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.DescriptorProtos;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
 import com.google.protobuf.UnknownFieldSet;
+import io.odpf.depot.StatusBQ;
 import io.odpf.depot.TestBookingLogMessage;
 import io.odpf.depot.TestLocation;
+import io.odpf.depot.TestMessageBQ;
+import io.odpf.depot.TestNestedMessageBQ;
+import io.odpf.depot.TestNestedRepeatedMessageBQ;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -68,5 +79,75 @@ public class ProtoUtilTest {
         boolean unknownFieldExist = ProtoUtils.hasUnknownField(null);
         assertFalse(unknownFieldExist);
     }
-}
 
+    @Test
+    public void shouldMatchRenderedEmptinessForProto3Fields() {
+        TestMessageBQ emptyChild = TestMessageBQ.getDefaultInstance();
+        TestMessageBQ child = TestMessageBQ.newBuilder()
+                .setOrderNumber("")
+                .setDiscount(0)
+                .setStatus(StatusBQ.COMPLETED)
+                .setUserToken(ByteString.EMPTY)
+                .addAliases("")
+                .build();
+        List<Message> messages = Arrays.asList(
+                TestMessageBQ.getDefaultInstance(),
+                child,
+                TestNestedMessageBQ.newBuilder().setSingleMessage(emptyChild).build(),
+                TestNestedMessageBQ.newBuilder().setSingleMessage(child).setNestedId("").build(),
+                TestNestedMessageBQ.newBuilder().setSingleMessage(TestMessageBQ.newBuilder()
+                        .setUnknownFields(UnknownFieldSet.newBuilder()
+                                .addField(100, UnknownFieldSet.Field.newBuilder().addVarint(1).build())
+                                .build())
+                        .build()).build(),
+                TestNestedRepeatedMessageBQ.newBuilder().addRepeatedMessage(emptyChild).build(),
+                TestNestedRepeatedMessageBQ.getDefaultInstance());
+
+        messages.forEach(this::assertSameEmptinessAsRendered);
+    }
+
+    @Test
+    public void shouldMatchRenderedEmptinessForProto2Fields() throws Descriptors.DescriptorValidationException {
+        DescriptorProtos.DescriptorProto messageProto = DescriptorProtos.DescriptorProto.newBuilder()
+                .setName("Proto2Message")
+                .addField(proto2Field("name", 1, DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING))
+                .addField(proto2Field("count", 2, DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT32))
+                .addField(proto2Field("child", 3, DescriptorProtos.FieldDescriptorProto.Type.TYPE_MESSAGE).setTypeName("Proto2Message"))
+                .build();
+        Descriptors.Descriptor descriptor = Descriptors.FileDescriptor.buildFrom(DescriptorProtos.FileDescriptorProto.newBuilder()
+                        .setName("proto2_message.proto")
+                        .setSyntax("proto2")
+                        .addMessageType(messageProto)
+                        .build(), new Descriptors.FileDescriptor[0])
+                .findMessageTypeByName("Proto2Message");
+        DynamicMessage explicitDefaults = DynamicMessage.newBuilder(descriptor)
+                .setField(descriptor.findFieldByName("name"), "")
+                .setField(descriptor.findFieldByName("count"), 0)
+                .build();
+        DynamicMessage withChild = DynamicMessage.newBuilder(descriptor)
+                .setField(descriptor.findFieldByName("child"), explicitDefaults)
+                .build();
+        DynamicMessage withEmptyChild = DynamicMessage.newBuilder(descriptor)
+                .setField(descriptor.findFieldByName("child"), DynamicMessage.getDefaultInstance(descriptor))
+                .build();
+
+        Arrays.asList(DynamicMessage.getDefaultInstance(descriptor), explicitDefaults, withChild, withEmptyChild)
+                .forEach(this::assertSameEmptinessAsRendered);
+    }
+
+    private DescriptorProtos.FieldDescriptorProto.Builder proto2Field(String name, int number, DescriptorProtos.FieldDescriptorProto.Type type) {
+        return DescriptorProtos.FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setType(type)
+                .setLabel(DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL);
+    }
+
+    private void assertSameEmptinessAsRendered(Message message) {
+        for (Descriptors.FieldDescriptor field : message.getDescriptorForType().getFields()) {
+            assertEquals(message.getDescriptorForType().getName() + "." + field.getName(),
+                    message.getField(field).toString().isEmpty(),
+                    ProtoUtils.isEmptyField(message, field) && !field.isRepeated());
+        }
+    }
+}